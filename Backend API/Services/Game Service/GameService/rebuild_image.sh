@@ -1,5 +1,10 @@
 #!/bin/bash
 
+# generating the preflop equity table shipped in the image (once; takes a while)
+if [ ! -f data/equity_data/PreflopHeadsUp.dat ]; then
+    mvn -B -Pprod,equity-table package -DskipTests
+fi
+
 # building game service image
 docker build -t weflop/game-service-app .
 
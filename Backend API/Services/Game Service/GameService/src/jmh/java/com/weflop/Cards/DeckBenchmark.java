@@ -0,0 +1,60 @@
+package com.weflop.Cards;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * DeckBenchmark.java
+ *
+ * Cost of starting a hand: shuffling the deck, then dealing two hole cards to
+ * every player and the five center cards.
+ *
+ * @author abrevnov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+	@Param({ "STANDARD", "SHORT" })
+	private String deckType;
+
+	@Param({ "2", "9" })
+	private int players;
+
+	private Deck deck;
+
+	@Setup
+	public void setup() {
+		deck = deckType.equals("SHORT") ? new ShortDeck() : new StandardDeck();
+	}
+
+	@Benchmark
+	public void shuffle() {
+		deck.shuffle();
+	}
+
+	@Benchmark
+	public void shuffleAndDeal(Blackhole blackhole) {
+		deck.shuffle();
+		for (int i = 0; i < players * 2 + 5; i++) {
+			blackhole.consume(deck.dealCard());
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.weflop.Evaluation.Equity;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weflop.Cards.Card;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+/**
+ * EquityBenchmark.java
+ *
+ * Latency of an all-in equity calculation, enumerating every runout against
+ * sampling a fixed number of them, for three players from each street.
+ *
+ * @author abrevnov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EquityBenchmark {
+
+	private static final int SAMPLES = 20000;
+
+	@Param({ "0", "3", "4" })
+	private int boardSize;
+
+	private ExhaustiveEquityCalculator exhaustive;
+
+	private MonteCarloEquityCalculator monteCarlo;
+
+	private int[] holeCards;
+
+	private int[] board;
+
+	@Setup
+	public void setup() {
+		TwoPlusTwoHandEvaluator evaluator = TwoPlusTwoHandEvaluator.getInstance();
+		exhaustive = new ExhaustiveEquityCalculator(evaluator);
+		monteCarlo = new MonteCarloEquityCalculator(evaluator);
+
+		holeCards = ordinals("Ah", "Kh", "Qs", "Qd", "9c", "8c");
+		board = new int[boardSize];
+		System.arraycopy(ordinals("Jh", "Td", "2c", "7s"), 0, board, 0, boardSize);
+	}
+
+	@Benchmark
+	public EquityResult exhaustive() {
+		return exhaustive.calculate(holeCards, board);
+	}
+
+	@Benchmark
+	public EquityResult monteCarlo() {
+		return monteCarlo.calculate(holeCards, board, SAMPLES, Long.MAX_VALUE);
+	}
+
+	private static int[] ordinals(String... names) {
+		int[] ordinals = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			ordinals[i] = Card.fromShortName(names[i]).getOrdinal();
+		}
+		return ordinals;
+	}
+}
@@ -0,0 +1,180 @@
+package com.weflop.Evaluation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.CardValue;
+import com.weflop.Cards.Hand;
+import com.weflop.Evaluation.Low.EightOrBetterEvaluator;
+import com.weflop.Evaluation.Omaha.OmahaHandEvaluator;
+import com.weflop.Evaluation.PerfectHash.PerfectHashHandEvaluator;
+import com.weflop.Evaluation.ShortDeck.ShortDeckHandEvaluator;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+/**
+ * HandEvaluationBenchmark.java
+ *
+ * Throughput of every evaluator over the same pre-dealt hands, so the numbers
+ * (and allocation rates under the GC profiler) can be compared directly. Each
+ * invocation evaluates all {@value #HANDS} hands.
+ *
+ * @author abrevnov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandEvaluationBenchmark {
+
+	private static final int HANDS = 1024;
+
+	private TwoPlusTwoHandEvaluator twoPlusTwo;
+
+	private PerfectHashHandEvaluator perfectHash;
+
+	private ShortDeckHandEvaluator shortDeck;
+
+	private OmahaHandEvaluator omaha; // shares board prefixes through the 2+2 states
+
+	private OmahaHandEvaluator omahaEnumerated; // evaluates all 60 combinations on their own, as with any non-incremental evaluator
+
+	private EightOrBetterEvaluator omahaLow;
+
+	private int[][] holdemCards; // seven cards per hand
+
+	private int[][] shortDeckCards;
+
+	private int[][] omahaCards; // four hole cards, then five center cards
+
+	private Board[] boards;
+
+	private Hand[] hands;
+
+	private Hand[] omahaHands;
+
+	@Setup
+	public void setup() {
+		twoPlusTwo = TwoPlusTwoHandEvaluator.getInstance();
+		perfectHash = PerfectHashHandEvaluator.getInstance();
+		shortDeck = ShortDeckHandEvaluator.getInstance();
+		omaha = new OmahaHandEvaluator(twoPlusTwo, 4);
+		omahaEnumerated = new OmahaHandEvaluator(perfectHash, 4);
+		omahaLow = new EightOrBetterEvaluator(2);
+
+		Random random = new Random(42);
+		holdemCards = new int[HANDS][];
+		shortDeckCards = new int[HANDS][];
+		omahaCards = new int[HANDS][];
+		boards = new Board[HANDS];
+		hands = new Hand[HANDS];
+		omahaHands = new Hand[HANDS];
+		for (int i = 0; i < HANDS; i++) {
+			holdemCards[i] = deal(random, 0, 7);
+			shortDeckCards[i] = deal(random, CardValue.SIX.ordinal() * 4, 7);
+			omahaCards[i] = deal(random, 0, 9);
+
+			boards[i] = new Board();
+			hands[i] = new Hand();
+			for (int c = 0; c < 5; c++) {
+				boards[i].addCard(Card.fromOrdinal(holdemCards[i][c]));
+			}
+			hands[i].addCardToHand(Card.fromOrdinal(holdemCards[i][5]));
+			hands[i].addCardToHand(Card.fromOrdinal(holdemCards[i][6]));
+
+			omahaHands[i] = new Hand();
+			for (int c = 0; c < 4; c++) {
+				omahaHands[i].addCardToHand(Card.fromOrdinal(omahaCards[i][c]));
+			}
+		}
+	}
+
+	@Benchmark
+	public void twoPlusTwoEvaluate7(Blackhole blackhole) {
+		for (int[] cards : holdemCards) {
+			blackhole.consume(twoPlusTwo.evaluate7(cards[0], cards[1], cards[2], cards[3], cards[4], cards[5], cards[6]));
+		}
+	}
+
+	@Benchmark
+	public void twoPlusTwoEvaluateOrdinals(Blackhole blackhole) {
+		for (int[] cards : holdemCards) {
+			blackhole.consume(twoPlusTwo.evaluate(cards, 7));
+		}
+	}
+
+	@Benchmark
+	public void twoPlusTwoEvaluateCards(Blackhole blackhole) {
+		for (int i = 0; i < HANDS; i++) {
+			blackhole.consume(twoPlusTwo.evaluate(boards[i], hands[i]));
+		}
+	}
+
+	@Benchmark
+	public void perfectHashEvaluateOrdinals(Blackhole blackhole) {
+		for (int[] cards : holdemCards) {
+			blackhole.consume(perfectHash.evaluate(cards, 7));
+		}
+	}
+
+	@Benchmark
+	public void shortDeckEvaluateOrdinals(Blackhole blackhole) {
+		for (int[] cards : shortDeckCards) {
+			blackhole.consume(shortDeck.evaluate(cards, 7));
+		}
+	}
+
+	@Benchmark
+	public void omahaSharedPrefixes(Blackhole blackhole) {
+		for (int[] cards : omahaCards) {
+			blackhole.consume(omaha.evaluate(cards, 9));
+		}
+	}
+
+	@Benchmark
+	public void omahaEnumerated(Blackhole blackhole) {
+		for (int[] cards : omahaCards) {
+			blackhole.consume(omahaEnumerated.evaluate(cards, 9));
+		}
+	}
+
+	@Benchmark
+	public void omahaEightOrBetter(Blackhole blackhole) {
+		for (int i = 0; i < HANDS; i++) {
+			blackhole.consume(omahaLow.evaluate(boards[i], omahaHands[i]));
+		}
+	}
+
+	/**
+	 * Deals count distinct ordinals from lowestOrdinal up to the end of the deck.
+	 */
+	private static int[] deal(Random random, int lowestOrdinal, int count) {
+		int[] deck = new int[52 - lowestOrdinal];
+		for (int i = 0; i < deck.length; i++) {
+			deck[i] = lowestOrdinal + i;
+		}
+		int[] cards = new int[count];
+		for (int i = 0; i < count; i++) {
+			int j = i + random.nextInt(deck.length - i);
+			cards[i] = deck[j];
+			deck[j] = deck[i];
+		}
+		return cards;
+	}
+}
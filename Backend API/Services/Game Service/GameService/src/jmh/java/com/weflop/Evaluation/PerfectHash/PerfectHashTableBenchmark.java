@@ -0,0 +1,33 @@
+package com.weflop.Evaluation.PerfectHash;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PerfectHashTableBenchmark.java
+ *
+ * Time to generate the perfect hash tables, which happens once per process when
+ * the perfect hash evaluator is configured.
+ *
+ * @author abrevnov
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PerfectHashTableBenchmark {
+
+	@Benchmark
+	public PerfectHashHandEvaluator generateTables() {
+		return new PerfectHashHandEvaluator();
+	}
+}
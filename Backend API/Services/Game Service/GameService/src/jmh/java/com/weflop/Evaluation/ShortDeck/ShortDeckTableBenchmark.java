@@ -0,0 +1,33 @@
+package com.weflop.Evaluation.ShortDeck;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ShortDeckTableBenchmark.java
+ *
+ * Time to generate the short deck tables, which happens once per process on
+ * the first short deck game.
+ *
+ * @author abrevnov
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShortDeckTableBenchmark {
+
+	@Benchmark
+	public ShortDeckHandEvaluator generateTables() {
+		return new ShortDeckHandEvaluator();
+	}
+}
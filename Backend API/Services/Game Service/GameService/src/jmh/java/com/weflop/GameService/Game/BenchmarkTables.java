@@ -0,0 +1,33 @@
+package com.weflop.GameService.Game;
+
+import java.util.List;
+
+import com.weflop.GameService.Game.Simulation.NoOpWebSocketSession;
+
+/**
+ * BenchmarkTables.java
+ *
+ * Tables for benchmarks outside of this package, which cannot build groups
+ * themselves.
+ *
+ * @author abrevnov
+ *
+ */
+public final class BenchmarkTables {
+
+	private BenchmarkTables() {
+	}
+
+	/**
+	 * @param protocol Sub-protocol of the spectators' sessions, null for JSON
+	 * @return Participants of a table of the given number of spectators, whose
+	 *         sessions drop every message
+	 */
+	public static List<Player> spectators(int count, String protocol) {
+		Group group = new Group(count);
+		for (int i = 0; i < count; i++) {
+			group.createSpectator("player" + i, new NoOpWebSocketSession("player" + i, protocol));
+		}
+		return group.getAllParticipants();
+	}
+}
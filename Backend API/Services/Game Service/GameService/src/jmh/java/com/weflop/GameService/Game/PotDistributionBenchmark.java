@@ -0,0 +1,88 @@
+package com.weflop.GameService.Game;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Hand;
+import com.weflop.Cards.StandardDeck;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+/**
+ * PotDistributionBenchmark.java
+ *
+ * Cost of settling a showdown: building the main and side pots from the hand
+ * bets, then awarding them. Every player bets a different amount, so n players
+ * produce n pots (the worst case).
+ *
+ * @author abrevnov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PotDistributionBenchmark {
+
+	@Param({ "2", "3", "4", "5", "6", "7", "8", "9" })
+	private int players;
+
+	private BetController betController;
+
+	private Group group;
+
+	private List<Pot> pots;
+
+	@Setup
+	public void setup() {
+		TwoPlusTwoHandEvaluator evaluator = TwoPlusTwoHandEvaluator.getInstance();
+		StandardDeck deck = new StandardDeck();
+		deck.shuffle();
+
+		Board board = new Board();
+		for (int i = 0; i < 5; i++) {
+			board.addCard(deck.dealCard());
+		}
+
+		betController = new BetController(1.0f, 2.0f, 100.0f, 1000.0f);
+		group = new Group(players);
+		Player[] slots = group.getPlayerSlots();
+		for (int slot = 0; slot < players; slot++) {
+			Hand hand = new Hand();
+			hand.addCardToHand(deck.dealCard());
+			hand.addCardToHand(deck.dealCard());
+			hand.setRank(evaluator.evaluate(board, hand));
+
+			slots[slot] = new Player("player" + slot, null, hand, 0.0f, 100.0f * (slot + 1), 0.0f,
+					PlayerState.WAITING_FOR_TURN, PlayerState.WAITING_FOR_TURN, PlayerState.WAITING_FOR_TURN, slot);
+			betController.addPlayerToLedger(slots[slot].getId());
+		}
+		betController.setLastRaisePlayer(slots[players - 1]);
+
+		pots = betController.endOfBettingRoundGeneratePots(group);
+	}
+
+	@Benchmark
+	public List<Pot> generatePots() {
+		return betController.endOfBettingRoundGeneratePots(group);
+	}
+
+	@Benchmark
+	public List<Propagatable> distributePots() {
+		return betController.distributePots(group, pots);
+	}
+}
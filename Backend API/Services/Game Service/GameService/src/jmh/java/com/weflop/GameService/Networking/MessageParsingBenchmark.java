@@ -0,0 +1,59 @@
+package com.weflop.GameService.Networking;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MessageParsingBenchmark.java
+ *
+ * Cost of parsing the JSON message of a client's action, from the frame's text
+ * to the command handed to the game.
+ *
+ * @author abrevnov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageParsingBenchmark {
+
+	@Param({ "JOIN", "RAISE", "SIT" })
+	private String type;
+
+	private String message;
+
+	@Setup
+	public void setup() {
+		String payload;
+		switch (type) {
+		case "RAISE":
+			payload = "\"type\":\"RAISE\",\"user_id\":\"0b9d6a7e-3c2f-4e8a-b1d5-7f6e4c3a2b10\",\"value\":20.5";
+			break;
+		case "SIT":
+			payload = "\"type\":\"SIT\",\"user_id\":\"0b9d6a7e-3c2f-4e8a-b1d5-7f6e4c3a2b10\",\"slot\":3,\"buy_in\":200";
+			break;
+		default:
+			payload = "\"type\":\"JOIN\",\"user_id\":\"0b9d6a7e-3c2f-4e8a-b1d5-7f6e4c3a2b10\"";
+		}
+		message = "{\"type\":\"ACTION\",\"game_id\":\"5f0c3e52-8d4b-4f7e-9a51-2c1d7b3e9f60\",\"payload\":{" + payload + "}}";
+	}
+
+	@Benchmark
+	public Command parse() {
+		return Command.fromJson(message);
+	}
+}
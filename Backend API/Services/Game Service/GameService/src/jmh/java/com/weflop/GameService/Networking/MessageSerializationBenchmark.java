@@ -0,0 +1,90 @@
+package com.weflop.GameService.Networking;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weflop.Cards.Card;
+import com.weflop.GameService.Game.Action;
+import com.weflop.GameService.Game.ActionType;
+import com.weflop.GameService.Game.BenchmarkTables;
+import com.weflop.GameService.Game.Player;
+
+/**
+ * MessageSerializationBenchmark.java
+ *
+ * Cost of building the message for an action and handing it to every
+ * participant of a table, for a heads up table and for a large rail of
+ * spectators, whose clients speak either JSON or the binary protocol. The
+ * sessions drop the messages, so no I/O is measured.
+ *
+ * @author abrevnov
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageSerializationBenchmark {
+
+	@Param({ "RAISE", "CENTER_DEAL", "POT_WON", "ALL_IN_EQUITY" })
+	private String type;
+
+	@Param({ "2", "200" })
+	private int recipients;
+
+	@Param({ "json", "binary" })
+	private String protocol;
+
+	private String gameId = UUID.randomUUID().toString();
+
+	private Action action;
+
+	private List<Player> targets;
+
+	private PlayerIndexes indexes = new PlayerIndexes();
+
+	@Setup
+	public void setup() {
+		Action.ActionBuilder builder = new Action.ActionBuilder(ActionType.fromValue(type));
+		switch (ActionType.fromValue(type)) {
+		case CENTER_DEAL:
+			builder.withCards(Arrays.asList(Card.fromShortName("Ah"), Card.fromShortName("Td"),
+					Card.fromShortName("7c")));
+			break;
+		case POT_WON:
+			builder.withPlayerIds(Arrays.asList("player0", "player1")).withValue(240.0f);
+			break;
+		case ALL_IN_EQUITY:
+			builder.withPlayerIds(Arrays.asList("player0", "player1", "player2"))
+					.withEquities(Arrays.asList(0.41f, 0.35f, 0.22f), Arrays.asList(0.01f, 0.01f, 0.01f));
+			break;
+		default:
+			builder.withPlayerId("player0").withValue(20.0f);
+		}
+		action = builder.build();
+
+		targets = BenchmarkTables.spectators(recipients, protocol.equals("binary") ? BinaryProtocol.NAME : null);
+	}
+
+	@Benchmark
+	public void serializeAction() throws InterruptedException, IOException {
+		MessageSendingHandlers.propagateIncomingAction(gameId, null, action, 1, targets, indexes);
+	}
+}
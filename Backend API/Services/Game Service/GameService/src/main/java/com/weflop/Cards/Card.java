@@ -4,21 +4,39 @@ import com.weflop.GameService.Database.DomainObjects.CardPOJO;
 
 /**
  * Card.java
- * 
+ *
  * A Card instance represents a card from a standard 52-card deck.
- * 
+ *
  * @author abrevnov
  *
  */
 public class Card {
 
+	private static final Card[] BY_ORDINAL = new Card[52];
+
+	private static final String SHORT_VALUES = "23456789TJQKA";
+
+	private static final String SHORT_SUITS = "cdhs"; // in ordinal order
+
+	static {
+		for (Suit suit : Suit.values()) {
+			for (CardValue value : CardValue.values()) {
+				Card card = new Card(suit, value);
+				BY_ORDINAL[card.getOrdinal()] = card;
+			}
+		}
+	}
+
 	private final Suit suit;
 
 	private final CardValue value;
 
+	private final int ordinal;
+
 	public Card(Suit suit, CardValue value) {
 		this.value = value;
 		this.suit = suit;
+		this.ordinal = value.ordinal() * 4 + suit.getIndex();
 	}
 
 	public Suit getSuit() {
@@ -28,7 +46,49 @@ public class Card {
 	public CardValue getCardValue() {
 		return this.value;
 	}
-	
+
+	/**
+	 * Integer encoding of the card used by the evaluators: 4 * value + suit, with
+	 * suits ordered clubs, diamonds, hearts, spades. So "2c" = 0, "2d" = 1, ...
+	 * "ah" = 50, "as" = 51.
+	 *
+	 * @return ordinal between 0 and 51
+	 */
+	public int getOrdinal() {
+		return this.ordinal;
+	}
+
+	/**
+	 * Returns the shared instance of the card with the given ordinal.
+	 *
+	 * @param ordinal
+	 *            Value returned by {@link #getOrdinal()}
+	 * @return Card with that ordinal
+	 */
+	public static Card fromOrdinal(int ordinal) {
+		if (ordinal < 0 || ordinal >= BY_ORDINAL.length) {
+			throw new IllegalArgumentException("Invalid card ordinal: " + ordinal);
+		}
+		return BY_ORDINAL[ordinal];
+	}
+
+	/**
+	 * Parses the short name of a card: its value ("2".."9", "T", "J", "Q", "K",
+	 * "A") followed by its suit ("c", "d", "h", "s"), e.g. "Ah" or "Tc".
+	 *
+	 * @param name
+	 *            Short name of the card (case-insensitive)
+	 * @return Card with that name
+	 */
+	public static Card fromShortName(String name) {
+		int value = name.length() == 2 ? SHORT_VALUES.indexOf(Character.toUpperCase(name.charAt(0))) : -1;
+		int suit = name.length() == 2 ? SHORT_SUITS.indexOf(Character.toLowerCase(name.charAt(1))) : -1;
+		if (value < 0 || suit < 0) {
+			throw new IllegalArgumentException("Invalid card: " + name);
+		}
+		return fromOrdinal(value * 4 + suit);
+	}
+
 	public static Card fromPojo(CardPOJO cardPojo) {
 		return new Card(Suit.fromValue(cardPojo.getSuit()), CardValue.fromValue(cardPojo.getValue()));
 	}
@@ -16,6 +16,7 @@ import com.weflop.GameService.Database.DomainObjects.CardPOJO;
 public class Hand implements Comparable<Hand> {
 	private List<Card> cards;
 	private HandRank rank;
+	private int lowRank; // value from the low evaluator of hi/lo games, 0 if the hand has no low
 
 	public Hand() {
 		this.setCards(new ArrayList<Card>());
@@ -31,6 +32,7 @@ public class Hand implements Comparable<Hand> {
 
 	public void discard() {
 		this.cards.clear();
+		this.lowRank = 0;
 	}
 
 	public List<CardPOJO> toPOJO() {
@@ -75,5 +77,13 @@ public class Hand implements Comparable<Hand> {
 		this.rank = rank;
 	}
 
+	public int getLowRank() {
+		return lowRank;
+	}
+
+	public void setLowRank(int lowRank) {
+		this.lowRank = lowRank;
+	}
+
 
 }
@@ -0,0 +1,85 @@
+package com.weflop.Cards;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Instance of ShortDeck represents a 36-card short deck (six through ace), as
+ * used by short deck (6+) hold'em.
+ * 
+ * @author abrevnov
+ *
+ */
+public class ShortDeck implements Deck {
+
+	public static final int SIZE = 36;
+
+	private List<Card> deck; // an array of 36 Cards that form our deck.
+	private int numDealt; // number of cards that have been dealt
+	private final Random random; // source of shuffles
+
+	public ShortDeck() {
+		this(new Random());
+	}
+
+	/**
+	 * Deck whose shuffles are drawn from the given source, so that a seeded
+	 * source deals the same cards every run.
+	 */
+	public ShortDeck(Random random) {
+		this.random = random;
+
+		// starting out with no cards dealt (i.e. a full deck)
+		this.numDealt = 0;
+
+		// initialize an UNSHUFFLED deck of cards, leaving out deuces through fives
+		deck = new ArrayList<Card>();
+		for (Suit suit : Suit.values()) {
+			for (CardValue value : CardValue.values()) {
+				if (value.compareTo(CardValue.SIX) >= 0) {
+					deck.add(new Card(suit, value));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shuffles the deck
+	 */
+	@Override
+	synchronized public void shuffle() {
+		// making the deck "full" again
+		this.numDealt = 0;
+
+		// shuffling the deck
+		Collections.shuffle(this.deck, this.random);
+	}
+
+	/**
+	 * Get number of cards left in the deck
+	 * 
+	 * @return Number of cards left in the deck
+	 */
+	@Override
+	synchronized public int cardsLeft() {
+		return SIZE - this.numDealt;
+	}
+
+	/**
+	 * Deals the next card from the deck
+	 * 
+	 * @return The next card
+	 */
+	@Override
+	synchronized public Card dealCard() {
+		// once deck is empty, automatically re-shuffles
+		if (numDealt == SIZE) {
+			this.shuffle();
+		}
+		this.numDealt++;
+		return this.deck.get(numDealt - 1);
+	}
+
+}
@@ -2,6 +2,7 @@ package com.weflop.Cards;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Collections;
 
 /**
@@ -14,6 +15,7 @@ public class StandardDeck implements Deck {
 
 	private List<Card> deck; // an array of 52 Cards that form our deck.
 	private int numDealt; // number of cards that have been dealt
+	private final Random random; // source of shuffles
 
 	// we cache the suit and card values so we can easily convert from integer
 	// to suit and card enum values
@@ -21,6 +23,16 @@ public class StandardDeck implements Deck {
 	private final CardValue[] cardValueInts = CardValue.values();
 
 	public StandardDeck() {
+		this(new Random());
+	}
+
+	/**
+	 * Deck whose shuffles are drawn from the given source, so that a seeded
+	 * source deals the same cards every run.
+	 */
+	public StandardDeck(Random random) {
+		this.random = random;
+
 		// starting out with no cards dealt (i.e. a full d
 		this.numDealt = 0;
 
@@ -42,7 +54,7 @@ public class StandardDeck implements Deck {
 		this.numDealt = 0;
 
 		// shuffling the deck
-		Collections.shuffle(this.deck);
+		Collections.shuffle(this.deck, this.random);
 	}
 
 	/**
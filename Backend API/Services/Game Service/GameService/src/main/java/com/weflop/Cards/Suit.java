@@ -9,18 +9,25 @@ package com.weflop.Cards;
  *
  */
 public enum Suit {
-	HEARTS("HEARTS"), CLUBS("CLUBS"), SPADES("SPADES"), DIAMONDS("DIAMONDS");
+	HEARTS("HEARTS", 2), CLUBS("CLUBS", 0), SPADES("SPADES", 3), DIAMONDS("DIAMONDS", 1);
 
 	private final String value;
 
-	Suit(String value) {
+	private final int index; // position in the card ordinal order (clubs, diamonds, hearts, spades)
+
+	Suit(String value, int index) {
 		this.value = value;
+		this.index = index;
 	}
 
 	public String toValue() {
 		return value;
 	}
 
+	public int getIndex() {
+		return index;
+	}
+
 	public static Suit fromValue(String value) {  
 		if (value != null) {  
 			for (Suit suit : values()) {  
@@ -0,0 +1,45 @@
+package com.weflop.Evaluation.Equity;
+
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+
+/**
+ * EquityCalculator.java
+ *
+ * Picks the cheaper way to compute the equities of a hand. Enumerating a runout
+ * costs less than sampling one (partial boards are shared and no random cards
+ * are drawn), so every runout is enumerated whenever there are no more of them
+ * than the samples we would otherwise take. This covers turn and flop all-ins,
+ * which then get exact results; preflop all-ins are sampled.
+ *
+ * @author abrevnov
+ *
+ */
+public class EquityCalculator {
+
+	private final MonteCarloEquityCalculator monteCarlo;
+
+	private final ExhaustiveEquityCalculator exhaustive;
+
+	public EquityCalculator(IncrementalHandRankEvaluator evaluator) {
+		this.monteCarlo = new MonteCarloEquityCalculator(evaluator);
+		this.exhaustive = new ExhaustiveEquityCalculator(evaluator);
+	}
+
+	/**
+	 * @param holeCards
+	 *            Two hole cards per player ({@link com.weflop.Cards.Card#getOrdinal()})
+	 * @param board
+	 *            Center cards dealt so far
+	 * @param samples
+	 *            Maximum number of runouts to sample (or enumerate)
+	 * @param deadline
+	 *            {@link System#nanoTime()} after which sampling stops
+	 * @return Equities, in the order of the players
+	 */
+	public EquityResult calculate(int[] holeCards, int[] board, int samples, long deadline) {
+		if (ExhaustiveEquityCalculator.countBoards(holeCards.length / 2, board.length) <= samples) {
+			return exhaustive.calculate(holeCards, board);
+		}
+		return monteCarlo.calculate(holeCards, board, samples, deadline);
+	}
+}
@@ -0,0 +1,87 @@
+package com.weflop.Evaluation.Equity;
+
+/**
+ * EquityResult.java
+ *
+ * Chances of each player in a hand to win (alone) or tie for the pot once all
+ * remaining center cards are dealt.
+ *
+ * @author abrevnov
+ *
+ */
+public class EquityResult {
+
+	private final double[] win;
+	private final double[] tie;
+	private final double[] equity;
+	private final long boards;
+	private final boolean exact;
+
+	/**
+	 * @param wins
+	 *            Number of boards each player wins alone
+	 * @param ties
+	 *            Number of boards each player ties for the best hand
+	 * @param shares
+	 *            Pot shares each player collects over all boards (1 per win, 1/k
+	 *            per k-way tie)
+	 * @param boards
+	 *            Number of boards evaluated
+	 * @param exact
+	 *            Whether every possible board was evaluated
+	 */
+	EquityResult(long[] wins, long[] ties, double[] shares, long boards, boolean exact) {
+		this.win = new double[wins.length];
+		this.tie = new double[wins.length];
+		this.equity = new double[wins.length];
+		for (int i = 0; i < wins.length; i++) {
+			this.win[i] = boards == 0 ? 0 : (double) wins[i] / boards;
+			this.tie[i] = boards == 0 ? 0 : (double) ties[i] / boards;
+			this.equity[i] = boards == 0 ? 0 : shares[i] / boards;
+		}
+		this.boards = boards;
+		this.exact = exact;
+	}
+
+	/**
+	 * Wraps probabilities that have already been computed (e.g. precomputed
+	 * tables).
+	 */
+	EquityResult(double[] win, double[] tie, double[] equity, long boards, boolean exact) {
+		this.win = win;
+		this.tie = tie;
+		this.equity = equity;
+		this.boards = boards;
+		this.exact = exact;
+	}
+
+	public int getPlayerCount() {
+		return win.length;
+	}
+
+	public double getWinProbability(int player) {
+		return win[player];
+	}
+
+	public double getTieProbability(int player) {
+		return tie[player];
+	}
+
+	/**
+	 * @return Expected share of the pot
+	 */
+	public double getEquity(int player) {
+		return equity[player];
+	}
+
+	/**
+	 * @return Number of boards the result is based on
+	 */
+	public long getBoards() {
+		return boards;
+	}
+
+	public boolean isExact() {
+		return exact;
+	}
+}
@@ -0,0 +1,118 @@
+package com.weflop.Evaluation.Equity;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * EquityService.java
+ *
+ * Runs equity calculations for the tables on a small bounded pool of worker
+ * threads, so games never compute odds on their own threads. Calculations stop
+ * at a deadline, and fewer samples are requested while work is queued up.
+ *
+ * @author abrevnov
+ *
+ */
+public class EquityService {
+
+	public static final long DEADLINE_MILLIS = 20;
+
+	private static final int MAX_SAMPLES = 20000;
+	private static final int MIN_SAMPLES = 1000;
+	private static final int QUEUE_CAPACITY = 64;
+
+	private static volatile EquityService instance;
+
+	private final ThreadPoolExecutor workers;
+
+	private final Counter rejected = Metrics.counter("weflop.equity.rejected");
+
+	private final Counter degraded = Metrics.counter("weflop.equity.degraded");
+
+	public EquityService(int threads) {
+		AtomicInteger count = new AtomicInteger();
+		this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), runnable -> {
+					Thread thread = new Thread(runnable, "equity-worker-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * @return Shared service with one worker per core
+	 */
+	public static EquityService getInstance() {
+		if (instance == null) {
+			synchronized (EquityService.class) {
+				if (instance == null) {
+					instance = new EquityService(Runtime.getRuntime().availableProcessors());
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Queues an equity calculation for an all-in hand. The calculation stops at
+	 * {@link #DEADLINE_MILLIS} after submission (including time spent queued).
+	 *
+	 * @param evaluator
+	 *            Evaluator used by the table
+	 * @param holeCards
+	 *            Two hole cards per player ({@link com.weflop.Cards.Card#getOrdinal()})
+	 * @param board
+	 *            Center cards dealt so far
+	 * @return Future completed with the equities, or completed exceptionally when
+	 *         the pool is saturated
+	 */
+	public CompletableFuture<EquityResult> submit(IncrementalHandRankEvaluator evaluator, int[] holeCards,
+			int[] board) {
+		// heads-up preflop all-ins are answered straight from the precomputed table
+		PreflopEquityTable preflop = PreflopEquityTable.getInstance();
+		if (preflop != null && board.length == 0 && holeCards.length == 4) {
+			return CompletableFuture.completedFuture(preflop.lookup(holeCards));
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEADLINE_MILLIS);
+		int samples = samplesForLoad();
+
+		CompletableFuture<EquityResult> future = new CompletableFuture<EquityResult>();
+		try {
+			workers.execute(() -> {
+				try {
+					future.complete(new EquityCalculator(evaluator).calculate(holeCards, board, samples,
+							deadline));
+				} catch (RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Scales the number of samples down linearly as the queue fills up.
+	 */
+	private int samplesForLoad() {
+		int queued = workers.getQueue().size();
+		if (queued == 0) {
+			return MAX_SAMPLES;
+		}
+
+		degraded.increment();
+		return Math.max(MIN_SAMPLES, MAX_SAMPLES - (MAX_SAMPLES - MIN_SAMPLES) * queued / QUEUE_CAPACITY);
+	}
+}
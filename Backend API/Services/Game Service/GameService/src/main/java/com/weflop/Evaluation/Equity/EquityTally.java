@@ -0,0 +1,84 @@
+package com.weflop.Evaluation.Equity;
+
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+
+/**
+ * EquityTally.java
+ *
+ * Running count of who takes the pot over the boards evaluated so far. Not
+ * thread-safe: each worker keeps its own tally and tallies are merged at the
+ * end.
+ *
+ * @author abrevnov
+ *
+ */
+class EquityTally {
+
+	private final IncrementalHandRankEvaluator evaluator;
+	private final int[] holeCards;
+	private final int[] ranks;
+
+	private final long[] wins;
+	private final long[] ties;
+	private final double[] shares;
+	private long boards;
+
+	EquityTally(IncrementalHandRankEvaluator evaluator, int[] holeCards) {
+		int players = holeCards.length / 2;
+		this.evaluator = evaluator;
+		this.holeCards = holeCards;
+		this.ranks = new int[players];
+		this.wins = new long[players];
+		this.ties = new long[players];
+		this.shares = new double[players];
+	}
+
+	/**
+	 * Evaluates every player on a complete board and records who takes the pot.
+	 *
+	 * @param boardState
+	 *            Evaluator state after all five center cards
+	 */
+	void record(int boardState) {
+		int best = 0;
+		int winners = 0;
+		for (int player = 0; player < ranks.length; player++) {
+			int state = evaluator.advance(boardState, holeCards[player * 2]);
+			state = evaluator.advance(state, holeCards[player * 2 + 1]);
+			int rank = evaluator.rankOf(state, MonteCarloEquityCalculator.BOARD_SIZE + 2);
+			ranks[player] = rank;
+			if (rank > best) {
+				best = rank;
+				winners = 1;
+			} else if (rank == best) {
+				winners++;
+			}
+		}
+
+		for (int player = 0; player < ranks.length; player++) {
+			if (ranks[player] != best) {
+				continue;
+			}
+			if (winners == 1) {
+				wins[player]++;
+			} else {
+				ties[player]++;
+			}
+			shares[player] += 1.0 / winners;
+		}
+		boards++;
+	}
+
+	void add(EquityTally other) {
+		for (int player = 0; player < ranks.length; player++) {
+			wins[player] += other.wins[player];
+			ties[player] += other.ties[player];
+			shares[player] += other.shares[player];
+		}
+		boards += other.boards;
+	}
+
+	EquityResult toResult(boolean exact) {
+		return new EquityResult(wins, ties, shares, boards, exact);
+	}
+}
@@ -0,0 +1,143 @@
+package com.weflop.Evaluation.Equity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+
+/**
+ * ExhaustiveEquityCalculator.java
+ *
+ * Computes exact hold'em equities by evaluating every possible runout. Live
+ * cards are kept in a bit mask and iterated in increasing order, so each board
+ * is visited once, and the evaluator state of every partial runout is shared by
+ * all the boards that extend it.
+ *
+ * @author abrevnov
+ *
+ */
+public class ExhaustiveEquityCalculator {
+
+	// player evaluations below which splitting the runouts across cores costs more
+	// than it saves (a river or turn all-in, or a heads-up flop all-in)
+	private static final long PARALLEL_EVALUATIONS = 50000;
+
+	// runouts missing more cards than this are split again by their next card
+	private static final int SPLIT_MISSING = 3;
+
+	private static final long DECK = (1L << 52) - 1;
+
+	private final IncrementalHandRankEvaluator evaluator;
+
+	public ExhaustiveEquityCalculator(IncrementalHandRankEvaluator evaluator) {
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Number of distinct runouts of a hand.
+	 *
+	 * @param players
+	 *            Number of players in the hand
+	 * @param boardSize
+	 *            Center cards dealt so far
+	 */
+	public static long countBoards(int players, int boardSize) {
+		int live = 52 - 2 * players - boardSize;
+		int missing = MonteCarloEquityCalculator.BOARD_SIZE - boardSize;
+		long boards = 1;
+		for (int i = 1; i <= missing; i++) {
+			boards = boards * (live - missing + i) / i;
+		}
+		return boards;
+	}
+
+	/**
+	 * @param holeCards
+	 *            Two hole cards per player ({@link com.weflop.Cards.Card#getOrdinal()})
+	 * @param board
+	 *            Center cards dealt so far
+	 * @return Exact equities, in the order of the players
+	 */
+	public EquityResult calculate(int[] holeCards, int[] board) {
+		int players = holeCards.length / 2;
+		int missing = MonteCarloEquityCalculator.BOARD_SIZE - board.length;
+
+		long live = DECK;
+		for (int card : holeCards) {
+			live &= ~(1L << card);
+		}
+		int boardState = evaluator.initialState();
+		for (int card : board) {
+			live &= ~(1L << card);
+			boardState = evaluator.advance(boardState, card);
+		}
+
+		if (missing > 1 && countBoards(players, board.length) * players > PARALLEL_EVALUATIONS) {
+			// multi-way and early all-ins are split by their next card
+			return ForkJoinPool.commonPool().invoke(new Runouts(boardState, live, missing, holeCards, true))
+					.toResult(true);
+		}
+		return new Runouts(boardState, live, missing, holeCards, false).compute().toResult(true);
+	}
+
+	/**
+	 * Tallies every runout that extends a partial board.
+	 */
+	private class Runouts extends RecursiveTask<EquityTally> {
+		private static final long serialVersionUID = 1L;
+
+		private final int state;
+		private final long live;
+		private final int missing;
+		private final int[] holeCards;
+		private final boolean split;
+
+		Runouts(int state, long live, int missing, int[] holeCards, boolean split) {
+			this.state = state;
+			this.live = live;
+			this.missing = missing;
+			this.holeCards = holeCards;
+			this.split = split;
+		}
+
+		@Override
+		protected EquityTally compute() {
+			EquityTally tally = new EquityTally(evaluator, holeCards);
+			if (!split) {
+				enumerate(state, live, missing, tally);
+				return tally;
+			}
+
+			List<Runouts> subtasks = new ArrayList<Runouts>();
+			for (long cards = live; cards != 0; cards &= cards - 1) {
+				int card = Long.numberOfTrailingZeros(cards);
+				subtasks.add(new Runouts(evaluator.advance(state, card), higherCards(cards, card), missing - 1,
+						holeCards, missing - 1 > SPLIT_MISSING));
+			}
+			for (Runouts subtask : invokeAll(subtasks)) {
+				tally.add(subtask.join());
+			}
+			return tally;
+		}
+
+		private void enumerate(int state, long live, int missing, EquityTally tally) {
+			if (missing == 0) {
+				tally.record(state);
+				return;
+			}
+			for (long cards = live; cards != 0; cards &= cards - 1) {
+				int card = Long.numberOfTrailingZeros(cards);
+				enumerate(evaluator.advance(state, card), higherCards(cards, card), missing - 1, tally);
+			}
+		}
+	}
+
+	/**
+	 * Live cards above the given card, so every board is only built in one order.
+	 */
+	private static long higherCards(long live, int card) {
+		return live & ~((2L << card) - 1);
+	}
+}
@@ -0,0 +1,95 @@
+package com.weflop.Evaluation.Equity;
+
+import java.util.SplittableRandom;
+
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+
+/**
+ * MonteCarloEquityCalculator.java
+ *
+ * Estimates hold'em equities by dealing random runouts. Every buffer is set up
+ * once per calculation, so sampling itself allocates nothing.
+ *
+ * @author abrevnov
+ *
+ */
+public class MonteCarloEquityCalculator {
+
+	public static final int BOARD_SIZE = 5;
+
+	private static final int DEADLINE_CHECK_INTERVAL = 256; // samples between deadline checks
+
+	private static final SplittableRandom SEED = new SplittableRandom();
+
+	// SplittableRandom is not thread-safe, so each worker samples from its own split
+	private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(() -> {
+		synchronized (SEED) {
+			return SEED.split();
+		}
+	});
+
+	private final IncrementalHandRankEvaluator evaluator;
+
+	public MonteCarloEquityCalculator(IncrementalHandRankEvaluator evaluator) {
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Deals random runouts until either the requested number of samples has been
+	 * taken or the deadline has passed.
+	 *
+	 * @param holeCards
+	 *            Two hole cards per player ({@link com.weflop.Cards.Card#getOrdinal()})
+	 * @param board
+	 *            Center cards dealt so far
+	 * @param samples
+	 *            Maximum number of runouts to deal
+	 * @param deadline
+	 *            {@link System#nanoTime()} after which sampling stops
+	 * @return Estimated equities, in the order of the players
+	 */
+	public EquityResult calculate(int[] holeCards, int[] board, int samples, long deadline) {
+		int missing = BOARD_SIZE - board.length;
+
+		long dead = 0;
+		for (int card : holeCards) {
+			dead |= 1L << card;
+		}
+		int boardState = evaluator.initialState();
+		for (int card : board) {
+			dead |= 1L << card;
+			boardState = evaluator.advance(boardState, card);
+		}
+
+		int[] live = new int[52 - Long.bitCount(dead)];
+		for (int card = 0, i = 0; card < 52; card++) {
+			if ((dead & (1L << card)) == 0) {
+				live[i++] = card;
+			}
+		}
+
+		EquityTally tally = new EquityTally(evaluator, holeCards);
+		SplittableRandom random = RANDOM.get();
+		int sample = 0;
+		for (; sample < samples; sample++) {
+			if (sample % DEADLINE_CHECK_INTERVAL == 0 && sample > 0 && System.nanoTime() - deadline > 0) {
+				break;
+			}
+
+			// partial Fisher-Yates shuffle; the array stays a permutation of the live
+			// cards, so it never needs to be reset
+			int state = boardState;
+			for (int k = 0; k < missing; k++) {
+				int j = k + random.nextInt(live.length - k);
+				int card = live[j];
+				live[j] = live[k];
+				live[k] = card;
+				state = evaluator.advance(state, card);
+			}
+
+			tally.record(state);
+		}
+
+		return tally.toResult(false);
+	}
+}
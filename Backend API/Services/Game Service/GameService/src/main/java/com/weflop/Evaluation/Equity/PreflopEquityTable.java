@@ -0,0 +1,140 @@
+package com.weflop.Evaluation.Equity;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PreflopEquityTable.java
+ *
+ * Exact heads-up preflop equities for every pair of starting hands, read from a
+ * memory-mapped file written by {@link PreflopEquityTableGenerator}.
+ *
+ * The file holds one entry per ordered pair of hands (indexed by
+ * {@link #handIndex(int, int)}): the probability that the first hand wins and
+ * the probability of a tie, each as an unsigned 16-bit fraction of 65535. All
+ * suit-isomorphic matchups share the same computed result, so a lookup is a
+ * single read at a computed offset.
+ *
+ * @author abrevnov
+ *
+ */
+public class PreflopEquityTable {
+
+	/**
+	 * System property overriding where the table is read from (and generated to).
+	 */
+	public static final String PATH_PROPERTY = "weflop.equity.preflopTablePath";
+
+	private static final String DEFAULT_PATH = "data/equity_data/PreflopHeadsUp.dat";
+
+	static final int HANDS = 1326; // two card combinations
+
+	static final long TABLE_SIZE = (long) HANDS * HANDS * 4;
+
+	static final double SCALE = 65535.0;
+
+	// all five card boards once four cards are dealt
+	private static final long BOARDS = ExhaustiveEquityCalculator.countBoards(2, 0);
+
+	private static volatile PreflopEquityTable instance;
+
+	private final CharBuffer entries; // read-only, so safe to share between games and threads
+
+	PreflopEquityTable(CharBuffer entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * @return The shared table, or null if it has not been loaded (or generated)
+	 *         yet
+	 */
+	public static PreflopEquityTable getInstance() {
+		return instance;
+	}
+
+	public static Path getPath() {
+		return Paths.get(System.getProperty(PATH_PROPERTY, DEFAULT_PATH));
+	}
+
+	/**
+	 * Maps the table from {@link #getPath()} if the file exists.
+	 *
+	 * @return Whether the table is available
+	 * @throws RuntimeException
+	 *             If the file exists but cannot be mapped
+	 */
+	public static synchronized boolean load() throws RuntimeException {
+		if (instance != null) {
+			return true;
+		}
+
+		Path path = getPath();
+		if (!Files.exists(path)) {
+			return false;
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() != TABLE_SIZE) {
+				throw new IOException("Expected " + TABLE_SIZE + " bytes but found " + channel.size());
+			}
+			// the mapping stays valid after the channel is closed
+			instance = new PreflopEquityTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, TABLE_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN).asCharBuffer());
+			System.out.println("Loaded preflop equities from " + path);
+			return true;
+		} catch (IOException e) {
+			throw new RuntimeException("cannot map resource " + path, e);
+		}
+	}
+
+	/**
+	 * Index of a two card hand between 0 and 1325.
+	 *
+	 * @param card1
+	 *            {@link com.weflop.Cards.Card#getOrdinal()} of one card
+	 * @param card2
+	 *            {@link com.weflop.Cards.Card#getOrdinal()} of the other card
+	 */
+	public static int handIndex(int card1, int card2) {
+		int high = Math.max(card1, card2);
+		int low = Math.min(card1, card2);
+		return high * (high - 1) / 2 + low;
+	}
+
+	/**
+	 * @return Probability that hand (a1, a2) beats hand (b1, b2)
+	 */
+	public double getWinProbability(int a1, int a2, int b1, int b2) {
+		return entries.get(2 * entry(a1, a2, b1, b2)) / SCALE;
+	}
+
+	/**
+	 * @return Probability that hands (a1, a2) and (b1, b2) split the pot
+	 */
+	public double getTieProbability(int a1, int a2, int b1, int b2) {
+		return entries.get(2 * entry(a1, a2, b1, b2) + 1) / SCALE;
+	}
+
+	/**
+	 * @param holeCards
+	 *            Two hole cards for each of the two players
+	 * @return Equities of both players
+	 */
+	public EquityResult lookup(int[] holeCards) {
+		double win = getWinProbability(holeCards[0], holeCards[1], holeCards[2], holeCards[3]);
+		double tie = getTieProbability(holeCards[0], holeCards[1], holeCards[2], holeCards[3]);
+		double lose = Math.max(0, 1 - win - tie);
+		return new EquityResult(new double[] { win, lose }, new double[] { tie, tie },
+				new double[] { win + tie / 2, lose + tie / 2 }, BOARDS, true);
+	}
+
+	private static int entry(int a1, int a2, int b1, int b2) {
+		return handIndex(a1, a2) * HANDS + handIndex(b1, b2);
+	}
+}
@@ -0,0 +1,331 @@
+package com.weflop.Evaluation.Equity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+/**
+ * PreflopEquityTableGenerator.java
+ *
+ * Builds the {@link PreflopEquityTable} file. Every pair of starting hands is
+ * reduced to a canonical matchup under suit relabeling (and swapping the
+ * players), every canonical matchup is enumerated exhaustively on a fork/join
+ * pool, and the results are spread back over all ordered pairs of hands.
+ *
+ * Generation takes a while (47,008 matchups, 1.7M boards each), so it runs at
+ * build time through {@link #main(String[])} (the equity-table Maven profile)
+ * and the file is shipped with the service. Generating a missing table in the
+ * background at startup is opt-in ({@value #GENERATE_PROPERTY}), on at most
+ * {@value #MAX_BACKGROUND_THREADS} threads so it leaves the other cores to the
+ * tables.
+ *
+ * @author abrevnov
+ *
+ */
+public class PreflopEquityTableGenerator {
+
+	/**
+	 * System property enabling generation of a missing table at startup.
+	 */
+	public static final String GENERATE_PROPERTY = "weflop.equity.generateAtStartup";
+
+	/**
+	 * System property setting the threads generating at startup (1 by default).
+	 */
+	public static final String THREADS_PROPERTY = "weflop.equity.generatorThreads";
+
+	private static final int MAX_BACKGROUND_THREADS = 2;
+
+	private static final int[][] SUIT_PERMUTATIONS = permutations(4);
+
+	private static final int MATCHUPS_PER_TASK = 16;
+
+	private static final long DECK = (1L << 52) - 1;
+
+	private final IncrementalHandRankEvaluator evaluator;
+
+	private final ForkJoinPool pool;
+
+	public PreflopEquityTableGenerator(IncrementalHandRankEvaluator evaluator, int parallelism) {
+		this.evaluator = evaluator;
+		// a hint only: Linux ignores thread priorities under default JVM flags, so
+		// generating alongside the tables is bounded by parallelism instead
+		this.pool = new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * Generates the table to the path given as argument (or the configured path).
+	 */
+	public static void main(String[] args) {
+		Path path = args.length > 0 ? Paths.get(args[0]) : PreflopEquityTable.getPath();
+		new PreflopEquityTableGenerator(TwoPlusTwoHandEvaluator.getInstance(),
+				Runtime.getRuntime().availableProcessors()).generate(path);
+	}
+
+	/**
+	 * Loads the table, or if it is missing and {@value #GENERATE_PROPERTY} is
+	 * set, generates it on a background thread and loads it once written. Until
+	 * then {@link PreflopEquityTable#getInstance()} returns null and callers fall
+	 * back to computing equities.
+	 */
+	public static void generateInBackground() {
+		if (PreflopEquityTable.load()) {
+			return;
+		}
+		if (!Boolean.getBoolean(GENERATE_PROPERTY)) {
+			System.out.println("No preflop equity table at " + PreflopEquityTable.getPath()
+					+ ", computing preflop equities instead");
+			return;
+		}
+
+		int threads = Math.max(1, Math.min(Integer.getInteger(THREADS_PROPERTY, 1), MAX_BACKGROUND_THREADS));
+		Thread thread = new Thread(() -> {
+			new PreflopEquityTableGenerator(TwoPlusTwoHandEvaluator.getInstance(), threads)
+					.generate(PreflopEquityTable.getPath());
+			PreflopEquityTable.load();
+		}, "preflop-equity-generator");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+	}
+
+	/**
+	 * Computes every matchup and writes the table atomically to the path.
+	 *
+	 * @throws RuntimeException
+	 *             If the table cannot be written
+	 */
+	public void generate(Path path) throws RuntimeException {
+		long start = System.nanoTime();
+		try {
+			// canonical matchup of every unordered pair of hands
+			Map<Integer, Integer> canonicalIndexes = new HashMap<Integer, Integer>();
+			int[] canonicalKeys = new int[PreflopEquityTable.HANDS * PreflopEquityTable.HANDS];
+			int[] canonicalOf = new int[PreflopEquityTable.HANDS * PreflopEquityTable.HANDS];
+			int count = 0;
+			for (int a = 0; a < PreflopEquityTable.HANDS; a++) {
+				for (int b = a + 1; b < PreflopEquityTable.HANDS; b++) {
+					int[] hand1 = cardsOf(a);
+					int[] hand2 = cardsOf(b);
+					if (overlaps(hand1, hand2)) {
+						continue;
+					}
+					int key = canonicalKey(hand1[0], hand1[1], hand2[0], hand2[1]);
+					Integer index = canonicalIndexes.get(key);
+					if (index == null) {
+						index = count;
+						canonicalIndexes.put(key, count);
+						canonicalKeys[count++] = key;
+					}
+					canonicalOf[a * PreflopEquityTable.HANDS + b] = index;
+				}
+			}
+
+			char[] results = new char[count * 2];
+			pool.invoke(new EnumerateMatchups(canonicalKeys, results, 0, count));
+
+			char[] table = new char[PreflopEquityTable.HANDS * PreflopEquityTable.HANDS * 2];
+			for (int a = 0; a < PreflopEquityTable.HANDS; a++) {
+				for (int b = a + 1; b < PreflopEquityTable.HANDS; b++) {
+					int[] hand1 = cardsOf(a);
+					int[] hand2 = cardsOf(b);
+					if (overlaps(hand1, hand2)) {
+						continue;
+					}
+					int index = canonicalOf[a * PreflopEquityTable.HANDS + b];
+					int canonical = canonicalKeys[index];
+					char win = results[index * 2];
+					char tie = results[index * 2 + 1];
+					char lose = (char) Math.max(0, (int) PreflopEquityTable.SCALE - win - tie);
+
+					// the canonical matchup may list the two hands the other way around
+					boolean swapped = canonical != orderedKey(hand1[0], hand1[1], hand2[0], hand2[1]);
+					int forward = (a * PreflopEquityTable.HANDS + b) * 2;
+					int backward = (b * PreflopEquityTable.HANDS + a) * 2;
+					table[forward] = swapped ? lose : win;
+					table[forward + 1] = tie;
+					table[backward] = swapped ? win : lose;
+					table[backward + 1] = tie;
+				}
+			}
+
+			write(table, path);
+			System.out.printf("Generated %d preflop matchups in %.1f s to %s\n", count,
+					(System.nanoTime() - start) / 1e9, path);
+		} catch (IOException e) {
+			throw new RuntimeException("cannot write resource " + path, e);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Win and tie probabilities of the first hand, as fractions of 65535.
+	 */
+	char[] enumerate(int a1, int a2, int b1, int b2) {
+		long live = DECK & ~(1L << a1) & ~(1L << a2) & ~(1L << b1) & ~(1L << b2);
+		int state1 = evaluator.advance(evaluator.advance(evaluator.initialState(), a1), a2);
+		int state2 = evaluator.advance(evaluator.advance(evaluator.initialState(), b1), b2);
+
+		long[] counts = new long[3]; // wins, ties, boards
+		enumerate(state1, state2, live, MonteCarloEquityCalculator.BOARD_SIZE, counts);
+
+		return new char[] { (char) Math.round(counts[0] * PreflopEquityTable.SCALE / counts[2]),
+				(char) Math.round(counts[1] * PreflopEquityTable.SCALE / counts[2]) };
+	}
+
+	/**
+	 * Heads-up runouts are cheapest walked from each player's own state: two
+	 * lookups per partial board rather than a board walk plus four per board.
+	 */
+	private void enumerate(int state1, int state2, long live, int missing, long[] counts) {
+		for (long cards = live; cards != 0; cards &= cards - 1) {
+			int card = Long.numberOfTrailingZeros(cards);
+			int next1 = evaluator.advance(state1, card);
+			int next2 = evaluator.advance(state2, card);
+			if (missing > 1) {
+				enumerate(next1, next2, cards & ~((2L << card) - 1), missing - 1, counts);
+				continue;
+			}
+
+			int rank1 = evaluator.rankOf(next1, 7);
+			int rank2 = evaluator.rankOf(next2, 7);
+			if (rank1 > rank2) {
+				counts[0]++;
+			} else if (rank1 == rank2) {
+				counts[1]++;
+			}
+			counts[2]++;
+		}
+	}
+
+	/**
+	 * Smallest key of the matchup over all suit relabelings and both player
+	 * orders, so suit-isomorphic matchups share one key.
+	 */
+	static int canonicalKey(int a1, int a2, int b1, int b2) {
+		return Math.min(orderedKey(a1, a2, b1, b2), orderedKey(b1, b2, a1, a2));
+	}
+
+	/**
+	 * Smallest key of the matchup over all suit relabelings, keeping the players
+	 * in order.
+	 */
+	private static int orderedKey(int a1, int a2, int b1, int b2) {
+		int best = Integer.MAX_VALUE;
+		for (int[] permutation : SUIT_PERMUTATIONS) {
+			int hand1 = PreflopEquityTable.handIndex(relabel(a1, permutation), relabel(a2, permutation));
+			int hand2 = PreflopEquityTable.handIndex(relabel(b1, permutation), relabel(b2, permutation));
+			best = Math.min(best, hand1 * PreflopEquityTable.HANDS + hand2);
+		}
+		return best;
+	}
+
+	private static int relabel(int card, int[] permutation) {
+		return (card & ~3) | permutation[card & 3];
+	}
+
+	private static int[] cardsOf(int hand) {
+		int high = 1;
+		while ((high + 1) * high / 2 <= hand) {
+			high++;
+		}
+		return new int[] { high, hand - high * (high - 1) / 2 };
+	}
+
+	private static boolean overlaps(int[] hand1, int[] hand2) {
+		return hand1[0] == hand2[0] || hand1[0] == hand2[1] || hand1[1] == hand2[0] || hand1[1] == hand2[1];
+	}
+
+	private static int[][] permutations(int n) {
+		int[][] result = new int[24][];
+		int count = 0;
+		for (int a = 0; a < n; a++) {
+			for (int b = 0; b < n; b++) {
+				for (int c = 0; c < n; c++) {
+					int d = 6 - a - b - c;
+					if (a != b && a != c && b != c && d != a && d != b && d != c) {
+						result[count++] = new int[] { a, b, c, d };
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static void write(char[] table, Path path) throws IOException {
+		Path directory = path.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+
+		Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer buffer = ByteBuffer.allocateDirect(table.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.asCharBuffer().put(table);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Enumerates a range of canonical matchups.
+	 */
+	private class EnumerateMatchups extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] canonicalKeys;
+		private final char[] results;
+		private final int from;
+		private final int to;
+
+		EnumerateMatchups(int[] canonicalKeys, char[] results, int from, int to) {
+			this.canonicalKeys = canonicalKeys;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > MATCHUPS_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new EnumerateMatchups(canonicalKeys, results, from, middle),
+						new EnumerateMatchups(canonicalKeys, results, middle, to));
+				return;
+			}
+
+			for (int i = from; i < to; i++) {
+				int[] hand1 = cardsOf(canonicalKeys[i] / PreflopEquityTable.HANDS);
+				int[] hand2 = cardsOf(canonicalKeys[i] % PreflopEquityTable.HANDS);
+				char[] result = enumerate(hand1[0], hand1[1], hand2[0], hand2[1]);
+				results[i * 2] = result[0];
+				results[i * 2 + 1] = result[1];
+			}
+		}
+	}
+}
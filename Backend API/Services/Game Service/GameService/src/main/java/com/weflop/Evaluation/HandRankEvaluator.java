@@ -1,17 +1,70 @@
 package com.weflop.Evaluation;
 
+import java.util.List;
+
 import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
 import com.weflop.Cards.Hand;
 
 /**
  * HandRankEvaluator.java
- * 
+ *
  * Interface requiring implementing classes to, given table cards and a users
  * hand, to evaluate the hand.
- * 
+ *
  * @author abrevnov
  *
  */
 public interface HandRankEvaluator {
 	public HandRank evaluate(Board tableCards, Hand hand);
+
+	/**
+	 * Evaluates the first len cards of the array without allocating. Intended for
+	 * hot paths (showdown, equity) that evaluate many hands.
+	 *
+	 * @param cards
+	 *            Cards encoded as {@link com.weflop.Cards.Card#getOrdinal()}
+	 * @param len
+	 *            Number of cards to evaluate (5 to 7)
+	 * @return Rank value of the hand, larger values are stronger hands (same value
+	 *         as {@link HandRank#getValue()})
+	 */
+	public int evaluate(int[] cards, int len);
+
+	/**
+	 * Wraps a rank value returned by the integer based methods.
+	 *
+	 * @param rankValue
+	 *            Rank value produced by this evaluator
+	 * @return {@link HandRank} with that value
+	 */
+	public HandRank toHandRank(int rankValue);
+
+	/**
+	 * Evaluates many hands against a single board.
+	 *
+	 * @param board
+	 *            Center cards shared by every hand
+	 * @param holeCards
+	 *            Hole cards encoded as {@link com.weflop.Cards.Card#getOrdinal()},
+	 *            cardsPerHand consecutive entries per hand
+	 * @param cardsPerHand
+	 *            Number of hole cards in each hand
+	 * @param count
+	 *            Number of hands to evaluate
+	 * @param ranks
+	 *            Receives the rank value of hand i at index i
+	 */
+	public default void evaluateAll(Board board, int[] holeCards, int cardsPerHand, int count, int[] ranks) {
+		List<Card> boardCards = board.getCards();
+		int[] cards = new int[boardCards.size() + cardsPerHand];
+		for (int i = 0; i < boardCards.size(); i++) {
+			cards[i] = boardCards.get(i).getOrdinal();
+		}
+
+		for (int hand = 0; hand < count; hand++) {
+			System.arraycopy(holeCards, hand * cardsPerHand, cards, boardCards.size(), cardsPerHand);
+			ranks[hand] = evaluate(cards, cards.length);
+		}
+	}
 }
@@ -0,0 +1,56 @@
+package com.weflop.Evaluation;
+
+import com.weflop.Evaluation.PerfectHash.PerfectHashHandEvaluator;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+/**
+ * HandRankEvaluators.java
+ *
+ * Picks the standard deck evaluator for this deployment. The 2+2 evaluator is
+ * the fastest but maps a 130 MB table; setting the system property
+ * {@value #EVALUATOR_PROPERTY} to {@value #PERFECT_HASH} selects the perfect
+ * hash evaluator instead, which needs a few hundred KB. Both produce the same
+ * rank values.
+ *
+ * @author abrevnov
+ *
+ */
+public final class HandRankEvaluators {
+
+	public static final String EVALUATOR_PROPERTY = "weflop.evaluator";
+
+	public static final String TWO_PLUS_TWO = "TWO_PLUS_TWO";
+
+	public static final String PERFECT_HASH = "PERFECT_HASH";
+
+	private HandRankEvaluators() {
+	}
+
+	/**
+	 * @return Shared instance of the configured evaluator
+	 * @throws IllegalArgumentException
+	 *             If the configured evaluator does not exist
+	 */
+	public static HandRankEvaluator getDefault() throws IllegalArgumentException {
+		String name = System.getProperty(EVALUATOR_PROPERTY, TWO_PLUS_TWO);
+		switch (name) {
+		case TWO_PLUS_TWO:
+			return TwoPlusTwoHandEvaluator.getInstance();
+		case PERFECT_HASH:
+			return PerfectHashHandEvaluator.getInstance();
+		default:
+			throw new IllegalArgumentException("Invalid evaluator: " + name);
+		}
+	}
+
+	/**
+	 * Equity calculations walk evaluator states, which only the 2+2 evaluator
+	 * keeps.
+	 *
+	 * @return The configured evaluator if it is incremental, otherwise null
+	 */
+	public static IncrementalHandRankEvaluator getIncremental() {
+		HandRankEvaluator evaluator = getDefault();
+		return evaluator instanceof IncrementalHandRankEvaluator ? (IncrementalHandRankEvaluator) evaluator : null;
+	}
+}
@@ -0,0 +1,45 @@
+package com.weflop.Evaluation;
+
+/**
+ * IncrementalHandRankEvaluator.java
+ *
+ * Evaluator whose intermediate state can be kept after any number of cards and
+ * extended later. Cards shared between hands (the board) are then walked once
+ * per hand dealt instead of once per player evaluated.
+ *
+ * States are plain integers, so they can be stored and copied freely.
+ *
+ * @author abrevnov
+ *
+ */
+public interface IncrementalHandRankEvaluator extends HandRankEvaluator {
+
+	/**
+	 * @return State before any card has been added
+	 */
+	public int initialState();
+
+	/**
+	 * Adds a card to a state. The state passed in is not modified, so it can be
+	 * extended with different cards for different players.
+	 *
+	 * @param state
+	 *            State to extend
+	 * @param card
+	 *            Card encoded as {@link com.weflop.Cards.Card#getOrdinal()}
+	 * @return State after adding the card
+	 */
+	public int advance(int state, int card);
+
+	/**
+	 * Rank value of the hand described by a state.
+	 *
+	 * @param state
+	 *            State after adding every card of the hand
+	 * @param cardCount
+	 *            Number of cards added to reach the state (5 to 7)
+	 * @return Rank value of the hand, as returned by
+	 *         {@link HandRankEvaluator#evaluate(int[], int)}
+	 */
+	public int rankOf(int state, int cardCount);
+}
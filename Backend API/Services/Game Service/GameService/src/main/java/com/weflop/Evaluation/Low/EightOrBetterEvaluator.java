@@ -0,0 +1,159 @@
+package com.weflop.Evaluation.Low;
+
+import java.util.List;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.Hand;
+
+/**
+ * EightOrBetterEvaluator.java
+ *
+ * Evaluates the low half of hi/lo games: the best five distinct ranks from ace
+ * (low) to eight, where straights and flushes do not count against the hand.
+ *
+ * Only the distinct ranks of the cards matter, so hands are described by rank
+ * masks with bit i set when a card of {@link com.weflop.Cards.CardValue}
+ * ordinal i is present. The best low of every mask is precomputed, so
+ * evaluating a hand is a single lookup:
+ * <ul>
+ * <li>when any five cards may be used (hold'em), in a table keyed by the 13 bit
+ * mask of all the cards,</li>
+ * <li>when exactly two hole cards and three center cards must be used (Omaha),
+ * in a table keyed by the low ranks of the hole cards and of the board.</li>
+ * </ul>
+ *
+ * Low values are positive and larger for better lows (A-2-3-4-5 is best), or
+ * {@link #NO_LOW} when the hand does not qualify.
+ *
+ * @author abrevnov
+ *
+ */
+public class EightOrBetterEvaluator {
+
+	public static final int NO_LOW = 0;
+
+	private static final int LOW_RANKS = 8; // ace to eight
+
+	private static final int LOW_CARDS = 5;
+
+	private static final int ACE = 12; // CardValue ordinal
+
+	private static final char[] ANY_FIVE = new char[1 << 13];
+
+	private static final char[] TWO_AND_THREE = new char[1 << (2 * LOW_RANKS)];
+
+	static {
+		for (int mask = 0; mask < ANY_FIVE.length; mask++) {
+			ANY_FIVE[mask] = (char) lowestFive(lowMask(mask));
+		}
+
+		// every five rank low, split into the two ranks taken from the hand and the
+		// three taken from the board, is made by all supersets of the split
+		for (int low = 0; low < 1 << LOW_RANKS; low++) {
+			if (Integer.bitCount(low) != LOW_CARDS) {
+				continue;
+			}
+			char value = (char) valueOf(low);
+			for (int hole = low; hole != 0; hole = (hole - 1) & low) {
+				if (Integer.bitCount(hole) != 2) {
+					continue;
+				}
+				int board = low & ~hole;
+				for (int holeMask = hole; holeMask < 1 << LOW_RANKS; holeMask = (holeMask + 1) | hole) {
+					for (int boardMask = board; boardMask < 1 << LOW_RANKS; boardMask = (boardMask + 1) | board) {
+						int index = holeMask << LOW_RANKS | boardMask;
+						if (TWO_AND_THREE[index] < value) {
+							TWO_AND_THREE[index] = value;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private final int holeCardsRequired;
+
+	/**
+	 * @param holeCardsRequired
+	 *            Number of hole cards the hand must use, as given by
+	 *            {@link com.weflop.GameService.Game.BasicPokerGame.VariantRepresentation#getHoleCards()}:
+	 *            0 when any five cards may be used, 2 for Omaha
+	 * @throws IllegalArgumentException
+	 *             If the requirement is not supported
+	 */
+	public EightOrBetterEvaluator(int holeCardsRequired) throws IllegalArgumentException {
+		if (holeCardsRequired != 0 && holeCardsRequired != 2) {
+			throw new IllegalArgumentException("Unsupported number of required hole cards: " + holeCardsRequired);
+		}
+		this.holeCardsRequired = holeCardsRequired;
+	}
+
+	/**
+	 * @return Low value of the hand, or {@link #NO_LOW}
+	 */
+	public int evaluate(Board board, Hand hand) {
+		int boardMask = rankMask(board.getCards());
+		int holeMask = rankMask(hand.getCards());
+		return holeCardsRequired == 0 ? evaluateAnyFive(holeMask | boardMask)
+				: evaluateTwoAndThree(holeMask, boardMask);
+	}
+
+	/**
+	 * @param rankMask
+	 *            Ranks of all the cards available
+	 * @return Low value of the best five cards, or {@link #NO_LOW}
+	 */
+	public static int evaluateAnyFive(int rankMask) {
+		return ANY_FIVE[rankMask];
+	}
+
+	/**
+	 * @param holeMask
+	 *            Ranks of the hole cards
+	 * @param boardMask
+	 *            Ranks of the center cards
+	 * @return Low value of the best hand using two hole cards and three center
+	 *         cards, or {@link #NO_LOW}
+	 */
+	public static int evaluateTwoAndThree(int holeMask, int boardMask) {
+		return TWO_AND_THREE[lowMask(holeMask) << LOW_RANKS | lowMask(boardMask)];
+	}
+
+	/**
+	 * @return Mask with bit i set when a card of value ordinal i is present
+	 */
+	public static int rankMask(List<Card> cards) {
+		int mask = 0;
+		for (int i = 0; i < cards.size(); i++) {
+			mask |= 1 << cards.get(i).getCardValue().ordinal();
+		}
+		return mask;
+	}
+
+	/**
+	 * Maps a 13 bit rank mask to the 8 bit mask of its low ranks, with the ace in
+	 * bit 0 and the eight in bit 7.
+	 */
+	private static int lowMask(int rankMask) {
+		return ((rankMask & 0x7F) << 1) | ((rankMask >> ACE) & 1);
+	}
+
+	private static int lowestFive(int lowMask) {
+		if (Integer.bitCount(lowMask) < LOW_CARDS) {
+			return NO_LOW;
+		}
+		while (Integer.bitCount(lowMask) > LOW_CARDS) {
+			lowMask &= ~Integer.highestOneBit(lowMask);
+		}
+		return valueOf(lowMask);
+	}
+
+	/**
+	 * Lows compare by their highest card first, which is the order of their masks,
+	 * so a smaller mask is a better low.
+	 */
+	private static int valueOf(int lowMask) {
+		return (1 << LOW_RANKS) - lowMask;
+	}
+}
@@ -0,0 +1,210 @@
+package com.weflop.Evaluation.Omaha;
+
+import java.util.List;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.Hand;
+import com.weflop.Evaluation.HandRank;
+import com.weflop.Evaluation.HandRankEvaluator;
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+
+/**
+ * OmahaHandEvaluator.java
+ *
+ * Evaluates Omaha hands, where the best hand uses exactly two hole cards and
+ * exactly three center cards. Works for any number of hole cards (four for
+ * Omaha, five or six for the "big O" variants).
+ *
+ * Every combination is walked through the states of an incremental evaluator
+ * rather than evaluated on its own: each board triple is walked once, each
+ * first hole card once per triple, and only the last card is added per
+ * combination. With four hole cards and five center cards that is 109 state
+ * transitions for the 60 combinations instead of 300. Evaluators that do not
+ * keep states (e.g. the perfect hash evaluator) evaluate each combination.
+ *
+ * @author abrevnov
+ *
+ */
+public class OmahaHandEvaluator implements HandRankEvaluator {
+
+	public static final int HOLE_CARDS_USED = 2;
+
+	public static final int BOARD_CARDS_USED = 3;
+
+	private static final int HAND_SIZE = HOLE_CARDS_USED + BOARD_CARDS_USED;
+
+	private static final int MAX_TRIPLES = 10; // 3 from 5
+
+	private final HandRankEvaluator fiveCardEvaluator;
+
+	private final IncrementalHandRankEvaluator evaluator; // null if the evaluator is not incremental
+
+	private final int cardsDealt;
+
+	/**
+	 * @param fiveCardEvaluator
+	 *            Evaluator of five card hands (e.g. the 2+2 evaluator)
+	 * @param cardsDealt
+	 *            Number of hole cards dealt to each player, used to split the
+	 *            cards passed to {@link #evaluate(int[], int)}
+	 */
+	public OmahaHandEvaluator(HandRankEvaluator fiveCardEvaluator, int cardsDealt) {
+		this.fiveCardEvaluator = fiveCardEvaluator;
+		this.evaluator = fiveCardEvaluator instanceof IncrementalHandRankEvaluator
+				? (IncrementalHandRankEvaluator) fiveCardEvaluator
+				: null;
+		this.cardsDealt = cardsDealt;
+	}
+
+	@Override
+	public HandRank evaluate(Board board, Hand hand) {
+		List<Card> boardCards = board.getCards();
+		List<Card> holeCards = hand.getCards();
+
+		int[] boardOrdinals = new int[boardCards.size()];
+		for (int i = 0; i < boardOrdinals.length; i++) {
+			boardOrdinals[i] = boardCards.get(i).getOrdinal();
+		}
+		int[] holeOrdinals = new int[holeCards.size()];
+		for (int i = 0; i < holeOrdinals.length; i++) {
+			holeOrdinals[i] = holeCards.get(i).getOrdinal();
+		}
+
+		if (evaluator == null) {
+			return toHandRank(enumerate(boardOrdinals, boardOrdinals.length, holeOrdinals, 0, holeOrdinals.length));
+		}
+
+		int[] triples = new int[MAX_TRIPLES];
+		int tripleCount = walkTriples(boardOrdinals, boardOrdinals.length, triples);
+		return toHandRank(best(triples, tripleCount, holeOrdinals, 0, holeOrdinals.length));
+	}
+
+	/**
+	 * Evaluates a hand laid out as its hole cards (as many as the evaluator was
+	 * created with) followed by the center cards.
+	 */
+	@Override
+	public int evaluate(int[] cards, int len) {
+		int boardSize = len - cardsDealt;
+		int[] board = new int[boardSize];
+		System.arraycopy(cards, cardsDealt, board, 0, boardSize);
+		if (evaluator == null) {
+			return enumerate(board, boardSize, cards, 0, cardsDealt);
+		}
+
+		int[] triples = new int[MAX_TRIPLES];
+		int tripleCount = walkTriples(board, boardSize, triples);
+		return best(triples, tripleCount, cards, 0, cardsDealt);
+	}
+
+	@Override
+	public HandRank toHandRank(int rankValue) {
+		return fiveCardEvaluator.toHandRank(rankValue);
+	}
+
+	/**
+	 * Walks the board triples once and shares them between every hand.
+	 */
+	@Override
+	public void evaluateAll(Board board, int[] holeCards, int cardsPerHand, int count, int[] ranks) {
+		List<Card> boardCards = board.getCards();
+		int[] boardOrdinals = new int[boardCards.size()];
+		for (int i = 0; i < boardOrdinals.length; i++) {
+			boardOrdinals[i] = boardCards.get(i).getOrdinal();
+		}
+
+		if (evaluator == null) {
+			for (int hand = 0; hand < count; hand++) {
+				ranks[hand] = enumerate(boardOrdinals, boardOrdinals.length, holeCards, hand * cardsPerHand,
+						cardsPerHand);
+			}
+			return;
+		}
+
+		int[] triples = new int[MAX_TRIPLES];
+		int tripleCount = walkTriples(boardOrdinals, boardOrdinals.length, triples);
+		for (int hand = 0; hand < count; hand++) {
+			ranks[hand] = best(triples, tripleCount, holeCards, hand * cardsPerHand, cardsPerHand);
+		}
+	}
+
+	/**
+	 * Stores the evaluator state of every three card subset of the board.
+	 *
+	 * @return Number of subsets
+	 * @throws IllegalArgumentException
+	 *             If fewer than three or more than five center cards are given
+	 */
+	private int walkTriples(int[] board, int boardSize, int[] triples) throws IllegalArgumentException {
+		checkBoardSize(boardSize);
+
+		int count = 0;
+		for (int i = 0; i < boardSize - 2; i++) {
+			int first = evaluator.advance(evaluator.initialState(), board[i]);
+			for (int j = i + 1; j < boardSize - 1; j++) {
+				int second = evaluator.advance(first, board[j]);
+				for (int k = j + 1; k < boardSize; k++) {
+					triples[count++] = evaluator.advance(second, board[k]);
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Best rank over every board triple and every pair of the hole cards between
+	 * offset and offset + holeCount.
+	 */
+	private int best(int[] triples, int tripleCount, int[] holeCards, int offset, int holeCount) {
+		int best = Integer.MIN_VALUE;
+		int end = offset + holeCount;
+		for (int t = 0; t < tripleCount; t++) {
+			for (int i = offset; i < end - 1; i++) {
+				int state = evaluator.advance(triples[t], holeCards[i]);
+				for (int j = i + 1; j < end; j++) {
+					best = Math.max(best, evaluator.rankOf(evaluator.advance(state, holeCards[j]), HAND_SIZE));
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Best rank over every combination, each evaluated on its own.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If fewer than three or more than five center cards are given
+	 */
+	private int enumerate(int[] board, int boardSize, int[] holeCards, int offset, int holeCount)
+			throws IllegalArgumentException {
+		checkBoardSize(boardSize);
+
+		int best = Integer.MIN_VALUE;
+		int end = offset + holeCount;
+		int[] hand = new int[HAND_SIZE];
+		for (int i = 0; i < boardSize - 2; i++) {
+			for (int j = i + 1; j < boardSize - 1; j++) {
+				for (int k = j + 1; k < boardSize; k++) {
+					hand[0] = board[i];
+					hand[1] = board[j];
+					hand[2] = board[k];
+					for (int h1 = offset; h1 < end - 1; h1++) {
+						for (int h2 = h1 + 1; h2 < end; h2++) {
+							hand[3] = holeCards[h1];
+							hand[4] = holeCards[h2];
+							best = Math.max(best, fiveCardEvaluator.evaluate(hand, HAND_SIZE));
+						}
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	private static void checkBoardSize(int boardSize) throws IllegalArgumentException {
+		if (boardSize < BOARD_CARDS_USED || boardSize > 5) {
+			throw new IllegalArgumentException("Omaha hands need 3 to 5 center cards, got " + boardSize);
+		}
+	}
+}
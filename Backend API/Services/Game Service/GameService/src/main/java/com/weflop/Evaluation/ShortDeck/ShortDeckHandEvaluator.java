@@ -0,0 +1,203 @@
+package com.weflop.Evaluation.ShortDeck;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.CardValue;
+import com.weflop.Cards.Hand;
+import com.weflop.Evaluation.HandRank;
+import com.weflop.Evaluation.HandRankEvaluator;
+
+/**
+ * ShortDeckHandEvaluator.java
+ *
+ * Evaluates short deck (six through ace) hands of five to seven cards with two
+ * small tables generated on first use:
+ * <ul>
+ * <li>a state machine over the ranks of the cards, whose states are the
+ * multisets of up to seven ranks and which holds the (non-flush) value of
+ * every hand of five or more cards,</li>
+ * <li>the value of every flush, keyed by the 9 bit mask of its ranks.</li>
+ * </ul>
+ * Together they take a few hundred kilobytes, compared to the 130 MB 2+2
+ * table, and generate in milliseconds. A hand is the larger of its rank value
+ * and its flush value, if any: only hands that outrank a flush in short deck
+ * (four of a kind and straight flushes) can coexist with one.
+ *
+ * Cards are encoded as {@link Card#getOrdinal()}, so hands are shared with the
+ * rest of the game unchanged.
+ *
+ * @author abrevnov
+ *
+ */
+public class ShortDeckHandEvaluator implements HandRankEvaluator {
+
+	private static final int LOWEST_RANK = CardValue.SIX.ordinal();
+
+	private static final int RANKS = CardValue.values().length - LOWEST_RANK;
+
+	private static final int MAX_CARDS = 7;
+
+	private static final int MAX_PER_RANK = 4;
+
+	private static volatile ShortDeckHandEvaluator instance;
+
+	private final int[] transitions; // next state for each state and rank
+
+	private final char[] rankValues; // value of each state, 0 below five cards
+
+	private final char[] flushValues; // value of each flush, by rank mask
+
+	ShortDeckHandEvaluator() {
+		long start = System.nanoTime();
+
+		// breadth first over the rank multisets, keyed as base 5 numbers
+		Map<Integer, Integer> states = new HashMap<Integer, Integer>();
+		List<Integer> keys = new ArrayList<Integer>();
+		states.put(0, 0);
+		keys.add(0);
+		for (int i = 0; i < keys.size(); i++) {
+			int[] counts = countsOf(keys.get(i));
+			if (cardCount(counts) == MAX_CARDS) {
+				continue;
+			}
+			for (int rank = 0; rank < RANKS; rank++) {
+				if (counts[rank] < MAX_PER_RANK) {
+					int next = keys.get(i) + power(rank);
+					if (!states.containsKey(next)) {
+						states.put(next, keys.size());
+						keys.add(next);
+					}
+				}
+			}
+		}
+
+		this.transitions = new int[keys.size() * RANKS];
+		this.rankValues = new char[keys.size()];
+		int[] rankCounts = new int[CardValue.values().length];
+		for (int state = 0; state < keys.size(); state++) {
+			int[] counts = countsOf(keys.get(state));
+			for (int rank = 0; rank < RANKS; rank++) {
+				Integer next = states.get(keys.get(state) + power(rank));
+				transitions[state * RANKS + rank] = counts[rank] < MAX_PER_RANK && next != null ? next : -1;
+				rankCounts[LOWEST_RANK + rank] = counts[rank];
+			}
+			if (cardCount(counts) >= 5) {
+				rankValues[state] = (char) ShortDeckRankCalculator.evaluate(rankCounts, 0);
+			}
+		}
+
+		this.flushValues = new char[1 << RANKS];
+		for (int mask = 0; mask < flushValues.length; mask++) {
+			if (Integer.bitCount(mask) >= 5) {
+				for (int rank = 0; rank < RANKS; rank++) {
+					rankCounts[LOWEST_RANK + rank] = (mask >> rank) & 1;
+				}
+				flushValues[mask] = (char) ShortDeckRankCalculator.evaluate(rankCounts, mask << LOWEST_RANK);
+			}
+		}
+
+		System.out.printf("Generated short deck tables (%d states) in %d ms\n", keys.size(),
+				(System.nanoTime() - start) / 1000000);
+	}
+
+	/**
+	 * @return Shared evaluator, generating its tables on first use
+	 */
+	public static ShortDeckHandEvaluator getInstance() {
+		if (instance == null) {
+			synchronized (ShortDeckHandEvaluator.class) {
+				if (instance == null) {
+					instance = new ShortDeckHandEvaluator();
+				}
+			}
+		}
+		return instance;
+	}
+
+	@Override
+	public HandRank evaluate(Board board, Hand hand) {
+		List<Card> boardCards = board.getCards();
+		List<Card> holeCards = hand.getCards();
+
+		int[] cards = new int[boardCards.size() + holeCards.size()];
+		for (int i = 0; i < boardCards.size(); i++) {
+			cards[i] = ordinalOf(boardCards.get(i));
+		}
+		for (int i = 0; i < holeCards.size(); i++) {
+			cards[boardCards.size() + i] = ordinalOf(holeCards.get(i));
+		}
+		return toHandRank(evaluate(cards, cards.length));
+	}
+
+	/**
+	 * Evaluates the first len cards, which must all be six or higher.
+	 */
+	@Override
+	public int evaluate(int[] cards, int len) {
+		int state = 0;
+		long suitMasks = 0; // 16 bits of ranks per suit
+		for (int i = 0; i < len; i++) {
+			int rank = (cards[i] >> 2) - LOWEST_RANK;
+			state = transitions[state * RANKS + rank];
+			suitMasks |= 1L << ((cards[i] & 3) * 16 + rank);
+		}
+
+		int value = rankValues[state];
+		for (int suit = 0; suit < 4; suit++) {
+			int mask = (int) (suitMasks >>> (suit * 16)) & ((1 << RANKS) - 1);
+			if (Integer.bitCount(mask) >= 5) {
+				value = Math.max(value, flushValues[mask]);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public HandRank toHandRank(int rankValue) {
+		return new ShortDeckHandRank(rankValue);
+	}
+
+	/**
+	 * @return Number of states of the rank state machine
+	 */
+	public int getStateCount() {
+		return rankValues.length;
+	}
+
+	private static int ordinalOf(Card card) {
+		if (card.getCardValue().ordinal() < LOWEST_RANK) {
+			throw new IllegalArgumentException("Card is not part of a short deck: " + card.getCardValue());
+		}
+		return card.getOrdinal();
+	}
+
+	private static int[] countsOf(int key) {
+		int[] counts = new int[RANKS];
+		for (int rank = 0; rank < RANKS; rank++) {
+			counts[rank] = key % 5;
+			key /= 5;
+		}
+		return counts;
+	}
+
+	private static int cardCount(int[] counts) {
+		int total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	private static int power(int rank) {
+		int power = 1;
+		for (int i = 0; i < rank; i++) {
+			power *= 5;
+		}
+		return power;
+	}
+}
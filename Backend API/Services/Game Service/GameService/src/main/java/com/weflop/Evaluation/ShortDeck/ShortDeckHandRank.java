@@ -0,0 +1,25 @@
+package com.weflop.Evaluation.ShortDeck;
+
+import com.weflop.Evaluation.HandClassification;
+import com.weflop.Evaluation.HandRank;
+
+/**
+ * ShortDeckHandRank.java
+ *
+ * Rank of a short deck hand, as produced by {@link ShortDeckRankCalculator}.
+ *
+ * @author abrevnov
+ *
+ */
+public class ShortDeckHandRank extends HandRank {
+
+	public ShortDeckHandRank(int rankValue) {
+		super(rankValue);
+	}
+
+	@Override
+	public HandClassification getHandType() {
+		// full houses and flushes swap places relative to the 2+2 encoding
+		return HandClassification.values()[ShortDeckRankCalculator.classificationOf(rankValue)];
+	}
+}
@@ -0,0 +1,118 @@
+package com.weflop.Evaluation.ShortDeck;
+
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoRankCalculator;
+
+/**
+ * ShortDeckRankCalculator.java
+ *
+ * Computes the rank value of the best five card hand out of five to seven
+ * short deck (six through ace) cards. Short deck differs from a standard deck
+ * in two ways:
+ * <ul>
+ * <li>a flush beats a full house (flushes are rarer with only nine ranks),</li>
+ * <li>A-6-7-8-9 is the lowest straight (the ace plays below the six).</li>
+ * </ul>
+ *
+ * Values use the 2+2 layout (classification in the bits above 12, strength
+ * within the classification in the low 12 bits) except that the full house and
+ * flush classifications swap places, so larger values always win.
+ *
+ * Ranks are indexed by {@link com.weflop.Cards.CardValue} ordinal, 4 (six)
+ * through 12 (ace).
+ *
+ * @author abrevnov
+ *
+ */
+public final class ShortDeckRankCalculator {
+
+	/**
+	 * Position of each 2+2 classification in the short deck order.
+	 */
+	private static final int[] ORDER = { 0, 1, 2, 3, 4, 5, 7, 6, 8, 9 };
+
+	private static final int LOW_STRAIGHT = 0x10F0; // A-6-7-8-9
+
+	private static final int NINE = 7;
+
+	private ShortDeckRankCalculator() {
+	}
+
+	/**
+	 * Evaluates the best five card hand.
+	 *
+	 * @param rankCounts
+	 *            Number of cards of each rank (13 entries)
+	 * @param flushMask
+	 *            Bit mask of the ranks held in a suit with at least five cards, or
+	 *            0 if there is no flush
+	 * @return Short deck rank value of the hand
+	 */
+	public static int evaluate(int[] rankCounts, int flushMask) {
+		if (flushMask != 0) {
+			int top = straightTop(flushMask);
+			if (top >= 0) {
+				return encode(TwoPlusTwoRankCalculator.STRAIGHT_FLUSH, top - 2);
+			}
+		}
+
+		int rankMask = 0;
+		for (int rank = 0; rank < rankCounts.length; rank++) {
+			if (rankCounts[rank] > 0) {
+				rankMask |= 1 << rank;
+			}
+		}
+
+		// ignoring suits, the standard calculator ranks everything but the low straight
+		int standard = TwoPlusTwoRankCalculator.evaluate(rankCounts, 0);
+		int classification = standard >> 12;
+		if (classification == TwoPlusTwoRankCalculator.FOUR_OF_A_KIND) {
+			return encode(classification, standard & 0xFFF);
+		}
+
+		if (flushMask != 0) {
+			// the flush ranks on their own cannot pair up, so this is the flush value
+			int[] flushCounts = new int[rankCounts.length];
+			for (int rank = 0; rank < flushCounts.length; rank++) {
+				flushCounts[rank] = (flushMask >> rank) & 1;
+			}
+			return encode(TwoPlusTwoRankCalculator.FLUSH,
+					TwoPlusTwoRankCalculator.evaluate(flushCounts, flushMask) & 0xFFF);
+		}
+
+		if (classification < TwoPlusTwoRankCalculator.STRAIGHT && straightTop(rankMask) >= 0) {
+			return encode(TwoPlusTwoRankCalculator.STRAIGHT, NINE - 2);
+		}
+
+		return encode(classification, standard & 0xFFF);
+	}
+
+	/**
+	 * Returns the rank of the highest card of a straight contained in the mask (7,
+	 * the nine, for A-6-7-8-9), or -1 if there is none.
+	 */
+	public static int straightTop(int rankMask) {
+		int top = TwoPlusTwoRankCalculator.straightTop(rankMask);
+		if (top >= 0) {
+			return top;
+		}
+		return (rankMask & LOW_STRAIGHT) == LOW_STRAIGHT ? NINE : -1;
+	}
+
+	/**
+	 * @return 2+2 classification (see {@link com.weflop.Evaluation.HandClassification}
+	 *         ordinals) of a short deck rank value
+	 */
+	public static int classificationOf(int rankValue) {
+		int order = rankValue >> 12;
+		for (int classification = 0; classification < ORDER.length; classification++) {
+			if (ORDER[classification] == order) {
+				return classification;
+			}
+		}
+		return 0;
+	}
+
+	private static int encode(int classification, int strength) {
+		return (ORDER[classification] << 12) | strength;
+	}
+}
@@ -25,14 +25,18 @@ THE SOFTWARE.
 */
 package com.weflop.Evaluation.TwoPlusTwo;
 
-import java.util.ArrayList;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import com.weflop.Cards.Board;
 import com.weflop.Cards.Card;
 import com.weflop.Cards.Hand;
 import com.weflop.Evaluation.HandRank;
-import com.weflop.Evaluation.HandRankEvaluator;
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
 
 /**
  * Poker hand Evaluation algorithm based on the two plus two 7 card hand
@@ -40,121 +44,199 @@ import com.weflop.Evaluation.HandRankEvaluator;
  * 
  * @author abrevnov
  */
-public class TwoPlusTwoHandEvaluator implements HandRankEvaluator {
+public class TwoPlusTwoHandEvaluator implements IncrementalHandRankEvaluator {
 
 	private static final String HAND_RANKS = "data/evaluator_data/TwoPlusTwo/HandRanks.dat";
-	private int[] handRanks;
 
-	private static TwoPlusTwoHandEvaluator instance;
+	/**
+	 * System property overriding where the hand rank file is read from. If no file
+	 * exists there, the table is generated and cached at that path.
+	 */
+	public static final String HAND_RANKS_PATH_PROPERTY = "weflop.evaluator.handRanksPath";
+
+	/**
+	 * System property that, when true, copies the table onto the heap instead of
+	 * mapping it (e.g. for hosts where mapped files count against a tight limit).
+	 */
+	public static final String HEAP_TABLE_PROPERTY = "weflop.evaluator.heapHandRanks";
+
+	private static final int PARALLEL_THRESHOLD = 8192; // hands evaluated per fork/join task
 
-	public TwoPlusTwoHandEvaluator() {
-		TwoPlusTwoHandsTableLoader reader = new TwoPlusTwoHandsTableLoader();
-		handRanks = reader.loadHandRankResource(HAND_RANKS);
+	private final IntBuffer handRanks; // read-only, so safe to share between games and threads
+
+	private static volatile TwoPlusTwoHandEvaluator instance;
+
+	/**
+	 * Creates an evaluator on top of an already loaded hand rank table. Prefer
+	 * {@link #getInstance()}, which shares a single mapped table across the JVM.
+	 * 
+	 * @param handRanks
+	 *            2+2 hand rank lookup table
+	 */
+	public TwoPlusTwoHandEvaluator(IntBuffer handRanks) {
+		this.handRanks = handRanks;
 	}
 
 	/**
 	 * The two plus two lookup table is very memory intensive. You should only ever
 	 * create one instance of the class. Use this method to keep the singleton
-	 * pattern.
-	 * 
+	 * pattern. The table is memory-mapped on first use, so every game shares the
+	 * same read-only copy and creating a game costs no table I/O. If the table has
+	 * not been cached yet, it is generated first.
+	 *
 	 * @return {@link TwoPlusTwoHandEvaluator} instance
 	 */
 	public static TwoPlusTwoHandEvaluator getInstance() {
 		if (instance == null) {
-			instance = new TwoPlusTwoHandEvaluator();
+			synchronized (TwoPlusTwoHandEvaluator.class) {
+				if (instance == null) {
+					String path = System.getProperty(HAND_RANKS_PATH_PROPERTY, HAND_RANKS);
+					if (!Files.exists(Paths.get(path))) {
+						new TwoPlusTwoHandsTableGenerator().generateHandRankResource(Paths.get(path));
+					}
+
+					TwoPlusTwoHandsTableLoader reader = new TwoPlusTwoHandsTableLoader();
+					IntBuffer handRanks = Boolean.getBoolean(HEAP_TABLE_PROPERTY)
+							? IntBuffer.wrap(reader.loadHandRankResource(path))
+							: reader.mapHandRankResource(path);
+					instance = new TwoPlusTwoHandEvaluator(handRanks);
+				}
+			}
 		}
 		return instance;
 	}
 
 	@Override
 	public HandRank evaluate(Board board, Hand hand) {
-		List<Card> boardCards = new ArrayList<Card>(board.getCards());
-		
-		boardCards.addAll(hand.getCards()); // concatenating all cards
+		List<Card> boardCards = board.getCards();
+		List<Card> holeCards = hand.getCards();
 
 		int p = 53;
-		for (Card card : boardCards) {
-			p = handRanks[p + cardToIntegerRepresentation(card)];
+		for (int i = 0; i < boardCards.size(); i++) {
+			p = handRanks.get(p + boardCards.get(i).getOrdinal() + 1);
 		}
-		return new TwoPlusTwoHandRank(p);
+		for (int i = 0; i < holeCards.size(); i++) {
+			p = handRanks.get(p + holeCards.get(i).getOrdinal() + 1);
+		}
+		return toHandRank(rankOf(p, boardCards.size() + holeCards.size()));
+	}
+
+	@Override
+	public int evaluate(int[] cards, int len) {
+		int p = 53;
+		for (int i = 0; i < len; i++) {
+			p = handRanks.get(p + cards[i] + 1);
+		}
+		return rankOf(p, len);
+	}
+
+	@Override
+	public HandRank toHandRank(int rankValue) {
+		return TwoPlusTwoHandRank.valueOf(rankValue);
+	}
+
+	@Override
+	public int initialState() {
+		return 53;
+	}
+
+	@Override
+	public int advance(int state, int card) {
+		return handRanks.get(state + card + 1);
 	}
 
 	/**
-	 * 
-	 * Helper method that takes in a given card and returns its integer
-	 * representation (as used in the TwoPlusTwo algorithm). This representation is
-	 * as follows:
-	 * 
-	 * "2c": 1, "2d": 2, "2h": 3, "2s": 4, "3c": 5, "3d": 6, ... "kh": 47, "ks": 48,
-	 * "ac": 49, "ad": 50, "ah": 51, "as": 52
-	 * 
-	 * @param card
-	 * @return An integer encoding the card.
+	 * Walks the board once and then only the hole cards of each hand. Large batches
+	 * are split across the common fork/join pool.
 	 */
-	private int cardToIntegerRepresentation(Card card) {
-		int result = 0;
-		switch (card.getSuit()) {
-		case CLUBS:
-			result = result + 1;
-			break;
-		case DIAMONDS:
-			result = result + 2;
-			break;
-		case HEARTS:
-			result = result + 3;
-			break;
-		case SPADES:
-			result = result + 4;
-			break;
-		default:
-			System.out.println("ERROR: Invalid card");
-			break;
+	@Override
+	public void evaluateAll(Board board, int[] holeCards, int cardsPerHand, int count, int[] ranks) {
+		List<Card> boardCards = board.getCards();
+		int boardState = initialState();
+		for (int i = 0; i < boardCards.size(); i++) {
+			boardState = advance(boardState, boardCards.get(i).getOrdinal());
 		}
 
-		switch (card.getCardValue()) {
-		case TWO:
-			break;
-		case THREE:
-			result = result + 4;
-			break;
-		case FOUR:
-			result = result + 8;
-			break;
-		case FIVE:
-			result = result + 12;
-			break;
-		case SIX:
-			result = result + 16;
-			break;
-		case SEVEN:
-			result = result + 20;
-			break;
-		case EIGHT:
-			result = result + 24;
-			break;
-		case NINE:
-			result = result + 28;
-			break;
-		case TEN:
-			result = result + 32;
-			break;
-		case JACK:
-			result = result + 36;
-			break;
-		case QUEEN:
-			result = result + 40;
-			break;
-		case KING:
-			result = result + 44;
-			break;
-		case ACE:
-			result = result + 48;
-			break;
-		default:
-			System.out.println("ERROR: Invalid card");
-			break;
+		EvaluateRange task = new EvaluateRange(boardState, boardCards.size(), holeCards, cardsPerHand, ranks, 0,
+				count);
+		if (count > PARALLEL_THRESHOLD) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
 		}
+	}
 
-		return result;
+	/**
+	 * Evaluates exactly seven cards.
+	 *
+	 * @return Rank value of the hand
+	 * @see #evaluate(int[], int)
+	 */
+	public int evaluate7(int c0, int c1, int c2, int c3, int c4, int c5, int c6) {
+		int p = handRanks.get(53 + c0 + 1);
+		p = handRanks.get(p + c1 + 1);
+		p = handRanks.get(p + c2 + 1);
+		p = handRanks.get(p + c3 + 1);
+		p = handRanks.get(p + c4 + 1);
+		p = handRanks.get(p + c5 + 1);
+		return handRanks.get(p + c6 + 1);
+	}
+
+	/**
+	 * The 2+2 state machine yields the rank directly after the seventh card. With
+	 * five or six cards the walk ends on a table row, whose first slot holds the
+	 * rank.
+	 *
+	 * Cards are fed in as ordinal + 1 ("2c" = 1, ..., "as" = 52).
+	 */
+	@Override
+	public int rankOf(int state, int cardCount) {
+		return cardCount < 7 ? handRanks.get(state) : state;
+	}
+
+	/**
+	 * Evaluates a range of hands from a shared board state.
+	 */
+	private class EvaluateRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int boardState;
+		private final int boardSize;
+		private final int[] holeCards;
+		private final int cardsPerHand;
+		private final int[] ranks;
+		private final int from;
+		private final int to;
+
+		EvaluateRange(int boardState, int boardSize, int[] holeCards, int cardsPerHand, int[] ranks, int from,
+				int to) {
+			this.boardState = boardState;
+			this.boardSize = boardSize;
+			this.holeCards = holeCards;
+			this.cardsPerHand = cardsPerHand;
+			this.ranks = ranks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > PARALLEL_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new EvaluateRange(boardState, boardSize, holeCards, cardsPerHand, ranks, from, middle),
+						new EvaluateRange(boardState, boardSize, holeCards, cardsPerHand, ranks, middle, to));
+				return;
+			}
+
+			int cardCount = boardSize + cardsPerHand;
+			for (int hand = from; hand < to; hand++) {
+				int state = boardState;
+				int offset = hand * cardsPerHand;
+				for (int i = 0; i < cardsPerHand; i++) {
+					state = handRanks.get(state + holeCards[offset + i] + 1);
+				}
+				ranks[hand] = rankOf(state, cardCount);
+			}
+		}
 	}
-}
\ No newline at end of file
+}
@@ -5,18 +5,43 @@ import com.weflop.Evaluation.HandRank;
 
 /**
  * TwoPlusTwoHandRank.java
- * 
+ *
  * Extends our HandRank abstract class and implements method that yields the
  * classification of the given hand.
- * 
+ *
  * @author abrevnov
  *
  */
 public class TwoPlusTwoHandRank extends HandRank {
+
+	// ranks are immutable, so one instance per value is shared (filled lazily)
+	private static final TwoPlusTwoHandRank[] CACHE = new TwoPlusTwoHandRank[HandClassification.values().length << 12];
+
 	public TwoPlusTwoHandRank(int rankValue) {
 		super(rankValue);
 	}
 
+	/**
+	 * Returns a shared rank instance for the given 2+2 rank value.
+	 *
+	 * @param rankValue
+	 *            Rank value produced by the 2+2 evaluator
+	 * @return {@link TwoPlusTwoHandRank} for that value
+	 */
+	public static TwoPlusTwoHandRank valueOf(int rankValue) {
+		if (rankValue < 0 || rankValue >= CACHE.length) {
+			return new TwoPlusTwoHandRank(rankValue);
+		}
+
+		TwoPlusTwoHandRank rank = CACHE[rankValue];
+		if (rank == null) {
+			// racing threads may both create an instance, which is harmless
+			rank = new TwoPlusTwoHandRank(rankValue);
+			CACHE[rankValue] = rank;
+		}
+		return rank;
+	}
+
 	@Override
 	public HandClassification getHandType() {
 		/*
@@ -0,0 +1,389 @@
+package com.weflop.Evaluation.TwoPlusTwo;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * TwoPlusTwoHandsTableGenerator.java
+ *
+ * Builds the 2+2 hand rank lookup table in process, so the service can start
+ * without a shipped HandRanks.dat file.
+ *
+ * Follows the original generator: every reachable set of up to six cards gets
+ * an ID (an 8-byte packing of its sorted cards, with suits dropped once a flush
+ * is no longer possible), and the table row of an ID holds, for each of the 52
+ * next cards, either the row of the resulting ID or the final rank value once
+ * seven cards are known. IDs are enumerated one card count at a time and the
+ * rows are filled in on a fork/join pool, since both only depend on the sorted
+ * ID list. Final rank values come from {@link TwoPlusTwoRankCalculator}.
+ *
+ * @author abrevnov
+ */
+public class TwoPlusTwoHandsTableGenerator {
+
+	private static final int ROW_SIZE = 53;
+
+	private static final int ID_COUNT = 612977; // card sets of up to six cards, including the empty set
+
+	private static final int ROWS_PER_TASK = 2048;
+
+	private static final int CHUNK_SIZE = 1 << 20; // bytes written to disk per call
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a generator that runs on all available cores.
+	 */
+	public TwoPlusTwoHandsTableGenerator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public TwoPlusTwoHandsTableGenerator(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Generates the table and writes it to the given path. The table is written to
+	 * a temporary file in the same directory first and then moved into place
+	 * atomically, so a concurrent reader (or a crash mid-write) never sees a
+	 * partial table.
+	 *
+	 * @param path
+	 *            where the hand rank file is cached
+	 * @throws RuntimeException
+	 *             If the table cannot be written
+	 */
+	public void generateHandRankResource(Path path) throws RuntimeException {
+		long start = System.nanoTime();
+		try {
+			int[] handRanks = generate();
+			long generated = System.nanoTime();
+
+			long checksum = write(handRanks, path);
+			reportGeneration(path, generated - start, System.nanoTime() - generated, checksum);
+		} catch (IOException e) {
+			throw new RuntimeException("cannot write resource " + path, e);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Builds the hand rank lookup table.
+	 *
+	 * @return integer array of hand rank lookup values in accordance with the 2+2
+	 *         hand evaluation algorithm.
+	 */
+	public int[] generate() {
+		long[] ids = enumerateIds();
+		int[] handRanks = new int[TwoPlusTwoHandsTableLoader.HAND_RANK_SIZE];
+		pool.invoke(new FillRows(ids, handRanks, 0, ids.length));
+		return handRanks;
+	}
+
+	/**
+	 * Enumerates the sorted IDs of every card set of up to six cards. Sets with n
+	 * cards always pack into larger IDs than sets with fewer cards, so appending
+	 * each sorted level keeps the whole list sorted.
+	 */
+	private long[] enumerateIds() {
+		long[] ids = new long[ID_COUNT];
+		long[] level = { 0 };
+		int count = 1;
+		for (int cards = 1; cards <= 6; cards++) {
+			long[] candidates = new long[level.length * 52];
+			pool.invoke(new ExtendLevel(level, candidates, 0, level.length));
+
+			Arrays.parallelSort(candidates);
+			level = distinctNonZero(candidates);
+
+			System.arraycopy(level, 0, ids, count, level.length);
+			count += level.length;
+		}
+		if (count != ID_COUNT) {
+			throw new IllegalStateException("Expected " + ID_COUNT + " hand IDs but found " + count);
+		}
+		return ids;
+	}
+
+	private static long[] distinctNonZero(long[] sorted) {
+		int count = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] != 0 && (count == 0 || sorted[count - 1] != sorted[i])) {
+				sorted[count++] = sorted[i];
+			}
+		}
+		return Arrays.copyOf(sorted, count);
+	}
+
+	/**
+	 * Writes the table little-endian through a direct buffer and returns its CRC32.
+	 */
+	private static long write(int[] handRanks, Path path) throws IOException {
+		Path directory = path.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+
+		Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+		try {
+			CRC32 checksum = new CRC32();
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				int index = 0;
+				while (index < handRanks.length) {
+					int count = Math.min(CHUNK_SIZE / 4, handRanks.length - index);
+					((Buffer) chunk).clear(); // Buffer casts keep this binary compatible with Java 8
+					chunk.asIntBuffer().put(handRanks, index, count);
+					((Buffer) chunk).limit(count * 4);
+					index += count;
+
+					checksum.update(chunk.duplicate());
+					while (chunk.hasRemaining()) {
+						channel.write(chunk);
+					}
+				}
+				channel.force(true);
+			}
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return checksum.getValue();
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Logs and publishes how long generation took and the checksum of the result,
+	 * so a generated table can be compared against a shipped one.
+	 */
+	private static void reportGeneration(Path path, long generationNanos, long writeNanos, long checksum) {
+		double seconds = generationNanos / 1e9;
+
+		System.out.printf("Generated hand ranks in %.1f ms, wrote %s in %.1f ms, crc32: %s\n", generationNanos / 1e6,
+				path, writeNanos / 1e6, Long.toHexString(checksum));
+
+		Gauge.builder("weflop.evaluator.hand_ranks.generation.time", () -> seconds)
+				.baseUnit("seconds").register(Metrics.globalRegistry);
+		Gauge.builder("weflop.evaluator.hand_ranks.generation.checksum", () -> checksum)
+				.register(Metrics.globalRegistry);
+	}
+
+	/**
+	 * Computes every ID reachable by adding one card to the IDs of a level. Each
+	 * source ID owns 52 slots of the output; invalid additions are left as 0.
+	 */
+	private static class ExtendLevel extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final long[] level;
+		private final long[] candidates;
+		private final int from;
+		private final int to;
+
+		ExtendLevel(long[] level, long[] candidates, int from, int to) {
+			this.level = level;
+			this.candidates = candidates;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > ROWS_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ExtendLevel(level, candidates, from, middle),
+						new ExtendLevel(level, candidates, middle, to));
+				return;
+			}
+
+			IdBuilder builder = new IdBuilder();
+			for (int i = from; i < to; i++) {
+				for (int card = 1; card <= 52; card++) {
+					candidates[i * 52 + card - 1] = builder.addCard(level[i], card);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fills in the table rows of a range of IDs.
+	 */
+	private static class FillRows extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final long[] ids;
+		private final int[] handRanks;
+		private final int from;
+		private final int to;
+
+		FillRows(long[] ids, int[] handRanks, int from, int to) {
+			this.ids = ids;
+			this.handRanks = handRanks;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > ROWS_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new FillRows(ids, handRanks, from, middle), new FillRows(ids, handRanks, middle, to));
+				return;
+			}
+
+			IdBuilder builder = new IdBuilder();
+			for (int idNum = from; idNum < to; idNum++) {
+				long id = ids[idNum];
+				int cards = IdBuilder.cardCount(id) + 1; // card count once the next card is added
+				int row = idNum * ROW_SIZE + ROW_SIZE;
+
+				for (int card = 1; card <= 52; card++) {
+					long next = builder.addCard(id, card);
+					if (cards < 7) {
+						// pointer to the row of the next ID (an impossible hand points at row 0)
+						handRanks[row + card] = next == 0 ? ROW_SIZE
+								: Arrays.binarySearch(ids, next) * ROW_SIZE + ROW_SIZE;
+					} else {
+						handRanks[row + card] = next == 0 ? 0 : builder.rank(next);
+					}
+				}
+
+				// five and six card hands can be evaluated early by looking up slot 0 of
+				// their row
+				if (cards == 6 || cards == 7) {
+					handRanks[row] = builder.rank(id);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Packs card sets into IDs and evaluates them. Holds scratch arrays, so each
+	 * task uses its own instance.
+	 */
+	private static class IdBuilder {
+		private final int[] cards = new int[8];
+		private final int[] suitCount = new int[5];
+		private final int[] rankCount = new int[13];
+		private final int[] suitMasks = new int[5];
+
+		static int cardCount(long id) {
+			int count = 0;
+			for (; id != 0; id >>>= 8) {
+				count++;
+			}
+			return count;
+		}
+
+		/**
+		 * Adds a card (1..52, "2c" = 1) to an ID.
+		 *
+		 * Each card is a byte holding (rank + 1) in the high nibble and (suit + 1) in
+		 * the low nibble. Suits are cleared when a flush can no longer be made, which
+		 * is what keeps the number of IDs small.
+		 *
+		 * @return the new ID, or 0 if the card is already present or the set holds
+		 *         more than four cards of a rank
+		 */
+		long addCard(long id, int newCard) {
+			Arrays.fill(cards, 0);
+			Arrays.fill(suitCount, 0);
+			Arrays.fill(rankCount, 0);
+
+			int count = 0;
+			for (; id != 0; id >>>= 8) {
+				cards[count++] = (int) (id & 0xFF);
+			}
+			cards[count++] = (((newCard - 1) / 4 + 1) << 4) | ((newCard - 1) % 4 + 1);
+
+			boolean duplicate = false;
+			for (int i = 0; i < count; i++) {
+				suitCount[cards[i] & 0xF]++;
+				rankCount[(cards[i] >> 4) - 1]++;
+				if (i < count - 1 && cards[i] == cards[count - 1]) {
+					duplicate = true;
+				}
+			}
+			if (duplicate) {
+				return 0;
+			}
+
+			if (count > 4) {
+				for (int rank = 0; rank < 13; rank++) {
+					if (rankCount[rank] > 4) {
+						return 0;
+					}
+				}
+			}
+
+			// a suit only matters while it can still reach five cards
+			int needSuited = count - 2;
+			if (needSuited > 1) {
+				for (int i = 0; i < count; i++) {
+					if (suitCount[cards[i] & 0xF] < needSuited) {
+						cards[i] &= 0xF0;
+					}
+				}
+			}
+
+			sortDescending(count);
+
+			long result = 0;
+			for (int i = 0; i < count; i++) {
+				result |= (long) cards[i] << (8 * i);
+			}
+			return result;
+		}
+
+		/**
+		 * Evaluates the best five cards of a five to seven card ID.
+		 */
+		int rank(long id) {
+			Arrays.fill(rankCount, 0);
+			Arrays.fill(suitCount, 0);
+			Arrays.fill(suitMasks, 0);
+
+			for (; id != 0; id >>>= 8) {
+				int card = (int) (id & 0xFF);
+				int rank = (card >> 4) - 1;
+				int suit = card & 0xF;
+				rankCount[rank]++;
+				suitCount[suit]++;
+				suitMasks[suit] |= 1 << rank;
+			}
+
+			// suit 0 holds the cards whose suit was dropped, which can never make a flush
+			int flushMask = 0;
+			for (int suit = 1; suit <= 4; suit++) {
+				if (suitCount[suit] >= 5) {
+					flushMask = suitMasks[suit];
+				}
+			}
+			return TwoPlusTwoRankCalculator.evaluate(rankCount, flushMask);
+		}
+
+		private void sortDescending(int count) {
+			for (int i = 1; i < count; i++) {
+				int card = cards[i];
+				int j = i - 1;
+				for (; j >= 0 && cards[j] < card; j--) {
+					cards[j + 1] = cards[j];
+				}
+				cards[j + 1] = card;
+			}
+		}
+	}
+}
@@ -26,13 +26,20 @@ THE SOFTWARE.
 
 package com.weflop.Evaluation.TwoPlusTwo;
 
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
 
-import com.google.common.io.Closeables;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 
 /**
  * Utility class for loading configuration and resource files
@@ -41,11 +48,58 @@ import com.google.common.io.Closeables;
  */
 public class TwoPlusTwoHandsTableLoader {
 
-	private static final int HAND_RANK_SIZE = 32487834;
+	public static final int HAND_RANK_SIZE = 32487834;
 
 	/**
-	 * Load hand rank lookup table for poker hands. This will load the file and do
-	 * the byte conversions so we get a nice integer array back.
+	 * System property holding the expected CRC32 (hex) of the hand rank file. When
+	 * set, a table whose checksum does not match is rejected.
+	 */
+	public static final String EXPECTED_CHECKSUM_PROPERTY = "weflop.evaluator.handRanksChecksum";
+
+	private static final long TABLE_SIZE = HAND_RANK_SIZE * 4L;
+
+	private static final int CHUNK_SIZE = 1 << 20; // bytes read from disk per call
+
+	/**
+	 * Maps the hand rank lookup table into memory (read-only) instead of copying
+	 * it onto the heap. Pages are shared through the OS page cache, so every
+	 * evaluator in the JVM (and every JVM on the host) reads the same physical
+	 * copy of the table.
+	 * 
+	 * The checksum pass touches every page once, so the first hands played do not
+	 * pay for page faults.
+	 * 
+	 * @param path
+	 *            path to the precomputed hand rank file
+	 * @return read-only integer view of the hand rank lookup values in accordance
+	 *         with the 2+2 hand evaluation algorithm.
+	 * @throws RuntimeException
+	 *             If mapping this file fails, prepare to crash because hand evals
+	 *             will not work
+	 */
+	public IntBuffer mapHandRankResource(String path) throws RuntimeException {
+		long start = System.nanoTime();
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			assertTableSize(channel);
+
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, TABLE_SIZE);
+
+			CRC32 checksum = new CRC32();
+			checksum.update(buffer.duplicate());
+			verifyChecksum(path, checksum.getValue());
+
+			reportLoad(path, "mapped", System.nanoTime() - start, checksum.getValue());
+			return buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		} catch (IOException e) {
+			throw new RuntimeException("cannot map resource " + path, e);
+		}
+	}
+
+	/**
+	 * Load hand rank lookup table for poker hands onto the heap. The file is
+	 * streamed in fixed-size chunks through a direct little-endian buffer straight
+	 * into the integer array, so the only large allocation is the array itself.
 	 * 
 	 * @param path
 	 *            path to the precomputed hand rank file
@@ -56,33 +110,75 @@ public class TwoPlusTwoHandsTableLoader {
 	 *             will not work
 	 */
 	public int[] loadHandRankResource(String path) throws RuntimeException {
+		long start = System.nanoTime();
 		int handRankArray[] = new int[HAND_RANK_SIZE];
-		try {
-			int tableSize = HAND_RANK_SIZE * 4;
-			byte[] b = new byte[tableSize];
-			InputStream br = null;
-			try {
-				FileInputStream fis = new FileInputStream(new File(path));
-				br = new BufferedInputStream(fis);
-
-				int bytesRead = br.read(b, 0, tableSize);
-				if (bytesRead != tableSize) {
-					throw new IOException("Read " + bytesRead + " bytes out of " + tableSize);
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			assertTableSize(channel);
+
+			ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			CRC32 checksum = new CRC32();
+			int index = 0;
+			while (index < HAND_RANK_SIZE) {
+				// a read may legally return fewer bytes than requested, so keep going until
+				// the whole table has been consumed
+				if (channel.read(chunk) < 0) {
+					throw new EOFException("Read " + (index * 4L) + " bytes out of " + TABLE_SIZE);
 				}
-			} finally {
-				Closeables.closeQuietly(br);
-			}
-			for (int i = 0; i < HAND_RANK_SIZE; i++) {
-				handRankArray[i] = littleEndianByteArrayToInt(b, i * 4);
+				((Buffer) chunk).flip(); // Buffer casts keep this binary compatible with Java 8
+
+				// only whole integers are consumed; a trailing partial integer is kept for the
+				// next read
+				int count = Math.min(chunk.remaining() / 4, HAND_RANK_SIZE - index);
+				chunk.asIntBuffer().get(handRankArray, index, count);
+				index += count;
+
+				int limit = chunk.limit();
+				((Buffer) chunk).limit(chunk.position() + count * 4);
+				checksum.update(chunk);
+				((Buffer) chunk).limit(limit);
+				chunk.compact();
 			}
+			verifyChecksum(path, checksum.getValue());
+
+			reportLoad(path, "heap", System.nanoTime() - start, checksum.getValue());
 			return handRankArray;
 		} catch (IOException e) {
 			throw new RuntimeException("cannot read resource " + path, e);
 		}
 	}
 
-	private static final int littleEndianByteArrayToInt(byte[] b, int offset) {
-		return (b[offset + 3] << 24) + ((b[offset + 2] & 0xFF) << 16) + ((b[offset + 1] & 0xFF) << 8)
-				+ (b[offset] & 0xFF);
+	private static void assertTableSize(FileChannel channel) throws IOException {
+		if (channel.size() != TABLE_SIZE) {
+			throw new IOException("Expected " + TABLE_SIZE + " bytes but found " + channel.size());
+		}
+	}
+
+	/**
+	 * Throws if an expected checksum has been configured and the table does not
+	 * match it.
+	 */
+	private static void verifyChecksum(String path, long checksum) throws IOException {
+		String expected = System.getProperty(EXPECTED_CHECKSUM_PROPERTY);
+		if (expected != null && Long.parseLong(expected, 16) != checksum) {
+			throw new IOException("Checksum mismatch for " + path + ": expected " + expected + " but found "
+					+ Long.toHexString(checksum));
+		}
+	}
+
+	/**
+	 * Logs and publishes how long the table took to load so cold starts can be
+	 * tracked per pod.
+	 */
+	private static void reportLoad(String path, String mode, long nanos, long checksum) {
+		double seconds = nanos / 1e9;
+		double megabytesPerSecond = (TABLE_SIZE / (1024.0 * 1024.0)) / seconds;
+
+		System.out.printf("Loaded hand ranks from %s (%s) in %.1f ms at %.1f MB/s, crc32: %s\n", path, mode,
+				nanos / 1e6, megabytesPerSecond, Long.toHexString(checksum));
+
+		Gauge.builder("weflop.evaluator.hand_ranks.load.time", () -> seconds)
+				.baseUnit("seconds").tag("mode", mode).register(Metrics.globalRegistry);
+		Gauge.builder("weflop.evaluator.hand_ranks.load.throughput", () -> megabytesPerSecond)
+				.baseUnit("megabytes_per_second").tag("mode", mode).register(Metrics.globalRegistry);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package com.weflop.Evaluation.TwoPlusTwo;
+
+/**
+ * TwoPlusTwoRankCalculator.java
+ *
+ * Computes the 2+2 rank value of the best five card hand out of five to seven
+ * cards directly from rank counts. Values use the same encoding as the lookup
+ * table (and {@link TwoPlusTwoHandRank}): the hand classification ordinal in
+ * the bits above 12 and the 1-based strength within that classification in the
+ * low 12 bits, so larger values always win.
+ *
+ * Ranks are indexed 0 (deuce) through 12 (ace).
+ *
+ * @author abrevnov
+ *
+ */
+public final class TwoPlusTwoRankCalculator {
+
+	public static final int HIGH_CARD = 1;
+	public static final int PAIR = 2;
+	public static final int TWO_PAIR = 3;
+	public static final int THREE_OF_A_KIND = 4;
+	public static final int STRAIGHT = 5;
+	public static final int FLUSH = 6;
+	public static final int FULL_HOUSE = 7;
+	public static final int FOUR_OF_A_KIND = 8;
+	public static final int STRAIGHT_FLUSH = 9;
+
+	private static final int WHEEL = 0x100F; // A-2-3-4-5
+
+	// strength of every five distinct ranks that do not form a straight (1..1277)
+	private static final int[] DISTINCT_FIVE_INDEX = new int[1 << 13];
+
+	static {
+		int index = 0;
+		for (int mask = 0; mask < DISTINCT_FIVE_INDEX.length; mask++) {
+			if (Integer.bitCount(mask) == 5 && straightTop(mask) < 0) {
+				DISTINCT_FIVE_INDEX[mask] = ++index;
+			}
+		}
+	}
+
+	private TwoPlusTwoRankCalculator() {
+	}
+
+	/**
+	 * Evaluates the best five card hand.
+	 *
+	 * @param rankCounts
+	 *            Number of cards of each rank (13 entries)
+	 * @param flushMask
+	 *            Bit mask of the ranks held in a suit with at least five cards, or
+	 *            0 if there is no flush
+	 * @return 2+2 rank value of the hand
+	 */
+	public static int evaluate(int[] rankCounts, int flushMask) {
+		int rankMask = 0;
+		int quads = -1;
+		int trips = -1;
+		int highPair = -1;
+		int lowPair = -1;
+		for (int rank = 12; rank >= 0; rank--) {
+			int count = rankCounts[rank];
+			if (count == 0) {
+				continue;
+			}
+			rankMask |= 1 << rank;
+			if (count >= 4 && quads < 0) {
+				quads = rank;
+			} else if (count == 3 && trips < 0) {
+				trips = rank;
+			} else if (count >= 2) {
+				// a second set of trips counts as the pair of a full house
+				if (highPair < 0) {
+					highPair = rank;
+				} else if (lowPair < 0) {
+					lowPair = rank;
+				}
+			}
+		}
+
+		if (flushMask != 0) {
+			int top = straightTop(flushMask);
+			if (top >= 0) {
+				return encode(STRAIGHT_FLUSH, top - 2);
+			}
+		}
+
+		if (quads >= 0) {
+			int kicker = highestRank(rankMask & ~(1 << quads));
+			return encode(FOUR_OF_A_KIND, quads * 12 + skip(kicker, quads) + 1);
+		}
+
+		if (trips >= 0 && highPair >= 0) {
+			return encode(FULL_HOUSE, trips * 12 + skip(highPair, trips) + 1);
+		}
+
+		if (flushMask != 0) {
+			return encode(FLUSH, DISTINCT_FIVE_INDEX[topRanks(flushMask, 5)]);
+		}
+
+		int top = straightTop(rankMask);
+		if (top >= 0) {
+			return encode(STRAIGHT, top - 2);
+		}
+
+		if (trips >= 0) {
+			int kickers = topRanks(rankMask & ~(1 << trips), 2);
+			return encode(THREE_OF_A_KIND, trips * 66 + colexRank(removeRank(kickers, trips)) + 1);
+		}
+
+		if (lowPair >= 0) {
+			int kicker = highestRank(rankMask & ~(1 << highPair) & ~(1 << lowPair));
+			int pairs = colexRank((1 << highPair) | (1 << lowPair));
+			int kickerIndex = kicker - (kicker > highPair ? 1 : 0) - (kicker > lowPair ? 1 : 0);
+			return encode(TWO_PAIR, pairs * 11 + kickerIndex + 1);
+		}
+
+		if (highPair >= 0) {
+			int kickers = topRanks(rankMask & ~(1 << highPair), 3);
+			return encode(PAIR, highPair * 220 + colexRank(removeRank(kickers, highPair)) + 1);
+		}
+
+		return encode(HIGH_CARD, DISTINCT_FIVE_INDEX[topRanks(rankMask, 5)]);
+	}
+
+	/**
+	 * Returns the rank of the highest card of a straight contained in the mask (3
+	 * for a wheel), or -1 if there is none.
+	 */
+	public static int straightTop(int rankMask) {
+		for (int top = 12; top >= 4; top--) {
+			int straight = 0x1F << (top - 4);
+			if ((rankMask & straight) == straight) {
+				return top;
+			}
+		}
+		return (rankMask & WHEEL) == WHEEL ? 3 : -1;
+	}
+
+	private static int encode(int classification, int strength) {
+		return (classification << 12) | strength;
+	}
+
+	private static int highestRank(int rankMask) {
+		return 31 - Integer.numberOfLeadingZeros(rankMask);
+	}
+
+	/**
+	 * Keeps only the highest n ranks of the mask.
+	 */
+	private static int topRanks(int rankMask, int n) {
+		while (Integer.bitCount(rankMask) > n) {
+			rankMask &= rankMask - 1; // dropping the lowest rank
+		}
+		return rankMask;
+	}
+
+	/**
+	 * Index of a rank among the 12 ranks that remain once another rank is taken.
+	 */
+	private static int skip(int rank, int taken) {
+		return rank > taken ? rank - 1 : rank;
+	}
+
+	/**
+	 * Removes a rank (that is not set) from the mask, shifting the higher ranks
+	 * down by one.
+	 */
+	private static int removeRank(int rankMask, int rank) {
+		int low = rankMask & ((1 << rank) - 1);
+		return low | ((rankMask >>> (rank + 1)) << rank);
+	}
+
+	/**
+	 * Position of a set of ranks among all sets of the same size ordered by their
+	 * masks (colexicographic rank), starting at 0.
+	 */
+	private static int colexRank(int rankMask) {
+		int index = 0;
+		int k = 1;
+		while (rankMask != 0) {
+			int rank = Integer.numberOfTrailingZeros(rankMask);
+			index += binomial(rank, k++);
+			rankMask &= rankMask - 1;
+		}
+		return index;
+	}
+
+	private static int binomial(int n, int k) {
+		if (k > n) {
+			return 0;
+		}
+		int result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+		return result;
+	}
+}
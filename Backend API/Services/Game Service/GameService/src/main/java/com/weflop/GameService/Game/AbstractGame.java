@@ -6,29 +6,43 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.HashMap;
 
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
 
 import com.weflop.Cards.Board;
 import com.weflop.Cards.Card;
 import com.weflop.Evaluation.HandRank;
+import com.weflop.Evaluation.Equity.EquityResult;
+import com.weflop.Evaluation.Equity.EquityService;
+import com.weflop.Evaluation.Equity.MonteCarloEquityCalculator;
 import com.weflop.Evaluation.HandRankEvaluator;
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
+import com.weflop.Evaluation.Low.EightOrBetterEvaluator;
 import com.weflop.GameService.Database.GameRepository;
 import com.weflop.GameService.Database.DomainObjects.GameDocument;
+import com.weflop.GameService.Networking.BinaryProtocol;
+import com.weflop.GameService.Networking.Frame;
 import com.weflop.GameService.Networking.GameStatePOJO;
 import com.weflop.GameService.Networking.LimitedPlayerPOJO;
 import com.weflop.GameService.Networking.MessageSendingHandlers;
+import com.weflop.GameService.Networking.PlayerIndexes;
+import com.weflop.GameService.Networking.ReplayBuffer;
 import com.weflop.GameService.Networking.WebSocketHandler;
 import com.weflop.GameService.REST.GameMetadata;
+import com.weflop.Utils.ThreadExecution.DatabaseExecutor;
+import com.weflop.Utils.ThreadExecution.GameTimers;
+import com.weflop.Utils.ThreadExecution.HashedWheelTimer;
+import com.weflop.Utils.ThreadExecution.KeyedSerialExecutor;
+import com.weflop.Utils.ThreadExecution.Mailbox;
+import com.weflop.Utils.ThreadExecution.TableExecutor;
 import com.weflop.Utils.ThreadExecution.TurnTimerManager;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,6 +50,9 @@ import java.util.concurrent.TimeUnit;
  * Abstract class defining some shared properties and methods as well as some
  * required abstract methods for all instances of games.
  * 
+ * Game state is confined to the table's {@link Mailbox}: public entry points,
+ * timers included, queue their work on it, so the engine itself takes no locks.
+ * 
  * @author abrevnov
  *
  */
@@ -43,9 +60,16 @@ import java.util.concurrent.TimeUnit;
 // test2
 public abstract class AbstractGame implements Game {
 
+	private static final long BASE_WEIGHT = 16 * 1024; // in bytes, see getWeight
+
+	private static final long ACTION_WEIGHT = 256;
+
+	// saves of each game, in order, off the table's thread and the timers
+	private static final KeyedSerialExecutor SAVES = new KeyedSerialExecutor(DatabaseExecutor.getInstance());
+
 	private final UUID id;
 
-	private Lock lock; // manages concurrent read/write access to game properties
+	private final Mailbox mailbox; // single writer for every action, timer and read of game state
 
 	private boolean started;
 	private Instant startTime;
@@ -60,14 +84,32 @@ public abstract class AbstractGame implements Game {
 
 	private HandRankEvaluator evaluator;
 
+	private int boardState; // evaluator state after the center cards, if the evaluator is incremental
+
+	private EightOrBetterEvaluator lowEvaluator; // only set for hi/lo games
+
 	private int round;
 
 	private History history;
 
-	private ScheduledExecutorService threadExecutor; // useful when creating timed events
+	private HashedWheelTimer timer; // shared with other games, useful when creating timed events
+
+	private HashedWheelTimer.Timeout saveTimeout;
+
+	private HashedWheelTimer.Timeout synchronizationTimeout;
+
+	private HashedWheelTimer.Timeout muckTimeout;
+
+	private HashedWheelTimer.Timeout runoutTimeout;
+
+	private History pendingRunout; // hand whose runout waits on its all-in equity, null if none
 
 	private int epoch; // value we increment on changes in state; keeps track of state versions
 
+	private ReplayBuffer replay; // recently sent frames, resent to clients that missed them
+
+	private PlayerIndexes playerIndexes; // stand in for player ids in binary frames
+
 	private GameCustomMetadata metadata;
 	
 	private boolean active;
@@ -94,11 +136,13 @@ public abstract class AbstractGame implements Game {
 		this.setGroup(new Group(metadata.getTableSize()));
 		this.turn = null; // not updated until game begins
 		this.setStarted(false);
-		this.setLock(new ReentrantLock());
-		this.evaluator = evaluator;
+		this.mailbox = new Mailbox(TableExecutor.getInstance());
+		this.setEvaluator(evaluator);
 		this.setRound(0);
-		this.threadExecutor = Executors.newSingleThreadScheduledExecutor();
+		this.timer = GameTimers.forGame(this.id);
 		this.epoch = 0;
+		this.replay = new ReplayBuffer(ReplayBuffer.CAPACITY, this.epoch);
+		this.playerIndexes = new PlayerIndexes();
 		this.active = true;
 		this.beginningOfRoundActivePlayers = new ArrayList<Player>();
 		this.setMuckDecisionTime(5);
@@ -126,11 +170,13 @@ public abstract class AbstractGame implements Game {
 		this.group = new Group(metadata.getTableSize());
 		this.turn = null;
 		this.started = false;
-		this.setLock(new ReentrantLock());
-		this.evaluator = evaluator;
+		this.mailbox = new Mailbox(TableExecutor.getInstance());
+		this.setEvaluator(evaluator);
 		this.round = 0;
-		this.epoch = 0;
-		this.threadExecutor = Executors.newSingleThreadScheduledExecutor();
+		this.epoch = document.getEpoch(); // clients of the previous replica may not be replayed frames from this one
+		this.replay = new ReplayBuffer(ReplayBuffer.CAPACITY, this.epoch);
+		this.playerIndexes = new PlayerIndexes();
+		this.timer = GameTimers.forGame(this.id);
 		this.active = true;
 		this.spawnSaveGameThread();
 		this.subscribedPlayerIds = document.getSubscribedPlayers();
@@ -138,7 +184,7 @@ public abstract class AbstractGame implements Game {
 
 	@Override
 	public void unsubscribePlayer(String userId) {
-		this.subscribedPlayerIds.remove(userId);
+		mailbox.get(() -> this.subscribedPlayerIds.remove(userId));
 	}
 
 	@Override
@@ -148,8 +194,20 @@ public abstract class AbstractGame implements Game {
 
 	/* These methods are publicly exposed and will be overriden by subclasses: */
 
+	/**
+	 * Queues the action on the table's mailbox and waits until it has been
+	 * handled, rethrowing whatever made it invalid. Actions performed while
+	 * handling another one (e.g. automatic checks) are handled right away.
+	 */
 	@Override
-	public abstract void performAction(Action action) throws Exception; // performs an action as a given participant
+	public void performAction(Action action) throws Exception {
+		mailbox.call(() -> {
+			handleAction(action);
+			return null;
+		});
+	}
+
+	protected abstract void handleAction(Action action) throws Exception; // performs an action as a given participant
 
 	/* Required methods (internally used) for all subclasses */
 	protected abstract void dealHands(); // deals cards to players
@@ -160,14 +218,19 @@ public abstract class AbstractGame implements Game {
 
 	@Override
 	public GameMetadata getGameMetadata() {
-		return new GameMetadata(this.getGameId(), startTime.toEpochMilli(), betController.getTotalPot(),
-				metadata, betController.getLedger().toPOJO());
+		return mailbox.get(() -> new GameMetadata(this.getGameId(), startTime.toEpochMilli(),
+				betController.getTotalPot(), metadata, betController.getLedger().toPOJO()));
 	}
 
 	/**
-	 * Handler for turn expirations. Called by a single thread after execution.
+	 * Handler for turn expirations, called by the turn timer. The expiration is
+	 * queued on the mailbox like any other action.
 	 */
-	synchronized public void turnExpired(int turnCount) {
+	public void turnExpired(int turnCount) {
+		mailbox.post(() -> expireTurn(turnCount));
+	}
+
+	protected void expireTurn(int turnCount) {
 		System.out.println("Turn expired handler called...");
 		// check to see if provided turn count matches current turn
 		if (turnCount != this.turn.getCount()) {
@@ -183,26 +246,69 @@ public abstract class AbstractGame implements Game {
 			System.out.println("Performing turn timeout...");
 			this.performAction(new Action.ActionBuilder(ActionType.TURN_TIMEOUT).withPlayerId(this.turn.getPlayer().getId()).build());
 		} catch (Exception e) {
-			// we do not need to do anything. this is only possible in an incredibly
-			// unlikely race condition where the current players action is processed between the last
-			// if statement and the current call to perform the action of a turn timeout. In this case,
-			// we can just ignore the exception and consider this turn to be stale.
+			// we do not need to do anything. the turn count matched on the mailbox, so no
+			// other action can have ended the turn; an invalid timeout is simply dropped.
 		}
 	}
 
 	/**
-	 * Flushes game state and history to database.
+	 * Flushes game state and history to database, waiting for the save.
+	 * 
+	 * @return Whether the game was saved
+	 */
+	@Override
+	public boolean flushToDatabase() {
+		return saveToDatabase().join();
+	}
+
+	/**
+	 * Queues a save of game state and history on the database threads, after any
+	 * periodic save queued before (which would otherwise overwrite it).
+	 * 
+	 * @return Future completed with whether the game was saved
 	 */
-	synchronized public void flushToDatabase() {
+	@Override
+	public CompletableFuture<Boolean> saveToDatabase() {
+		CompletableFuture<Boolean> saved = new CompletableFuture<Boolean>();
 		try {
-			GameDocument document = this.toDocument();			
-			this.gameRepository.save(document);
-			
-			System.out.println("Flushed to database...");
+			// the document is built on the mailbox but saved outside of it, so the table keeps going
+			GameDocument document = mailbox.call(this::toDocument);
+			SAVES.execute(id.toString(), () -> {
+				try {
+					save(document);
+					saved.complete(true);
+				} catch (RuntimeException e) {
+					System.out.println("Error flushing to database...");
+					e.printStackTrace();
+					saved.complete(false);
+				}
+			});
 		} catch(Exception e) {
 			System.out.println("Error flushing to database...");
 			e.printStackTrace();
+			saved.complete(false);
 		}
+		return saved;
+	}
+
+	/**
+	 * Queues a save of the game state without waiting for it. Called on the mailbox.
+	 */
+	private void saveInBackground() {
+		GameDocument document = toDocument();
+		SAVES.execute(id.toString(), () -> {
+			try {
+				save(document);
+			} catch (RuntimeException e) {
+				System.out.println("Error flushing to database...");
+				e.printStackTrace();
+			}
+		});
+	}
+
+	private void save(GameDocument document) {
+		this.gameRepository.save(document);
+		System.out.println("Flushed to database...");
 	}
 	
 	/**
@@ -210,56 +316,87 @@ public abstract class AbstractGame implements Game {
 	 */
 	@Override
 	public void removeFromReplica() {
-		threadExecutor.shutdownNow();
+		mailbox.post(this::cancelTimers);
 		GameManager.ID_TO_GAME.remove(id.toString());
 	}
 
 	@Override
 	public boolean canBeRemovedFromReplica() {
-		return group.getPlayers().size() == 0 && group.getSpectators().size() == 0;
+		return mailbox.get(() -> group.getPlayers().size() == 0 && group.getSpectators().size() == 0);
+	}
+
+	/**
+	 * Estimate: a fixed share for the table's state, plus the frames kept for
+	 * replay and the actions of the hand's history.
+	 */
+	@Override
+	public long getWeight() {
+		return mailbox.get(() -> BASE_WEIGHT + replay.getRetainedBytes()
+				+ (history != null ? (long) history.getActionsSequence().size() * ACTION_WEIGHT : 0));
 	}
 	
 	/**
 	 * Spawns a timer-thread that will send game packets when a turn has expired
 	 */
-	synchronized protected void beginTurnTimer() {
+	protected void beginTurnTimer() {
 		Runnable turnExpirationHandler = new TurnTimerManager(this, this.turn.getCount());
  
-		// resent packets after the duration of the turn has passed
-		threadExecutor.schedule(turnExpirationHandler, metadata.getTurnDuration(), TimeUnit.SECONDS);
+		// resent packets after the duration of the turn has passed (cancelled as soon as the turn advances)
+		this.turn.setExpiration(timer.schedule(turnExpirationHandler, metadata.getTurnDuration(), TimeUnit.SECONDS));
 	}
 
 	/**
 	 * Spawns a thread that periodically flushes the game state to the database.
 	 */
-	synchronized protected void spawnSaveGameThread() {
+	protected void spawnSaveGameThread() {
 		Runnable stateSaver = new Runnable() {
 			@Override
 			public void run() {
-				flushToDatabase();
+				// timer workers are shared with other tables, so they only post the save
+				mailbox.post(AbstractGame.this::saveInBackground);
 			}
 		};
 
-		// resent packets after the duration of the turn has passed
-		threadExecutor.scheduleAtFixedRate(stateSaver, 0, 60, TimeUnit.SECONDS);
+		if (saveTimeout != null) {
+			saveTimeout.cancel();
+		}
+		saveTimeout = timer.scheduleAtFixedRate(stateSaver, 0, 60, TimeUnit.SECONDS);
 	}
 
 	/**
 	 * Spawns a thread that periodically sends synchronization messages.
 	 */
-	synchronized protected void spawnSynchronizationPacketSendingThread() {
+	protected void spawnSynchronizationPacketSendingThread() {
 		Runnable packetSender = new Runnable() {
 			@Override
 			public void run() {
-				sendSynchronizationPackets();
+				mailbox.post(AbstractGame.this::sendSynchronizationPackets);
 			}
 		};
 
-		// resent packets after the duration of the turn has passed
-		threadExecutor.scheduleAtFixedRate(packetSender, 0, 2000, TimeUnit.MILLISECONDS);
+		// a restarted game replaces the sender of its previous start
+		if (synchronizationTimeout != null) {
+			synchronizationTimeout.cancel();
+		}
+		synchronizationTimeout = timer.scheduleAtFixedRate(packetSender, 0, 2000, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Cancels every timed event of this game (best effort: a running event finishes).
+	 */
+	protected void cancelTimers() {
+		for (HashedWheelTimer.Timeout timeout : new HashedWheelTimer.Timeout[] { saveTimeout,
+				synchronizationTimeout, muckTimeout, runoutTimeout }) {
+			if (timeout != null) {
+				timeout.cancel();
+			}
+		}
+		if (turn != null) {
+			turn.cancelExpiration();
+		}
 	}
 
-	synchronized protected void sendSynchronizationPackets() {
+	protected void sendSynchronizationPackets() {
 		System.out.println("Sending sync packet for turn: " + turn.getCount() + " with start: " + turn.getStartTime());
 		printGameState();
 
@@ -274,16 +411,15 @@ public abstract class AbstractGame implements Game {
 	}
 
 	/**
-	 * Helper function to begin a new set of hands. Note that any locking must be
-	 * handled outside of this function as this function is not inherently
-	 * thread-safe.
+	 * Helper function to begin a new set of hands. Note that it must be called on
+	 * the game's mailbox as this function is not inherently thread-safe.
 	 * 
 	 * Additionally, beginBettingRounds() expects an up-to-date dealer index and
 	 * that all players have sufficient funds to play the current round. Player
 	 * states should be up-to-date as well
 	 * 
 	 */
-	synchronized protected void beginBettingRounds() {
+	protected void beginBettingRounds() {
 		// Note: We do not need to check if the small/big blind can pay or not because
 		// that should be done before calling this function
 
@@ -318,7 +454,7 @@ public abstract class AbstractGame implements Game {
 	/**
 	 * Begins an individual round of betting.
 	 */
-	synchronized protected void beginNewRound() {
+	protected void beginNewRound() {
 		System.out.println("beginning new round");
 		this.tableState = "STARTED";
 
@@ -336,7 +472,7 @@ public abstract class AbstractGame implements Game {
 	 * Begins a new hand.
 	 * @param bigBlindIndex Index of big blind (used to determine where to cycle turn to).
 	 */
-	synchronized protected void beginNewHand(int bigBlindIndex) {
+	protected void beginNewHand(int bigBlindIndex) {
 		System.out.println("beginning new hand");
 
 		dealHands(); // dealing hands to players
@@ -353,10 +489,15 @@ public abstract class AbstractGame implements Game {
 	 * index and checks to see that all players have sufficient funds to player the
 	 * current round.
 	 */
-	synchronized protected void endOfBettingRounds() {
+	protected void endOfBettingRounds() {
 		System.out.println("End of betting rounds...");
 		this.tableState = "FINISHED_ROUND";
 
+		// the last turn of the hand can no longer expire
+		if (this.turn != null) {
+			this.turn.cancelExpiration();
+		}
+
 		// updating everyones ledgers
 		for (Player player : group.getActivePlayersInHand()) {
 			betController.getLedger().updateEntry(player.getId(), -player.getHandBet());
@@ -365,6 +506,60 @@ public abstract class AbstractGame implements Game {
 		// calculate side pots
 		List<Player> activePlayersInBettingRound = group.getActivePlayersInBettingRound();
 		
+		// showing everyone their odds before the runout of an all-in hand
+		if (activePlayersInBettingRound.size() > 1) {
+			CompletableFuture<EquityResult> equity = this.calculateAllInEquity(activePlayersInBettingRound);
+			if (equity != null) {
+				this.runOutAfterEquity(activePlayersInBettingRound, equity);
+				return;
+			}
+		}
+
+		this.runOutAndShowDown(activePlayersInBettingRound);
+	}
+
+	/**
+	 * Waits for the all-in equity without holding the mailbox: the runout is
+	 * posted back to the mailbox by whichever comes first, the equity or a
+	 * timeout at the equity deadline, and only the first one runs it.
+	 */
+	private void runOutAfterEquity(List<Player> activePlayersInBettingRound, CompletableFuture<EquityResult> equity) {
+		History hand = this.history; // a new one is started for each hand
+		this.pendingRunout = hand;
+
+		runoutTimeout = timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				mailbox.post(() -> continueRunout(hand, activePlayersInBettingRound, null));
+			}
+		}, EquityService.DEADLINE_MILLIS, TimeUnit.MILLISECONDS);
+
+		equity.whenComplete((result, e) -> {
+			if (e != null) {
+				System.out.println("Skipping all-in equity: " + e);
+			}
+			mailbox.post(() -> continueRunout(hand, activePlayersInBettingRound, result));
+		});
+	}
+
+	private void continueRunout(History hand, List<Player> activePlayersInBettingRound, EquityResult equity) {
+		if (this.pendingRunout != hand) {
+			return; // already run out
+		}
+		this.pendingRunout = null;
+		runoutTimeout.cancel();
+
+		if (equity != null) {
+			this.propagateEquity(activePlayersInBettingRound, equity);
+		}
+		this.runOutAndShowDown(activePlayersInBettingRound);
+	}
+
+	/**
+	 * Deals the remaining center cards, distributes the pots and starts the
+	 * mucking period.
+	 */
+	protected void runOutAndShowDown(List<Player> activePlayersInBettingRound) {
 		// we only need to deal remaining cards and update hand ranks if > 1
 		// player has not folded
 		if (activePlayersInBettingRound.size() > 1) {
@@ -412,11 +607,11 @@ public abstract class AbstractGame implements Game {
 		Runnable finishEndingHandAfterMucking = new Runnable() {
 			@Override
 			public void run() {
-				continueEndingHandAfterMuck();
+				mailbox.post(AbstractGame.this::continueEndingHandAfterMuck);
 			}
 		};
 
-		threadExecutor.schedule(finishEndingHandAfterMucking, this.muckDecisionTime, TimeUnit.SECONDS);
+		muckTimeout = timer.schedule(finishEndingHandAfterMucking, this.muckDecisionTime, TimeUnit.SECONDS);
 		this.muckDecisionTime = 0;
 	}
 	
@@ -482,7 +677,7 @@ public abstract class AbstractGame implements Game {
 		this.beginBettingRounds();
 	}
 
-	synchronized protected void bootPlayer(Player player, BootReason reason) {
+	protected void bootPlayer(Player player, BootReason reason) {
 		
 		betController.getLedger().updateEntry(player.getId(), -player.getHandBalance());
 
@@ -528,7 +723,7 @@ public abstract class AbstractGame implements Game {
 		this.propagateActionToGroup(new Action.ActionBuilder(ActionType.DISCONNECT).withPlayerId(player.getId()).build());
 	}
 
-	synchronized protected void endBettingRound() {		
+	protected void endBettingRound() {		
 		group.resetPlayerRoundBets(); // setting all player round bets to 0
 		group.preparePlayerStatesForNewRound(); // prepares player states for new round
 		
@@ -541,7 +736,7 @@ public abstract class AbstractGame implements Game {
 			this.beginNewRound();
 		}
 	}
-	synchronized protected boolean allFolded() {
+	protected boolean allFolded() {
 		int num_active = 0;
 		for (Player player : this.group.getPlayers()) {
 			if (player.isActiveInBettingRound()) {
@@ -559,7 +754,7 @@ public abstract class AbstractGame implements Game {
 	 * Propagates messages to group updating current pot information and conveys
 	 * that new betting round has begun.
 	 */
-	synchronized protected void calculatePotsAndPropagateEndOfBettingRound() {
+	protected void calculatePotsAndPropagateEndOfBettingRound() {
 		List<Float> pots = betController.endOfBettingRoundGeneratePots(group)
 				.stream().map(pot -> pot.getSize()).collect(Collectors.toList());
 
@@ -576,7 +771,7 @@ public abstract class AbstractGame implements Game {
 	 * 
 	 * @param lastTurnIndex
 	 */
-	synchronized protected void cycleTurn(int lastTurnIndex) {
+	protected void cycleTurn(int lastTurnIndex) {
 		System.out.printf("Cycling turn from %d...\n", lastTurnIndex);
 
 		// checking to see if the round is over
@@ -606,10 +801,7 @@ public abstract class AbstractGame implements Game {
 		this.propagateActionToGroup(cycleTurnAction);
 		
 		if (nextPlayer.getState() == PlayerState.AUTO_CHECK_OR_FOLD) {
-			// in perform action, we lock the game lock
-			// this case is only true if we are calling from thread executing performAction
-			this.lock.unlock(); // preventing deadlock when calling performAction again
-			
+			// we are handling an action on the mailbox, so the automatic one is handled right away
 			Action action;
 			if (nextPlayer.getRoundBet() < betController.getRoundBet()) {
 				action = new Action.ActionBuilder(ActionType.FOLD).withPlayerId(this.turn.getPlayer().getId()).build();
@@ -626,8 +818,6 @@ public abstract class AbstractGame implements Game {
 			// automatically check/fold
 		} else if (nextPlayer.getState() == PlayerState.AUTO_CALL) {
 			// automatically call
-			this.lock.unlock(); // preventing deadlock when calling performAction again
-			
 			Action action = new Action.ActionBuilder(ActionType.CALL).withPlayerId(this.turn.getPlayer().getId()).build();
 			
 			try {
@@ -643,7 +833,7 @@ public abstract class AbstractGame implements Game {
 		this.beginTurnTimer();
 	
 	}
-	synchronized protected boolean enoughPlayers() {
+	protected boolean enoughPlayers() {
 		if (this.group.getActivePlayersInHand().size() > 1) {
 			return true;
 		}else {
@@ -657,7 +847,7 @@ public abstract class AbstractGame implements Game {
 	 * 
 	 * @return A boolean indicating if the round is over.
 	 */
-	synchronized protected boolean isRoundOver() {
+	protected boolean isRoundOver() {
 		// checking case applicable for non-preflop rounds where everyone has checked
 		if (betController.getRoundBet() == 0.0f && group.allWaitingPlayersInCheckedState()) {
 			return true;
@@ -685,7 +875,7 @@ public abstract class AbstractGame implements Game {
 	 * @param player
 	 * @throws Exception
 	 */
-	synchronized protected void assertIsPlayerTurn(Player player) throws Exception {
+	protected void assertIsPlayerTurn(Player player) throws Exception {
 		if (!this.getTurn().getPlayer().equals(player)) {
 			throw new Exception("Player cannot perform that action " + "as it is no longer their turn.");
 		}
@@ -696,10 +886,11 @@ public abstract class AbstractGame implements Game {
 	 * 
 	 * @return Game state as GameDocument
 	 */
-	synchronized protected GameDocument toDocument() {
+	protected GameDocument toDocument() {
 		return new GameDocument(id.toString(), metadata.getType().toValue(), startTime.toEpochMilli(),
 				board.toPOJO(), betController.getTotalPot(), group.toPOJO(), started ? turn.toPOJO() : null, started ? history.toPOJO() : null, 
-				betController.getLedger().toPOJO(), this.metadata, this.active, this.round, this.epoch, this.subscribedPlayerIds);
+				new HashMap<String, Float>(betController.getLedger().toPOJO()), this.metadata, this.active, this.round, this.epoch,
+				new HashSet<String>(this.subscribedPlayerIds)); // copied, as documents are saved off the mailbox
 	}
 	
 	/**
@@ -708,18 +899,25 @@ public abstract class AbstractGame implements Game {
 	 */
 	@Override
 	public boolean archive(String userId) {
-		// assert that we have no active players and that given user owns the current game
-		if (group.getPlayers().size() != 0 || !metadata.getCreatedBy().equals(userId)) {
+		boolean archived = mailbox.get(() -> {
+			// assert that we have no active players and that given user owns the current game
+			if (group.getPlayers().size() != 0 || !metadata.getCreatedBy().equals(userId)) {
+				return false;
+			}
+
+			this.active = false;
+			return true;
+		});
+		if (!archived) {
 			return false;
 		}
-		
-		// updating database entry
-		this.active = false;
+
+		// updating database entry, off the mailbox so the table thread is not held by the save
 		this.flushToDatabase();
-		
-		// deleting game from replica and shutting down thread executor
+
+		// deleting game from replica and cancelling its timers
 		removeFromReplica();
-		
+
 		return true;
 	}
 	
@@ -728,16 +926,15 @@ public abstract class AbstractGame implements Game {
 	 * propagated to the entire group.
 	 * @param toBePropagated
 	 */
-	synchronized protected void propagate(Propagatable toBePropagated) {
-		propagateAction(toBePropagated.getAction(), 
-				toBePropagated.getTargets() != null ? toBePropagated.getTargets() : group.getAllParticipants());
+	protected void propagate(Propagatable toBePropagated) {
+		propagateAction(toBePropagated.getAction(), toBePropagated.getTargets());
 	}
 	
 	/**
 	 * Propagates list of propagatables.
 	 * @param propagatables
 	 */
-	synchronized protected void propagate(List<Propagatable> propagatables) {
+	protected void propagate(List<Propagatable> propagatables) {
 		for (Propagatable propagatable : propagatables) {
 			this.propagate(propagatable);
 		}
@@ -747,7 +944,7 @@ public abstract class AbstractGame implements Game {
 	 * Takes in an action and propagates it to individual participant.
 	 * @param action
 	 */
-	synchronized protected void propagateActionToPlayer(Action action, Player participant) {
+	protected void propagateActionToPlayer(Action action, Player participant) {
 		List<Player> targets = new ArrayList<Player>();
 		targets.add(participant);
 		propagateAction(action, targets);
@@ -757,37 +954,76 @@ public abstract class AbstractGame implements Game {
 	 * Takes in an action and propagates it to entire group (spectators + players).
 	 * @param action
 	 */
-	synchronized protected void propagateActionToGroup(Action action) {
-		propagateAction(action, group.getAllParticipants());
+	protected void propagateActionToGroup(Action action) {
+		propagateAction(action, null);
 	}
 
 	/**
 	 * Once an action has been verified by the server, we save it to our game
-	 * history and propagate that information to user sessions.
+	 * history and propagate that information to user sessions. Note that if
+	 * targets is null, the action is propagated to the entire group.
 	 * 
 	 * @param action
 	 */
-	synchronized protected void propagateAction(Action action, List<Player> targets) {
+	protected void propagateAction(Action action, List<Player> targets) {
+		boolean toGroup = targets == null;
+		if (toGroup) {
+			targets = group.getAllParticipants();
+		}
+
 		// add action to game history if a) game has started and b) it is a user-action or an action
 		// that is propagated to the entire group
-		if (started && (action.isUserAction() || targets.size() > 1)) {
+		boolean advancesEpoch = started && (action.isUserAction() || toGroup);
+		if (advancesEpoch) {
 			this.history.appendActionToSequence(action);
 			this.incrementEpoch();
 		}
 
 		try {
+			// players are only given binary indexes by frames everyone receives
+			PlayerIndexes indexes = toGroup ? playerIndexes : null;
+			Frame frame;
 			if (action.isUserAction()) {
-				MessageSendingHandlers.propagateIncomingAction(this.getGameId(), this.getGroup(), action,
-						this.getEpoch(), targets);
+				frame = MessageSendingHandlers.propagateIncomingAction(this.getGameId(), this.getGroup(), action,
+						this.getEpoch(), targets, indexes);
 			} else {
-				MessageSendingHandlers.propagateOutgoingAction(this.getGameId(), action,
-						this.getEpoch(), targets);
+				frame = MessageSendingHandlers.propagateOutgoingAction(this.getGameId(), action,
+						this.getEpoch(), targets, indexes);
+			}
+
+			// keeping the frame for clients that miss it
+			if (toGroup) {
+				replay.add(frame, this.getEpoch(), advancesEpoch, null);
+			} else {
+				for (Player target : targets) {
+					replay.add(frame, this.getEpoch(), advancesEpoch, target.getId());
+				}
 			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Brings a reconnecting player (or one that noticed a gap in the epochs it
+	 * received) up to date: resends the frames sent since the last epoch they
+	 * saw, or the full game state if those are no longer all buffered.
+	 */
+	@Override
+	public void resynchronize(String playerId, WebSocketSession session, int lastEpoch) throws Exception {
+		mailbox.call(() -> {
+			Player participant = getParticipantById(playerId); // must have joined before
+			participant.setSession(session);
+			participant.setDisplayingInactivity(false);
+
+			List<Frame> missed = replay.since(lastEpoch, playerId);
+			if (missed == null || !MessageSendingHandlers.replayFrames(participant, missed)) {
+				sendUserGameState(participant);
+			}
+			return null;
+		});
+	}
+
 	/**
 	 * Sends a player an updated game state (with limited view on other player
 	 * states). Called on player join and on disconnects and any loss of
@@ -795,7 +1031,7 @@ public abstract class AbstractGame implements Game {
 	 * 
 	 * @param player
 	 */
-	synchronized protected void sendUserGameState(Player player) {
+	protected void sendUserGameState(Player player) {
 		// sends player an updated game state
 		try {
 			MessageSendingHandlers.sendGameState(player, getGameStatePOJO(player));
@@ -809,21 +1045,25 @@ public abstract class AbstractGame implements Game {
 	 * 
 	 * @return Instance of GameStatePOJO
 	 */
-	synchronized protected GameStatePOJO getGameStatePOJO(Player player) {
+	protected GameStatePOJO getGameStatePOJO(Player player) {
 		List<LimitedPlayerPOJO> otherPlayers = this.group.getPlayers().stream().filter(p -> !p.equals(player))
 				.map(p -> LimitedPlayerPOJO.fromPlayerPOJO(p.toPOJO())).collect(Collectors.toList());
 
-		return new GameStatePOJO(this.getGameId(), board.toPOJO(), betController.getTotalPot(), otherPlayers, player.toPOJO(),
+		GameStatePOJO state = new GameStatePOJO(this.getGameId(), board.toPOJO(), betController.getTotalPot(), otherPlayers, player.toPOJO(),
 				turn != null ? turn.getPlayer().getId() : null, this.getEpoch(), betController.getTotalRoundBet(), this.started,
 				group.getDealerPlayer() != null? group.getDealerPlayer().getId() : null,
 				group.getSmallBlindPlayer() != null? group.getSmallBlindPlayer().getId() : null,
 				group.getBigBlindPlayer() != null? group.getBigBlindPlayer().getId() : null,this.tableState);
+		if (BinaryProtocol.isBinary(player.getSession())) {
+			state.setPlayerIndexes(playerIndexes.toMap()); // the indexes the player's frames will refer to
+		}
+		return state;
 	}
 
 	/**
 	 * Prints information about the game useful for testing and debugging.
 	 */
-	synchronized protected void printGameState() {
+	protected void printGameState() {
 		System.out.println("------------------------GAME STATE------------------------");
 		System.out.printf("Pot: %.2f\n", betController.getTotalPot());
 		System.out.printf("Round: %d, Round bet: %.2f\n", this.round, betController.getRoundBet() );
@@ -849,7 +1089,7 @@ public abstract class AbstractGame implements Game {
 	 * @param lastTurnIndex
 	 * @return Next player that is eligible to hold a turn.
 	 */
-	synchronized protected Player getNextValidPlayer(int lastTurnIndex) {
+	protected Player getNextValidPlayer(int lastTurnIndex) {
 		
 		int nextPlayerIndex = getNextPlayingIndex(lastTurnIndex);
 		System.out.printf("\n\n\n LAST TURN %d THIS TURN %d\n\n\n",lastTurnIndex, nextPlayerIndex);
@@ -866,11 +1106,86 @@ public abstract class AbstractGame implements Game {
 		return nextPlayer;
 	}
 	
+	/**
+	 * If the hand is decided by all-ins before the river, starts estimating each
+	 * remaining player's chance to win on the shared equity workers.
+	 * 
+	 * @param players
+	 *            Players still in the hand
+	 * @return Future completed with the equities (exceptionally if the workers
+	 *         are saturated), null if the hand does not need them
+	 */
+	protected CompletableFuture<EquityResult> calculateAllInEquity(List<Player> players) {
+		HandRankEvaluator evaluator = this.getEvaluator();
+		List<Card> boardCards = getBoard().getCards();
+		if (!(evaluator instanceof IncrementalHandRankEvaluator)
+				|| boardCards.size() >= MonteCarloEquityCalculator.BOARD_SIZE) {
+			return null;
+		}
+
+		int[] holeCards = new int[players.size() * 2];
+		for (int i = 0; i < players.size(); i++) {
+			List<Card> hand = players.get(i).getHand().getCards();
+			if (hand.size() != 2) {
+				return null; // only hold'em hands are supported
+			}
+			holeCards[i * 2] = hand.get(0).getOrdinal();
+			holeCards[i * 2 + 1] = hand.get(1).getOrdinal();
+		}
+		int[] board = new int[boardCards.size()];
+		for (int i = 0; i < board.length; i++) {
+			board[i] = boardCards.get(i).getOrdinal();
+		}
+
+		return EquityService.getInstance().submit((IncrementalHandRankEvaluator) evaluator, holeCards, board);
+	}
+
+	private void propagateEquity(List<Player> players, EquityResult result) {
+		List<Float> winProbabilities = new ArrayList<Float>();
+		List<Float> tieProbabilities = new ArrayList<Float>();
+		for (int i = 0; i < players.size(); i++) {
+			winProbabilities.add((float) result.getWinProbability(i));
+			tieProbabilities.add((float) result.getTieProbability(i));
+		}
+
+		this.propagateActionToGroup(new Action.ActionBuilder(ActionType.ALL_IN_EQUITY)
+				.withPlayerIds(players.stream().map(player -> player.getId()).collect(Collectors.toList()))
+				.withCards(new ArrayList<Card>(getBoard().getCards()))
+				.withEquities(winProbabilities, tieProbabilities)
+				.build());
+	}
+	
 	protected void updatePlayerHandRanks(List<Player> players) {
+		EightOrBetterEvaluator lowEvaluator = this.getLowEvaluator();
+		if (lowEvaluator != null) {
+			for (Player player : players) {
+				// a single table lookup per player
+				player.getHand().setLowRank(lowEvaluator.evaluate(getBoard(), player.getHand()));
+			}
+		}
+
+		HandRankEvaluator evaluator = this.getEvaluator();
+		if (!(evaluator instanceof IncrementalHandRankEvaluator)) {
+			for (Player player : players) {
+				// calculating hand ranks
+				HandRank rank = evaluator.evaluate(getBoard(), player.getHand());
+				player.getHand().setRank(rank);
+			}
+			return;
+		}
+
+		// the board has already been walked as it was dealt, so only hole cards remain
+		IncrementalHandRankEvaluator incremental = (IncrementalHandRankEvaluator) evaluator;
+		int boardState = this.getBoardState();
+		int boardSize = getBoard().getCards().size();
 		for (Player player : players) {
-			// calculating hand ranks
-			HandRank rank = this.getEvaluator().evaluate(getBoard(), player.getHand());
-			player.getHand().setRank(rank);
+			List<Card> holeCards = player.getHand().getCards();
+			int state = boardState;
+			for (int i = 0; i < holeCards.size(); i++) {
+				state = incremental.advance(state, holeCards.get(i).getOrdinal());
+			}
+			int rank = incremental.rankOf(state, boardSize + holeCards.size());
+			player.getHand().setRank(incremental.toHandRank(rank));
 		}
 	}
 
@@ -883,22 +1198,22 @@ public abstract class AbstractGame implements Game {
 	 *            Index of player whose turn is before the current player
 	 * @return The index of the desired player
 	 */
-	synchronized protected int getNextActivePlayerIndex(int index) {
+	protected int getNextActivePlayerIndex(int index) {
 		return (index + 1) % this.group.getActivePlayersInHand().size();
 	}
 
-	synchronized protected int getNextPlayingIndex(int index) {
+	protected int getNextPlayingIndex(int index) {
 		return (index + 1) % this.group.getPlayersPlaying().size();
 	}
-	synchronized protected Player getNextActivePlayer(int index) {
+	protected Player getNextActivePlayer(int index) {
 		return this.group.getActivePlayersInHand().get(getNextActivePlayerIndex(index));
 	}
 	
-	synchronized protected Player getNextPlayingPlayer(int index) {
+	protected Player getNextPlayingPlayer(int index) {
 		return this.group.getPlayersPlaying().get(getNextPlayingIndex(index));
 	}
 
-	synchronized protected Player getParticipantById(String id) throws Exception {
+	protected Player getParticipantById(String id) throws Exception {
 		for (Player participant : group.getAllParticipants()) {
 			if (participant.getId().equals(id)) {
 				return participant;
@@ -912,107 +1227,140 @@ public abstract class AbstractGame implements Game {
 		return id;
 	}
 
-	synchronized protected boolean isStarted() {
+	protected boolean isStarted() {
 		return started;
 	}
 
-	synchronized protected void setStarted(boolean started) {
+	protected void setStarted(boolean started) {
 		this.started = started;
 	}
 
-	synchronized protected Instant getStartTime() {
+	protected Instant getStartTime() {
 		return startTime;
 	}
 
-	synchronized protected void setStartTime(Instant startTime) {
+	protected void setStartTime(Instant startTime) {
 		this.startTime = startTime;
 	}
 
-	synchronized protected void addToCenterCards(Card card) {
+	protected void addToCenterCards(Card card) {
 		this.board.addCard(card);
+		if (evaluator instanceof IncrementalHandRankEvaluator) {
+			this.boardState = ((IncrementalHandRankEvaluator) evaluator).advance(boardState, card.getOrdinal());
+		}
 	}
 
-	synchronized protected Turn getTurn() {
-		return turn;
+	protected void discardBoard() {
+		this.board.discard();
+		this.resetBoardState();
 	}
 
-	synchronized protected void setTurn(Turn turn) {
-		this.turn = turn;
+	protected int getBoardState() {
+		return boardState;
+	}
+
+	/**
+	 * Recomputes the evaluator state of the center cards (after the board or the
+	 * evaluator is replaced).
+	 */
+	private void resetBoardState() {
+		if (evaluator instanceof IncrementalHandRankEvaluator && board != null) {
+			IncrementalHandRankEvaluator incremental = (IncrementalHandRankEvaluator) evaluator;
+			int state = incremental.initialState();
+			for (Card card : board.getCards()) {
+				state = incremental.advance(state, card.getOrdinal());
+			}
+			this.boardState = state;
+		}
 	}
 
-	synchronized protected Lock getLock() {
-		return lock;
+	protected Turn getTurn() {
+		return turn;
+	}
+
+	protected void setTurn(Turn turn) {
+		this.turn = turn;
 	}
 
-	synchronized protected void setLock(Lock lock) {
-		this.lock = lock;
+	protected Mailbox getMailbox() {
+		return mailbox;
 	}
 
-	synchronized protected Group getGroup() {
+	protected Group getGroup() {
 		return group;
 	}
 
-	synchronized protected void setGroup(Group group) {
+	protected void setGroup(Group group) {
 		this.group = group;
 	}
 
-	synchronized protected int getRound() {
+	protected int getRound() {
 		return round;
 	}
 
-	synchronized protected void setRound(int round) {
+	protected void setRound(int round) {
 		this.round = round;
 	}
 
-	synchronized protected void incrementRound() {
+	protected void incrementRound() {
 		this.round++;
 	}
 
-	synchronized protected History getHistory() {
+	protected History getHistory() {
 		return history;
 	}
 
-	synchronized protected void setHistory(History history) {
+	protected void setHistory(History history) {
 		this.history = history;
 	}
 
-	synchronized protected GameRepository getGameRepository() {
+	protected GameRepository getGameRepository() {
 		return gameRepository;
 	}
 
-	synchronized protected void setGameRepository(GameRepository gameRepository) {
+	protected void setGameRepository(GameRepository gameRepository) {
 		this.gameRepository = gameRepository;
 	}
 
-	synchronized protected int getEpoch() {
+	protected int getEpoch() {
 		return epoch;
 	}
 
-	synchronized protected void incrementEpoch() {
+	protected void incrementEpoch() {
 		this.epoch++;
 	}
 
-	synchronized protected Board getBoard() {
+	protected Board getBoard() {
 		return board;
 	}
 
-	synchronized protected void setBoard(Board board) {
+	protected void setBoard(Board board) {
 		this.board = board;
+		this.resetBoardState();
 	}
 
-	protected synchronized HandRankEvaluator getEvaluator() {
+	protected HandRankEvaluator getEvaluator() {
 		return evaluator;
 	}
 
-	protected synchronized void setEvaluator(HandRankEvaluator evaluator) {
+	protected void setEvaluator(HandRankEvaluator evaluator) {
 		this.evaluator = evaluator;
+		this.resetBoardState();
+	}
+
+	protected EightOrBetterEvaluator getLowEvaluator() {
+		return lowEvaluator;
+	}
+
+	protected void setLowEvaluator(EightOrBetterEvaluator lowEvaluator) {
+		this.lowEvaluator = lowEvaluator;
 	}
 
-	protected synchronized BetController getBetController() {
+	protected BetController getBetController() {
 		return betController;
 	}
 
-	protected synchronized void setBetController(BetController betController) {
+	protected void setBetController(BetController betController) {
 		this.betController = betController;
 	}
 
@@ -1024,12 +1372,12 @@ public abstract class AbstractGame implements Game {
 		this.metadata = metadata;
 	}
 
-	protected ScheduledExecutorService getThreadExecutor() {
-		return threadExecutor;
+	protected HashedWheelTimer getTimer() {
+		return timer;
 	}
 
-	protected void setThreadExecutor(ScheduledExecutorService threadExecutor) {
-		this.threadExecutor = threadExecutor;
+	protected void setTimer(HashedWheelTimer timer) {
+		this.timer = timer;
 	}
 
 	protected boolean isActive() {
@@ -1042,17 +1390,18 @@ public abstract class AbstractGame implements Game {
 
 	protected void setEpoch(int epoch) {
 		this.epoch = epoch;
+		this.replay = new ReplayBuffer(ReplayBuffer.CAPACITY, epoch); // frames of other epochs would be replayed wrongly
 	}
 
-	synchronized protected int getMuckDecisionTime() {
+	protected int getMuckDecisionTime() {
 		return muckDecisionTime;
 	}
 
-	synchronized public void setMuckDecisionTime(int muckDecisionTime) {
+	public void setMuckDecisionTime(int muckDecisionTime) {
 		this.muckDecisionTime = muckDecisionTime;
 	}
 	
-	synchronized public void incrementMuckDecisionTime() {
+	public void incrementMuckDecisionTime() {
 		this.muckDecisionTime += 5;
 	}
 
@@ -33,6 +33,8 @@ public class Action {
 	private List<LimitedPlayerPOJO> limitedPlayers; // limited information about players
 	private Boolean enabled; // some actions have an assocaited boolean value
 	private Long duration;
+	private List<Float> winProbabilities; // chance of each player in playerIds to win alone
+	private List<Float> tieProbabilities; // chance of each player in playerIds to split the pot
 	
 	// automatically set values
 	private Instant timestamp;
@@ -50,6 +52,8 @@ public class Action {
 		private List<LimitedPlayerPOJO> limitedPlayers;
 		private Boolean enabled;
 		private Long duration;
+		private List<Float> winProbabilities;
+		private List<Float> tieProbabilities;
 
 		/* Constructors */
 
@@ -108,6 +112,12 @@ public class Action {
 			return this;
 		}
 		
+		public ActionBuilder withEquities(List<Float> winProbabilities, List<Float> tieProbabilities){
+			this.winProbabilities = winProbabilities;
+			this.tieProbabilities = tieProbabilities;
+			return this;
+		}
+		
 		public Action build(){
             Action action = new Action();
             action.type = this.type;
@@ -122,6 +132,8 @@ public class Action {
             action.limitedPlayers = this.limitedPlayers;
             action.enabled = this.enabled;
             action.duration = this.duration;
+            action.winProbabilities = this.winProbabilities;
+            action.tieProbabilities = this.tieProbabilities;
             return action;
         }
 	}
@@ -254,4 +266,20 @@ public class Action {
 	public Long getDuration() { return duration; }
 
 	public void setDuration(Long duration) { this.duration = duration; }
+
+	public List<Float> getWinProbabilities() {
+		return winProbabilities;
+	}
+
+	public void setWinProbabilities(List<Float> winProbabilities) {
+		this.winProbabilities = winProbabilities;
+	}
+
+	public List<Float> getTieProbabilities() {
+		return tieProbabilities;
+	}
+
+	public void setTieProbabilities(List<Float> tieProbabilities) {
+		this.tieProbabilities = tieProbabilities;
+	}
 }
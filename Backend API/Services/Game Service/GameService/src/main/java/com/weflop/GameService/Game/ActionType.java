@@ -4,6 +4,9 @@ package com.weflop.GameService.Game;
  * Enum describing all supported types of actions a user can make in the context
  * of an existing game.
  * 
+ * The binary protocol sends types as their ordinal, so new types are added at
+ * the end.
+ * 
  * @author abrevnov
  *
  */
@@ -43,7 +46,8 @@ public enum ActionType {
 	BETTING_ROUND_OVER("BETTING_ROUND_OVER"), // round of betting has concluded
 	OPTION_TO_SHOW_CARDS("OPTION_TO_SHOW_CARDS"), // present user option to show cards or muck
 	NEW_HAND("NEW_HAND"), // new hand has begun
-	NEW_TURN("NEW_TURN"); // indicates that a new players turn has begun
+	NEW_TURN("NEW_TURN"), // indicates that a new players turn has begun
+	ALL_IN_EQUITY("ALL_IN_EQUITY"); // odds of players all-in before the remaining center cards are dealt
 	
 	private final String value;
 
@@ -7,6 +7,7 @@ import org.springframework.util.Assert;
 import com.weflop.Cards.Deck;
 import com.weflop.Cards.StandardDeck;
 import com.weflop.Evaluation.HandRankEvaluator;
+import com.weflop.Evaluation.Low.EightOrBetterEvaluator;
 import com.weflop.GameService.Database.GameRepository;
 import com.weflop.GameService.Database.DomainObjects.GameDocument;
 import com.weflop.GameService.Game.AbstractGame;
@@ -43,6 +44,9 @@ public class BasicPokerGame extends AbstractGame {
 		this(repository, metadata, evaluator);
 		this.variant = variant;
 		this.deck = deck;
+		if (variant.isHiLo()) {
+			this.setLowEvaluator(new EightOrBetterEvaluator(variant.getHoleCards()));
+		}
 	}
 	
 	/**
@@ -55,408 +59,413 @@ public class BasicPokerGame extends AbstractGame {
 		this.deck = new StandardDeck();
 	}
 
+	/**
+	 * Loads an existing game state of the given variant.
+	 * @param document
+	 */
+	public BasicPokerGame(GameRepository repository, GameDocument document, VariantRepresentation variant,
+			Deck deck, HandRankEvaluator evaluator) {
+		this(repository, document, evaluator);
+		this.variant = variant;
+		this.deck = deck;
+		if (variant.isHiLo()) {
+			this.setLowEvaluator(new EightOrBetterEvaluator(variant.getHoleCards()));
+		}
+	}
+
 	/* Overrided methods from abstract superclass */
 
 	@Override
-	public void performAction(Action action) throws Exception {
-		// locking game object
-		this.getLock().lock();
+	protected void handleAction(Action action) throws Exception {
+		switch (action.getType()) {
+		case START: {
+			Assert.isTrue(this.getGroup().getPlayers().size() >= 2, "A game requires at least two players");
+			Assert.isTrue(!this.isStarted(), "Game has already begun");
 
-		try {
-			switch (action.getType()) {
-			case START: {
-				Assert.isTrue(this.getGroup().getPlayers().size() >= 2, "A game requires at least two players");
-				Assert.isTrue(!this.isStarted(), "Game has already begun");
+			Player participant = this.getParticipantById(action.getPlayerId());
+			Assert.isTrue(!participant.isSpectating(), "Only seated players can start a game.");
 
-				Player participant = this.getParticipantById(action.getPlayerId());
-				Assert.isTrue(!participant.isSpectating(), "Only seated players can start a game.");
+			System.out.printf("Player %s starting game\n", action.getPlayerId());
 
-				System.out.printf("Player %s starting game\n", action.getPlayerId());
+			startGame();
+		}
+		break;
+		case FOLD: {
+			Assert.isTrue(this.isStarted(), "Game has not begun");
 
-				startGame();
-			}
-			break;
-			case FOLD: {
-				Assert.isTrue(this.isStarted(), "Game has not begun");
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				Player participant = this.getParticipantById(action.getPlayerId());
+			assertIsPlayerTurn(participant);
 
-				assertIsPlayerTurn(participant);
+			// update player state to folded
+			participant.setState(PlayerState.FOLDED);
 
-				// update player state to folded
-				participant.setState(PlayerState.FOLDED);
+			// move on to next turn
+			this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
 
-				// move on to next turn
-				this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
+			System.out.printf("Player %s folded\n", action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case RAISE: {
+			Assert.isTrue(this.isStarted(), "Game has not begun");
 
-				System.out.printf("Player %s folded\n", action.getPlayerId());
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case RAISE: {
-				Assert.isTrue(this.isStarted(), "Game has not begun");
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				Player participant = this.getParticipantById(action.getPlayerId());
+			assertIsPlayerTurn(participant);
 
-				assertIsPlayerTurn(participant);
+			// get bet and check that it is valid
+			float bet = action.getValue();
 
-				// get bet and check that it is valid
-				float bet = action.getValue();
+			// update player balances and pot
+			getBetController().raise(participant, bet); // verification performed in 'bet' method
 
-				// update player balances and pot
-				getBetController().raise(participant, bet); // verification performed in 'bet' method
+			// update player state to waiting for turn
+			participant.setState(PlayerState.WAITING_FOR_TURN);
 
-				// update player state to waiting for turn
-				participant.setState(PlayerState.WAITING_FOR_TURN);
+			// move on to next turn
+			this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
 
-				// move on to next turn
-				this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
+ 
+			System.out.printf("Player %s raised by: %f\n", action.getPlayerId(), bet);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case CALL: {
+			Assert.isTrue(this.isStarted(), "Game has not begun");
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
-	 
-				System.out.printf("Player %s raised by: %f\n", action.getPlayerId(), bet);
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case CALL: {
-				Assert.isTrue(this.isStarted(), "Game has not begun");
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				Player participant = this.getParticipantById(action.getPlayerId());
+			assertIsPlayerTurn(participant);
 
-				assertIsPlayerTurn(participant);
+			// update player balances and pot
+			float bet = getBetController().getRoundBet() - participant.getRoundBet();
 
-				// update player balances and pot
-				float bet = getBetController().getRoundBet() - participant.getRoundBet();
+			// update player balances and pot 
+			getBetController().bet(participant, bet); // verification performed in 'bet' method
+			
+			// update player state to waiting for turn
+			participant.setState(PlayerState.WAITING_FOR_TURN);
 
-				// update player balances and pot 
-				getBetController().bet(participant, bet); // verification performed in 'bet' method
-				
-				// update player state to waiting for turn
-				participant.setState(PlayerState.WAITING_FOR_TURN);
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
+			// move on to next turn
+			this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
 
-				// move on to next turn
-				this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
+			System.out.printf("Player %s called\n", action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case CHECK: {
+			Assert.isTrue(this.isStarted(), "Game has not begun");
 
-				System.out.printf("Player %s called\n", action.getPlayerId());
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case CHECK: {
-				Assert.isTrue(this.isStarted(), "Game has not begun");
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				Player participant = this.getParticipantById(action.getPlayerId());
+			Assert.isTrue(getBetController().getRoundBet() == participant.getRoundBet(), "Current player bet is insufficient to check.");
 
-				Assert.isTrue(getBetController().getRoundBet() == participant.getRoundBet(), "Current player bet is insufficient to check.");
+			assertIsPlayerTurn(participant);
+			// update player state to waiting for turn
+			participant.setState(PlayerState.CHECKED);
 
-				assertIsPlayerTurn(participant);
-				// update player state to waiting for turn
-				participant.setState(PlayerState.CHECKED);
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
+			// move on to next turn
+			this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
 
-				// move on to next turn
-				this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
+			System.out.printf("Player %s checked\n", action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case ALL_IN: {
+			Assert.isTrue(this.isStarted(), "Game has not begun");
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				System.out.printf("Player %s checked\n", action.getPlayerId());
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case ALL_IN: {
-				Assert.isTrue(this.isStarted(), "Game has not begun");
-				Player participant = this.getParticipantById(action.getPlayerId());
+			assertIsPlayerTurn(participant);
 
-				assertIsPlayerTurn(participant);
+			float bet = getBetController().goAllIn(participant);
+			
+			action.setValue(bet); // appending bet value to action
 
-				float bet = getBetController().goAllIn(participant);
-				
-				action.setValue(bet); // appending bet value to action
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
+			// move on to next turn
+			this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
 
-				// move on to next turn
-				this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
+			System.out.printf("Player %s went all-in\n", action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case TURN_TIMEOUT: {
+			System.out.println("inside turn timeout");
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				System.out.printf("Player %s went all-in\n", action.getPlayerId());
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case TURN_TIMEOUT: {
-				System.out.println("inside turn timeout");
-				Player participant = this.getParticipantById(action.getPlayerId());
+			assertIsPlayerTurn(participant);
+			// we handle timeouts the same way as folding
 
-				assertIsPlayerTurn(participant);
-				// we handle timeouts the same way as folding
+			// update player state to folded
+			participant.setState(PlayerState.FOLDED);
+			participant.setNextHandState(PlayerState.SITTING_OUT);
 
-				// update player state to folded
-				participant.setState(PlayerState.FOLDED);
-				participant.setNextHandState(PlayerState.SITTING_OUT);
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
+			// move on to next turn
+			this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
 
-				// move on to next turn
-				this.cycleTurn(this.getGroup().getIndexOfPlayerInList(participant));
+			System.out.printf("Player %s timed out\n", action.getPlayerId());
+			
+			if (participant.isDisplayingInactivity()) {
+				// they have already missed a turn prior to this, so they get booted from the table
+				this.bootPlayer(participant, BootReason.INACTIVITY);
+			}
+			participant.setDisplayingInactivity(true);
 
-				System.out.printf("Player %s timed out\n", action.getPlayerId());
-				
-				if (participant.isDisplayingInactivity()) {
-					// they have already missed a turn prior to this, so they get booted from the table
-					this.bootPlayer(participant, BootReason.INACTIVITY);
-				}
-				participant.setDisplayingInactivity(true);
+		}
+		break;
+		case JOIN: {
+			printGameState();
+			
+			Player participant = getGroup().getParticipantById(action.getPlayerId());
+			if (participant != null) {
+				participant.setSession(action.getSession());
+				System.out.printf("Player %s re-joining game\n", action.getPlayerId());
+			} else {
+				this.getSubscribedPlayerIds().add(action.getPlayerId());
+				// add player as spectator
+				this.getGroup().createSpectator(action.getPlayerId(), action.getSession());
+
+				System.out.printf("Player %s joining game\n", action.getPlayerId());
+
+				participant = this.getParticipantById(action.getPlayerId());
+			}
+			
+			System.out.println(participant);
+			
+			// need to send the player the current game state
+			this.sendUserGameState(participant);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case SIT: {
+			Player participant = this.getParticipantById(action.getPlayerId());
 
+			this.getGroup().moveSpectatorToActivePlayer(participant, action.getSlot());
+			
+			try {
+				getBetController().buyIn(participant, action.getValue());
+			} catch (Exception e) {
+				this.getGroup().movePlayerToSpectator(participant);
+				return;
 			}
-			break;
-			case JOIN: {
-				printGameState();
-				
-				Player participant = getGroup().getParticipantById(action.getPlayerId());
-				if (participant != null) {
-					participant.setSession(action.getSession());
-					System.out.printf("Player %s re-joining game\n", action.getPlayerId());
-				} else {
-					this.getSubscribedPlayerIds().add(action.getPlayerId());
-					// add player as spectator
-					this.getGroup().createSpectator(action.getPlayerId(), action.getSession());
-	
-					System.out.printf("Player %s joining game\n", action.getPlayerId());
-	
-					participant = this.getParticipantById(action.getPlayerId());
-				}
-				
-				System.out.println(participant);
-				
-				// need to send the player the current game state
-				this.sendUserGameState(participant);
-				participant.setDisplayingInactivity(false);
+							
+			System.out.printf("Player %s sitting\n", action.getPlayerId());
+			
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
+			
+			if (!this.isStarted() && this.getGroup().getPlayers().size() >= 2) {
+				// all players who joined before start should be active in first hand
+				getGroup().setAllPlayersCurrentAndFutureStates(PlayerState.WAITING_FOR_TURN, PlayerState.WAITING_FOR_TURN);
+
+				this.startGame();
 			}
-			break;
-			case SIT: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-
-				this.getGroup().moveSpectatorToActivePlayer(participant, action.getSlot());
-				
-				try {
-					getBetController().buyIn(participant, action.getValue());
-				} catch (Exception e) {
-					this.getGroup().movePlayerToSpectator(participant);
-					return;
-				}
-								
-				System.out.printf("Player %s sitting\n", action.getPlayerId());
-				
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
-				
-				if (!this.isStarted() && this.getGroup().getPlayers().size() >= 2) {
-					// all players who joined before start should be active in first hand
-					getGroup().setAllPlayersCurrentAndFutureStates(PlayerState.WAITING_FOR_TURN, PlayerState.WAITING_FOR_TURN);
 
-					this.startGame();
-				}
-
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case SIT_IN: {
-				System.out.printf("\nSITTING IN %d\n",this.getGroup().getPlayers().size());
-
-				Player participant = this.getParticipantById(action.getPlayerId());		
-				boolean enabled = action.getEnabled();
-				// propagate action to members of group
-				System.out.printf("\n BLINDMISSED %b", participant.getMissedBlind());
-				if (participant.getMissedBlind()) {
-					if (enabled) {
-						participant.updateCurrentAndFutureState(PlayerState.POSTING_BIG_BLIND, PlayerState.WAITING_FOR_HAND);
-					}
-					else {
-						participant.updateCurrentAndFutureState(PlayerState.WAITING_FOR_BIG_BLIND, PlayerState.WAITING_FOR_BIG_BLIND);
-					}
-				}else {
-					participant.updateCurrentAndFutureState(PlayerState.WAITING_FOR_HAND, PlayerState.WAITING_FOR_HAND);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case SIT_IN: {
+			System.out.printf("\nSITTING IN %d\n",this.getGroup().getPlayers().size());
+
+			Player participant = this.getParticipantById(action.getPlayerId());		
+			boolean enabled = action.getEnabled();
+			// propagate action to members of group
+			System.out.printf("\n BLINDMISSED %b", participant.getMissedBlind());
+			if (participant.getMissedBlind()) {
+				if (enabled) {
+					participant.updateCurrentAndFutureState(PlayerState.POSTING_BIG_BLIND, PlayerState.WAITING_FOR_HAND);
 				}
-				
-
-								
-				
-				this.propagateActionToGroup(action);
-				if (!this.isStarted() && this.getGroup().getPlayers().size() >= 2) {
-					// all players who joined before start should be active in first hand
-					getGroup().setAllPlayersCurrentAndFutureStates(PlayerState.WAITING_FOR_TURN, PlayerState.WAITING_FOR_TURN);
-					this.startGame();
+				else {
+					participant.updateCurrentAndFutureState(PlayerState.WAITING_FOR_BIG_BLIND, PlayerState.WAITING_FOR_BIG_BLIND);
 				}
-				participant.setDisplayingInactivity(false);
+			}else {
+				participant.updateCurrentAndFutureState(PlayerState.WAITING_FOR_HAND, PlayerState.WAITING_FOR_HAND);
+			}
+			
+
+							
+			
+			this.propagateActionToGroup(action);
+			if (!this.isStarted() && this.getGroup().getPlayers().size() >= 2) {
+				// all players who joined before start should be active in first hand
+				getGroup().setAllPlayersCurrentAndFutureStates(PlayerState.WAITING_FOR_TURN, PlayerState.WAITING_FOR_TURN);
+				this.startGame();
 			}
-			break;
-			case STAND: {
-				Player participant = this.getParticipantById(action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case STAND: {
+			Player participant = this.getParticipantById(action.getPlayerId());
 
-				getBetController().getLedger().updateEntry(participant.getId(), -participant.getHandBalance());
+			getBetController().getLedger().updateEntry(participant.getId(), -participant.getHandBalance());
 
-				// transition player from player to spectator
-				this.getGroup().movePlayerToSpectator(participant);
+			// transition player from player to spectator
+			this.getGroup().movePlayerToSpectator(participant);
 
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
 
-				System.out.printf("Player %s stood\n", action.getPlayerId());
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case DISCONNECT: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				getBetController().getLedger().updateEntry(participant.getId(), -participant.getHandBalance());
+			System.out.printf("Player %s stood\n", action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case DISCONNECT: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			getBetController().getLedger().updateEntry(participant.getId(), -participant.getHandBalance());
 
-				this.getGroup().deleteParticipant(participant);
+			this.getGroup().deleteParticipant(participant);
 
-				// propagate action to members of group if not spectator
-				if (!participant.isSpectating()) {
-					this.propagateActionToGroup(action);
-				}
-				System.out.printf("Player %s disconnected\n", action.getPlayerId());
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case SIT_OUT_HAND: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				Assert.isTrue(participant.canSitOut(), "Must be an active player to sit out.");
-				
-				// sitting player out for next round
-				participant.setNextHandState(PlayerState.SITTING_OUT);
-				
+			// propagate action to members of group if not spectator
+			if (!participant.isSpectating()) {
 				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
 			}
-			break;
-			case CANCEL_BUY_IN: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				Assert.isTrue(participant.canSitOut(), "Must be an active player to sit out.");
-				
-				// sitting player out for next round
-				participant.setNextHandState(PlayerState.SITTING_OUT);
-				
-				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case SIT_OUT_BB: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				Assert.isTrue(participant.canSitOut(), "Must be an active player to sit out.");
-				
-				// sitting player out for next round
-				participant.setNextHandState(PlayerState.SITTING_OUT_BB);
-				
-				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case POST_BIG_BLIND: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				Assert.isTrue(participant.canPostBigBlind(getMetadata().getBigBlind()), "Player cannot post big blind.");
-				
-				participant.updateCurrentAndFutureState(PlayerState.POSTING_BIG_BLIND, PlayerState.WAITING_FOR_HAND);
-				
-				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
+			System.out.printf("Player %s disconnected\n", action.getPlayerId());
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case SIT_OUT_HAND: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			Assert.isTrue(participant.canSitOut(), "Must be an active player to sit out.");
+			
+			// sitting player out for next round
+			participant.setNextHandState(PlayerState.SITTING_OUT);
+			
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case CANCEL_BUY_IN: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			Assert.isTrue(participant.canSitOut(), "Must be an active player to sit out.");
+			
+			// sitting player out for next round
+			participant.setNextHandState(PlayerState.SITTING_OUT);
+			
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case SIT_OUT_BB: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			Assert.isTrue(participant.canSitOut(), "Must be an active player to sit out.");
+			
+			// sitting player out for next round
+			participant.setNextHandState(PlayerState.SITTING_OUT_BB);
+			
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case POST_BIG_BLIND: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			Assert.isTrue(participant.canPostBigBlind(getMetadata().getBigBlind()), "Player cannot post big blind.");
+			
+			participant.updateCurrentAndFutureState(PlayerState.POSTING_BIG_BLIND, PlayerState.WAITING_FOR_HAND);
+			
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case TOP_OFF: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			getBetController().buyIn(participant, action.getValue());
+			
+			if (participant.getState() == PlayerState.BUSTED) {
+				participant.updateCurrentAndFutureState(PlayerState.WAITING_FOR_BIG_BLIND, PlayerState.WAITING_FOR_BIG_BLIND);
 			}
-			break;
-			case TOP_OFF: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				getBetController().buyIn(participant, action.getValue());
-				
-				if (participant.getState() == PlayerState.BUSTED) {
-					participant.updateCurrentAndFutureState(PlayerState.WAITING_FOR_BIG_BLIND, PlayerState.WAITING_FOR_BIG_BLIND);
-				}
-				
-				System.out.printf("Player %s topping off...\n", action.getPlayerId());
+			
+			System.out.printf("Player %s topping off...\n", action.getPlayerId());
 
-				// do not propagate...propagate when we actually update balance
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case CHANGE_SEAT: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				Assert.isTrue(!participant.canChangeSeat(), "Player is not able to change seats.");
-								
-				participant.sit(action.getSlot());
-				
-				// propagate action to members of group
-				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
-			}
-			break;
-			case SHOW_CARDS: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				boolean permission = getGroup().getPlayersWhoCanMuck().remove(participant);
-				
-				if (!permission) {
-					break;
-				}
-				
-				this.incrementMuckDecisionTime();
-				
-				action.setCards(participant.getHand().getCards());
-				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
-			} break;
-			case MUCK_CARDS: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				
-				boolean permission = getGroup().getPlayersWhoCanMuck().remove(participant);
-				
-				if (!permission) {
-					break;
-				}
-				
-				this.incrementMuckDecisionTime();
-				
-				this.propagateActionToGroup(action);
-				participant.setDisplayingInactivity(false);
-			} break;
-			case AUTO_CALL: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				Assert.isTrue(participant.getState() == PlayerState.WAITING_FOR_TURN, "Player must be waiting for turn to pre-move.");
-				
-				participant.setState(PlayerState.AUTO_CALL);
-				participant.setDisplayingInactivity(false);
-			} break;
-			case AUTO_CHECK_OR_FOLD: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				Assert.isTrue(participant.getState() == PlayerState.WAITING_FOR_TURN, "Player must be waiting for turn to pre-move.");
-
-				participant.setState(PlayerState.AUTO_CHECK_OR_FOLD);
-				participant.setDisplayingInactivity(false);
-			} break;
-			case AUTO_MUCK: {
-				Player participant = this.getParticipantById(action.getPlayerId());
-				participant.getSettings().setAutoMuckEnabled(action.getEnabled());
+			// do not propagate...propagate when we actually update balance
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case CHANGE_SEAT: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			Assert.isTrue(!participant.canChangeSeat(), "Player is not able to change seats.");
+							
+			participant.sit(action.getSlot());
+			
+			// propagate action to members of group
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		}
+		break;
+		case SHOW_CARDS: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			boolean permission = getGroup().getPlayersWhoCanMuck().remove(participant);
+			
+			if (!permission) {
+				break;
 			}
-			break;
-			default:
-				throw new Exception("Unsopported action for this game mode");
+			
+			this.incrementMuckDecisionTime();
+			
+			action.setCards(participant.getHand().getCards());
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		} break;
+		case MUCK_CARDS: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			
+			boolean permission = getGroup().getPlayersWhoCanMuck().remove(participant);
+			
+			if (!permission) {
+				break;
 			}
-		} finally {
-			// releasing game lock
-			this.getLock().unlock();
+			
+			this.incrementMuckDecisionTime();
+			
+			this.propagateActionToGroup(action);
+			participant.setDisplayingInactivity(false);
+		} break;
+		case AUTO_CALL: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			Assert.isTrue(participant.getState() == PlayerState.WAITING_FOR_TURN, "Player must be waiting for turn to pre-move.");
+			
+			participant.setState(PlayerState.AUTO_CALL);
+			participant.setDisplayingInactivity(false);
+		} break;
+		case AUTO_CHECK_OR_FOLD: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			Assert.isTrue(participant.getState() == PlayerState.WAITING_FOR_TURN, "Player must be waiting for turn to pre-move.");
+
+			participant.setState(PlayerState.AUTO_CHECK_OR_FOLD);
+			participant.setDisplayingInactivity(false);
+		} break;
+		case AUTO_MUCK: {
+			Player participant = this.getParticipantById(action.getPlayerId());
+			participant.getSettings().setAutoMuckEnabled(action.getEnabled());
+		}
+		break;
+		default:
+			throw new Exception("Unsopported action for this game mode");
 		}
-
 	}
 	
 	private void startGame() {
@@ -504,7 +513,7 @@ public class BasicPokerGame extends AbstractGame {
 			}
 		}
 
-		getBoard().discard();
+		discardBoard();
 	}
 
 	/**
@@ -543,7 +552,6 @@ public class BasicPokerGame extends AbstractGame {
 		// messaging players regarding new center cards
 		if (numCards > 0) {
 			this.propagateActionToGroup(new Action.ActionBuilder(ActionType.CENTER_DEAL).withCards(getBoard().getCards()).build());
-			this.incrementEpoch();
 		}
 	}
 
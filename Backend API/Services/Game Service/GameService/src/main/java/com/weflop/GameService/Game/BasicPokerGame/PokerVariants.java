@@ -18,4 +18,49 @@ public class PokerVariants {
 		int[] cardsDiscardedAfterRound = new int[] { 0, 0, 0, 0 };
 		return new VariantRepresentation(2, 4, 0, cardsDealtBeforeRound, cardsDiscardedAfterRound);
 	}
+
+	/**
+	 * Gets representation of a short deck (6+) hold'em game, which is dealt like
+	 * hold'em from a 36-card deck.
+	 * 
+	 * @return A representation of the game.
+	 */
+	public static VariantRepresentation getShortDeckHoldem() {
+		return getStandardHoldem();
+	}
+
+	/**
+	 * Gets representation of an Omaha game (four hole cards, exactly two of which
+	 * must be used).
+	 * 
+	 * @return A representation of the game.
+	 */
+	public static VariantRepresentation getOmaha() {
+		return getOmaha(4);
+	}
+
+	/**
+	 * Gets representation of an Omaha game with any number of hole cards (e.g.
+	 * five or six card "big O" games).
+	 * 
+	 * @param numDealt
+	 *            Number of hole cards dealt to each player
+	 * @return A representation of the game.
+	 */
+	public static VariantRepresentation getOmaha(int numDealt) {
+		int[] cardsDealtBeforeRound = new int[] { 0, 3, 1, 1 };
+		int[] cardsDiscardedAfterRound = new int[] { 0, 0, 0, 0 };
+		return new VariantRepresentation(numDealt, 4, 2, cardsDealtBeforeRound, cardsDiscardedAfterRound);
+	}
+
+	/**
+	 * Gets representation of an Omaha hi/lo (eight-or-better) game.
+	 * 
+	 * @return A representation of the game.
+	 */
+	public static VariantRepresentation getOmahaHiLo() {
+		int[] cardsDealtBeforeRound = new int[] { 0, 3, 1, 1 };
+		int[] cardsDiscardedAfterRound = new int[] { 0, 0, 0, 0 };
+		return new VariantRepresentation(4, 4, 2, cardsDealtBeforeRound, cardsDiscardedAfterRound, true);
+	}
 }
@@ -10,6 +10,9 @@ package com.weflop.GameService.Game.BasicPokerGame;
  * cards dealt before each betting round. 'h i j k' represents the number of
  * cards discarded after each round of betting.
  * 
+ * Hi/lo variants additionally split each pot between the best high hand and
+ * the best eight-or-better low hand.
+ * 
  * @author abrevnov
  *
  */
@@ -23,6 +26,8 @@ public class VariantRepresentation {
 
 	private int[] cardsDiscardedAfterRound;
 
+	private boolean hiLo;
+
 	VariantRepresentation(int numDealt, int bettingRounds, int holeCards, int[] cardsDealtBeforeRound,
 			int[] cardsDiscardedAfterRound) {
 		this.setNumDealt(numDealt);
@@ -32,6 +37,12 @@ public class VariantRepresentation {
 		this.cardsDiscardedAfterRound = cardsDiscardedAfterRound;
 	}
 
+	VariantRepresentation(int numDealt, int bettingRounds, int holeCards, int[] cardsDealtBeforeRound,
+			int[] cardsDiscardedAfterRound, boolean hiLo) {
+		this(numDealt, bettingRounds, holeCards, cardsDealtBeforeRound, cardsDiscardedAfterRound);
+		this.setHiLo(hiLo);
+	}
+
 	public int getTotalCardsDealt() {
 		int numCards = 0;
 		for (int i = 0; i < cardsDealtBeforeRound.length; i++) {
@@ -81,4 +92,12 @@ public class VariantRepresentation {
 	public void setHoleCards(int holeCards) {
 		this.holeCards = holeCards;
 	}
+
+	public boolean isHiLo() {
+		return hiLo;
+	}
+
+	public void setHiLo(boolean hiLo) {
+		this.hiLo = hiLo;
+	}
 }
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 import org.springframework.util.Assert;
 
 import com.weflop.Evaluation.HandRank;
+import com.weflop.Evaluation.Low.EightOrBetterEvaluator;
 
 /**
  * Class acts as a wrapper for all betting information. All bets should go through
@@ -265,20 +266,17 @@ public class BetController {
 			
 			System.out.println("Players with max rank for pot with size: " + pot.getSize());
 			System.out.println(playersWithMaxRank.stream().map(player -> player.getId()).collect(Collectors.toList()));
-			// distribute funds to winner(s)
-			float perPlayerWinnings = pot.getSize() / playersWithMaxRank.size(); // split pot between winners
-			for (Player player : playersWithMaxRank) {
-				System.out.println("Player with id: " + player.getId() + " has won winnings: " + perPlayerWinnings);
-				player.increaseBalance(perPlayerWinnings);
-				ledger.updateEntry(player.getId(), perPlayerWinnings);
+
+			// in hi/lo games the best qualifying low hand(s) take half of the pot
+			List<Player> playersWithBestLow = getPlayersWithBestLow(pot);
+			if (playersWithBestLow.isEmpty()) {
+				awardPot(pot.getSize(), playersWithMaxRank, propagatables);
+			} else {
+				System.out.println("Players with best low: " + playersWithBestLow.stream().map(player -> player.getId()).collect(Collectors.toList()));
+				playersForcedToShowCards.addAll(playersWithBestLow);
+				awardPot(pot.getSize() / 2, playersWithMaxRank, propagatables);
+				awardPot(pot.getSize() / 2, playersWithBestLow, propagatables);
 			}
-	
-			// propagating updates
-			propagatables.add(new Propagatable(
-					new Action.ActionBuilder(ActionType.POT_WON)
-					.withPlayerIds(playersWithMaxRank.stream().map(player -> player.getId()).collect(Collectors.toList()))
-					.withValue(pot.getSize())
-					.build()));
 		}
 		playersForcedToShowCards.add(this.lastRaisePlayer);
 		if (group.getActivePlayersInBettingRound().size() == 1){
@@ -307,6 +305,48 @@ public class BetController {
 		return propagatables;
 	}
 
+	/**
+	 * Players of the pot holding the best low hand. Empty if no hand qualifies for
+	 * low (always the case outside of hi/lo games).
+	 */
+	private List<Player> getPlayersWithBestLow(Pot pot) {
+		int bestLow = EightOrBetterEvaluator.NO_LOW;
+		List<Player> playersWithBestLow = new ArrayList<Player>();
+		for (Player player : pot.getPlayers()) {
+			int low = player.getHand().getLowRank();
+			if (low == EightOrBetterEvaluator.NO_LOW || low < bestLow) {
+				continue;
+			}
+			if (low > bestLow) {
+				playersWithBestLow.clear();
+				bestLow = low;
+			}
+			playersWithBestLow.add(player);
+		}
+		return playersWithBestLow;
+	}
+
+	/**
+	 * Splits an amount evenly between winners and adds the resulting message to
+	 * the propagatables.
+	 */
+	private void awardPot(float amount, List<Player> winners, List<Propagatable> propagatables) {
+		// distribute funds to winner(s)
+		float perPlayerWinnings = amount / winners.size(); // split pot between winners
+		for (Player player : winners) {
+			System.out.println("Player with id: " + player.getId() + " has won winnings: " + perPlayerWinnings);
+			player.increaseBalance(perPlayerWinnings);
+			ledger.updateEntry(player.getId(), perPlayerWinnings);
+		}
+
+		// propagating updates
+		propagatables.add(new Propagatable(
+				new Action.ActionBuilder(ActionType.POT_WON)
+				.withPlayerIds(winners.stream().map(player -> player.getId()).collect(Collectors.toList()))
+				.withValue(amount)
+				.build()));
+	}
+
 	/* Reset Methods */
 
 	/**
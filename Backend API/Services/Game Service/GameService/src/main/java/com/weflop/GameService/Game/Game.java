@@ -1,5 +1,9 @@
 package com.weflop.GameService.Game;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.web.socket.WebSocketSession;
+
 import com.weflop.GameService.REST.GameMetadata;
 
 public interface Game {
@@ -7,6 +11,8 @@ public interface Game {
 
 	public void performAction(Action action) throws Exception; // performs an action as a given player
 
+	public void resynchronize(String playerId, WebSocketSession session, int lastEpoch) throws Exception; // resends what a player missed since an epoch
+
 	public GameMetadata getGameMetadata(); // gets game metadata that is exposed through REST controller
 	
 	public boolean archive(String userId);
@@ -15,5 +21,11 @@ public interface Game {
 	
 	public void removeFromReplica(); // removes game from replica
 
+	public boolean flushToDatabase(); // saves game state, false if it could not be saved
+
+	public CompletableFuture<Boolean> saveToDatabase(); // queues a save of game state, completed with false if it could not be saved
+
+	public long getWeight(); // estimated bytes retained by the game
+
 	public void unsubscribePlayer(String userId); // game will no longer show up in player games list
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.weflop.GameService.Game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * GameCache.java
+ *
+ * Games on this replica, by id, along with when each was last looked up.
+ * Evictions are picked among games nobody is sitting at or watching (see
+ * Game.canBeRemovedFromReplica): every such game left idle for longer than the
+ * idle time, then, while the estimated weight of the games kept exceeds the
+ * budget, the least recently used ones. Evicted games are loaded again from
+ * the database on their next access.
+ *
+ * @author abrevnov
+ *
+ */
+public class GameCache {
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	private final long idleNanos;
+	private final long maxWeight;
+	private final LongSupplier clock; // in nanoseconds
+
+	private volatile long weight; // estimated weight of the games, as of the last selection
+
+	public GameCache(long idleTime, TimeUnit unit, long maxWeight) {
+		this(idleTime, unit, maxWeight, System::nanoTime);
+	}
+
+	GameCache(long idleTime, TimeUnit unit, long maxWeight, LongSupplier clock) {
+		this.idleNanos = unit.toNanos(idleTime);
+		this.maxWeight = maxWeight;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The game, null if it is not on this replica
+	 */
+	public Game get(String gameId) {
+		Entry entry = entries.get(gameId);
+		if (entry == null) {
+			return null;
+		}
+		entry.lastAccess = clock.getAsLong();
+		return entry.game;
+	}
+
+	/**
+	 * @return The game without counting it as an access, null if it is not on
+	 *         this replica
+	 */
+	public Game peek(String gameId) {
+		Entry entry = entries.get(gameId);
+		return entry != null ? entry.game : null;
+	}
+
+	public Game put(String gameId, Game game) {
+		Entry previous = entries.put(gameId, new Entry(game, clock.getAsLong()));
+		return previous != null ? previous.game : null;
+	}
+
+	public Game remove(String gameId) {
+		Entry removed = entries.remove(gameId);
+		return removed != null ? removed.game : null;
+	}
+
+	public Collection<Game> values() {
+		return entries.values().stream().map(entry -> entry.game).collect(Collectors.toList());
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return Estimated weight of the games, as of the last call to
+	 *         selectEvictions
+	 */
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Picks the games to evict, asking each game whether it can be removed and
+	 * for its weight (both wait on its mailbox).
+	 *
+	 * @return Ids of the games to evict, least recently used first
+	 */
+	public List<String> selectEvictions() {
+		long now = clock.getAsLong();
+
+		List<Candidate> candidates = new ArrayList<Candidate>();
+		long total = 0;
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			Game game = entry.getValue().game;
+			Candidate candidate = new Candidate(entry.getKey(), entry.getValue().lastAccess, game.getWeight(),
+					game.canBeRemovedFromReplica());
+			candidates.add(candidate);
+			total += candidate.weight;
+		}
+		weight = total;
+		candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+		List<String> evictions = new ArrayList<String>();
+		for (Candidate candidate : candidates) {
+			if (candidate.removable && (now - candidate.lastAccess > idleNanos || total > maxWeight)) {
+				evictions.add(candidate.gameId);
+				total -= candidate.weight;
+			}
+		}
+		return evictions;
+	}
+
+	private static final class Entry {
+
+		private final Game game;
+		private volatile long lastAccess;
+
+		private Entry(Game game, long lastAccess) {
+			this.game = game;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static final class Candidate {
+
+		private final String gameId;
+		private final long lastAccess;
+		private final long weight;
+		private final boolean removable;
+
+		private Candidate(String gameId, long lastAccess, long weight, boolean removable) {
+			this.gameId = gameId;
+			this.lastAccess = lastAccess;
+			this.weight = weight;
+			this.removable = removable;
+		}
+	}
+}
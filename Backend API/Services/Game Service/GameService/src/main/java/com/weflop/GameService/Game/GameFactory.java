@@ -1,12 +1,22 @@
 package com.weflop.GameService.Game;
 
+import java.util.Random;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+import com.weflop.Cards.Deck;
+import com.weflop.Cards.ShortDeck;
+import com.weflop.Cards.StandardDeck;
+import com.weflop.Evaluation.HandRankEvaluator;
+import com.weflop.Evaluation.HandRankEvaluators;
+import com.weflop.Evaluation.Omaha.OmahaHandEvaluator;
+import com.weflop.Evaluation.ShortDeck.ShortDeckHandEvaluator;
 import com.weflop.GameService.Database.GameRepository;
 import com.weflop.GameService.Database.DomainObjects.GameDocument;
 import com.weflop.GameService.Game.BasicPokerGame.BasicPokerGame;
+import com.weflop.GameService.Game.BasicPokerGame.PokerVariants;
+import com.weflop.GameService.Game.BasicPokerGame.VariantRepresentation;
 
 /**
  * Factory generates instances of Games.
@@ -27,9 +37,22 @@ public class GameFactory {
 	 */
 	public String generateStandardPokerGame(String name, float smallBlind, int minBuyInBB,
 											int maxBuyInBB, String createdBy, int timeBank) {
+		return generatePokerGame(GameType.STANDARD_REPRESENTATION, name, smallBlind, minBuyInBB, maxBuyInBB,
+				createdBy, timeBank);
+	}
+	
+	/**
+	 * Creates a poker game of the given type and adds game to map of id's to games.
+	 * 
+	 * @return Id of newly created game
+	 */
+	public String generatePokerGame(GameType type, String name, float smallBlind, int minBuyInBB,
+											int maxBuyInBB, String createdBy, int timeBank) {
 		GameCustomMetadata metadata = new GameCustomMetadata(name, smallBlind,
 				minBuyInBB, maxBuyInBB, createdBy, timeBank);
-		Game game = new BasicPokerGame(repository, metadata, new TwoPlusTwoHandEvaluator());
+		metadata.setType(type);
+		Game game = new BasicPokerGame(repository, metadata, getVariant(type), getDeck(type),
+				getEvaluator(type));
 		GameManager.ID_TO_GAME.put(game.getGameId(), game);
 		return game.getGameId();
 	}
@@ -40,14 +63,62 @@ public class GameFactory {
 	 * @return Corresponding poker game instance
 	 */
 	public Game fromDocument(GameDocument document) {
-		switch(GameType.fromValue(document.getType())) {
-			case STANDARD_REPRESENTATION: {
-				Game game = new BasicPokerGame(repository, document, new TwoPlusTwoHandEvaluator());
-				GameManager.ID_TO_GAME.put(game.getGameId(), game);
-				return game;
-			}
+		GameType type = GameType.fromValue(document.getType());
+		Game game = new BasicPokerGame(repository, document, getVariant(type), getDeck(type),
+				getEvaluator(type));
+		GameManager.ID_TO_GAME.put(game.getGameId(), game);
+		return game;
+	}
+	
+	/**
+	 * Returns the game with the given id, loading it from its document if it is not on this replica
+	 * (see GameManager.getOrLoad).
+	 * 
+	 * @return Corresponding poker game instance, null if no game has the id
+	 */
+	public Game load(String gameId) {
+		return GameManager.getOrLoad(gameId, id -> repository.findById(id).map(this::fromDocument).orElse(null));
+	}
+	
+	public static VariantRepresentation getVariant(GameType type) {
+		switch (type) {
+			case STANDARD_REPRESENTATION:
+				return PokerVariants.getStandardHoldem();
+			case OMAHA:
+				return PokerVariants.getOmaha();
+			case OMAHA_HI_LO:
+				return PokerVariants.getOmahaHiLo();
+			case SHORT_DECK:
+				return PokerVariants.getShortDeckHoldem();
+		}
+		
+		throw new RuntimeException("Invalid game type: " + type);
+	}
+	
+	public static Deck getDeck(GameType type) {
+		return getDeck(type, new Random());
+	}
+	
+	/**
+	 * Deck of the given game type shuffled by the given source (seeded by the
+	 * simulator to replay runs).
+	 */
+	public static Deck getDeck(GameType type, Random random) {
+		return type == GameType.SHORT_DECK ? new ShortDeck(random) : new StandardDeck(random);
+	}
+	
+	public static HandRankEvaluator getEvaluator(GameType type) {
+		switch (type) {
+			case STANDARD_REPRESENTATION:
+				return HandRankEvaluators.getDefault();
+			case OMAHA:
+			case OMAHA_HI_LO:
+				return new OmahaHandEvaluator(HandRankEvaluators.getDefault(),
+						PokerVariants.getOmaha().getNumDealt());
+			case SHORT_DECK:
+				return ShortDeckHandEvaluator.getInstance();
 		}
 		
-		throw new RuntimeException("Invalid game document");
+		throw new RuntimeException("Invalid game type: " + type);
 	}
 }
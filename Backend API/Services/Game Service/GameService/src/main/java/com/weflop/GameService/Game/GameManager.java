@@ -1,60 +1,193 @@
 package com.weflop.GameService.Game;
 
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.weflop.Utils.ThreadExecution.HandlerExecutor;
+import com.weflop.Utils.ThreadExecution.KeyedSerialExecutor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public class GameManager {
 	
+	private static final long IDLE_MINUTES = Long.getLong("weflop.games.idle.minutes", 10);
+
+	private static final long MAX_WEIGHT = Long.getLong("weflop.games.max.megabytes", 512) << 20; // in bytes
+
+	/**
+	 * Globally accessible map from game id's to game instances, evicting idle games (see GameCache).
+	 */
+	public static GameCache ID_TO_GAME = new GameCache(IDLE_MINUTES, TimeUnit.MINUTES, MAX_WEIGHT);
+
 	/**
-	 * Globally accessible map from game id's to game instances.
+	 * Runs tasks of each game in order: the messages of its clients and the steps of its eviction, which
+	 * therefore never run while a message for the game is being handled. The handler executor runs
+	 * nothing else; writes to clients, loads from db and saves to db have their own threads, so none of
+	 * them can starve it.
 	 */
-	public static Map<String, Game> ID_TO_GAME = new ConcurrentHashMap<String, Game>();
+	public static final KeyedSerialExecutor GAME_TASKS = new KeyedSerialExecutor(HandlerExecutor.getInstance());
+
+	private static final int LOADER_THREADS = 4;
+
+	/**
+	 * Games being loaded from db, each by a single load that concurrent callers wait on.
+	 */
+	private static Map<String, CompletableFuture<Game>> loading = new ConcurrentHashMap<String, CompletableFuture<Game>>();
+
+	private static ThreadPoolExecutor loaders = newLoaderExecutor();
+
+	private static Timer loadTime = Metrics.timer("weflop.games.load");
+
+	private static Counter loadsJoined = Metrics.counter("weflop.games.load.deduplicated");
+
+	private static Counter evictions = Metrics.counter("weflop.games.evicted");
 	
 	private static ScheduledExecutorService threadExecutor = Executors.newSingleThreadScheduledExecutor();
+	
+	/**
+	 * Returns the game with the given id, loading it if it is not on this replica. The first caller
+	 * for a game starts its load on a loader thread; every caller, including those arriving while
+	 * it runs, waits for that same load, so a game is only ever constructed once.
+	 * 
+	 * @param loader Loads the game and adds it to ID_TO_GAME, returns null if it does not exist
+	 * @return The game, null if it does not exist
+	 * @throws IllegalStateException If the load failed (the next call retries it)
+	 */
+	public static Game getOrLoad(String gameId, Function<String, Game> loader) {
+		Game game = ID_TO_GAME.get(gameId);
+		if (game != null) {
+			return game;
+		}
+
+		boolean[] started = new boolean[1];
+		CompletableFuture<Game> load = loading.computeIfAbsent(gameId, id -> {
+			started[0] = true;
+			return CompletableFuture.supplyAsync(() -> load(id, loader), loaders);
+		});
+		if (started[0]) {
+			load.whenComplete((loaded, e) -> loading.remove(gameId, load));
+		} else {
+			loadsJoined.increment();
+		}
+		return await(gameId, load);
+	}
+
+	/**
+	 * Returns the game with the given id if it is on this replica, waiting for it if it is being
+	 * loaded, without starting a load.
+	 * 
+	 * @return The game, null if it is neither loaded nor being loaded
+	 */
+	public static Game getLoaded(String gameId) {
+		Game game = ID_TO_GAME.get(gameId);
+		if (game != null) {
+			return game;
+		}
+
+		CompletableFuture<Game> load = loading.get(gameId);
+		return load != null ? await(gameId, load) : ID_TO_GAME.get(gameId);
+	}
+
+	private static Game load(String gameId, Function<String, Game> loader) {
+		// the previous load may have completed between the caller's lookup and this one starting
+		Game game = ID_TO_GAME.get(gameId);
+		if (game != null) {
+			return game;
+		}
+
+		System.out.printf("Loading game (id: %s) from db...\n", gameId);
+		return loadTime.record(() -> loader.apply(gameId));
+	}
 
-	private static Set<String> gamesReadyForCollection = new HashSet<String>();
+	private static Game await(String gameId, CompletableFuture<Game> load) {
+		try {
+			return load.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading game: " + gameId, e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not load game: " + gameId, e.getCause());
+		}
+	}
+
+	private static ThreadPoolExecutor newLoaderExecutor() {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(LOADER_THREADS, LOADER_THREADS, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(runnable, "game-loader-" + count.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
 	
 	/**
-	 * Spawns a thread that performs garbage collection on inactive games (i.e. removes games with no players
+	 * Spawns a thread that performs garbage collection on inactive games (i.e. evicts games with no players
 	 * from replica...these games will need to be loaded from db on next attempt).
 	 */
 	public static void spawnGarbageCollectorThread() {
-		Runnable garbageCollector = new Runnable() {
-			@Override
-			public void run() {
-				garbageCollectGames();
-			}
-		};
+		Metrics.gauge("weflop.games.resident", ID_TO_GAME, GameCache::size);
+		Metrics.gauge("weflop.games.weight", ID_TO_GAME, GameCache::getWeight);
 
 		System.out.println("Spawning garbage collection thread...");
 
-		// resent packets after the duration of the turn has passed
-		// threadExecutor.scheduleAtFixedRate(garbageCollector, 3, 3, TimeUnit.MINUTES);
+		threadExecutor.scheduleAtFixedRate(GameManager::garbageCollectGames, 1, 1, TimeUnit.MINUTES);
 	}
 	
 	/**
 	 * Performs game garbage collection (called by parent thread and should be executed on timer).
 	 */
 	private static void garbageCollectGames() {
-		System.out.println("Garbage collection called...");
-		System.out.println(ID_TO_GAME.values());
-		for (Game game : ID_TO_GAME.values()) {
-			if (game.canBeRemovedFromReplica() && gamesReadyForCollection.contains(game.getGameId())) {
-				System.out.printf("Removing game (id: %s) from replica...\n", game.getGameId());
-				game.removeFromReplica();
-				gamesReadyForCollection.remove(game.getGameId());
-			} else if (game.canBeRemovedFromReplica()) {
-				System.out.printf("Adding game (id: %s) to collection queue...\n", game.getGameId());
-				gamesReadyForCollection.add(game.getGameId());
-			} else {
-				gamesReadyForCollection.remove(game.getGameId());
+		try {
+			for (String gameId : ID_TO_GAME.selectEvictions()) {
+				GAME_TASKS.execute(gameId, () -> evict(gameId));
 			}
+		} catch (RuntimeException e) {
+			e.printStackTrace(); // an exception would cancel the collection for good
 		}
 	}
+
+	/**
+	 * Saves a game to the database and, once saved, removes it from the replica, unless somebody joined
+	 * it since it was picked or it could not be saved. The save runs on the database threads, so the
+	 * handler thread is not held by it.
+	 */
+	static void evict(String gameId) {
+		Game game = ID_TO_GAME.peek(gameId);
+		if (game == null || !game.canBeRemovedFromReplica()) {
+			return;
+		}
+
+		game.saveToDatabase().thenAccept(saved -> {
+			if (saved) {
+				GAME_TASKS.execute(gameId, () -> removeSavedGame(gameId, game));
+			}
+		});
+	}
+
+	/**
+	 * Removes a game saved for eviction from the replica, unless somebody joined it in the meantime.
+	 */
+	private static void removeSavedGame(String gameId, Game game) {
+		if (ID_TO_GAME.peek(gameId) != game || !game.canBeRemovedFromReplica()) {
+			return;
+		}
+
+		System.out.printf("Evicting game (id: %s) from replica...\n", gameId);
+		game.removeFromReplica();
+		evictions.increment();
+	}
 	
 }
@@ -7,7 +7,10 @@ package com.weflop.GameService.Game;
  *
  */
 public enum GameType {
-	STANDARD_REPRESENTATION("STANDARD_REPRESENTATION");
+	STANDARD_REPRESENTATION("STANDARD_REPRESENTATION"),
+	OMAHA("OMAHA"),
+	OMAHA_HI_LO("OMAHA_HI_LO"),
+	SHORT_DECK("SHORT_DECK");
 
 	private final String value;
 
@@ -5,6 +5,9 @@ package com.weflop.GameService.Game;
  * 
  * Denotes possible states a player in a game can occupy.
  * 
+ * The binary protocol sends states as their ordinal, so new states are added at
+ * the end.
+ * 
  * @author abrevnov
  *
  */
@@ -0,0 +1,121 @@
+package com.weflop.GameService.Game.Simulation;
+
+import java.util.Random;
+
+import com.weflop.GameService.Game.Action;
+import com.weflop.GameService.Game.ActionType;
+
+/**
+ * BotStrategy.java
+ *
+ * Scripted players for the table simulator. Every strategy only returns
+ * actions that are legal for the turn it is given, so any rejected action
+ * points at the engine.
+ *
+ * @author abrevnov
+ *
+ */
+public enum BotStrategy {
+	/**
+	 * Checks or calls every bet.
+	 */
+	CALLING_STATION("CALLING_STATION") {
+		@Override
+		public Action act(BotTurn turn, Random random) {
+			return checkOrCall(turn);
+		}
+	},
+
+	/**
+	 * Folds to most bets and otherwise checks or calls.
+	 */
+	TIGHT("TIGHT") {
+		@Override
+		public Action act(BotTurn turn, Random random) {
+			if (!turn.canCheck() && random.nextInt(100) < 70) {
+				return action(ActionType.FOLD, turn);
+			}
+			return checkOrCall(turn);
+		}
+	},
+
+	/**
+	 * Raises the minimum whenever possible and occasionally moves all-in.
+	 */
+	AGGRESSIVE("AGGRESSIVE") {
+		@Override
+		public Action act(BotTurn turn, Random random) {
+			int roll = random.nextInt(100);
+			if (roll < 10) {
+				return action(ActionType.ALL_IN, turn);
+			}
+			if (roll < 70 && turn.canRaise()) {
+				return raise(turn);
+			}
+			return checkOrCall(turn);
+		}
+	},
+
+	/**
+	 * Picks between every kind of action, favoring checks and calls.
+	 */
+	RANDOM("RANDOM") {
+		@Override
+		public Action act(BotTurn turn, Random random) {
+			int roll = random.nextInt(100);
+			if (roll < 15 && !turn.canCheck()) {
+				return action(ActionType.FOLD, turn);
+			}
+			if (roll < 20) {
+				return action(ActionType.ALL_IN, turn);
+			}
+			if (roll < 45 && turn.canRaise()) {
+				return raise(turn);
+			}
+			return checkOrCall(turn);
+		}
+	};
+
+	private final String value;
+
+	BotStrategy(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * @return Action the bot takes on the given turn
+	 */
+	public abstract Action act(BotTurn turn, Random random);
+
+	public String toValue() {
+		return value;
+	}
+
+	public static BotStrategy fromValue(String value) {
+		if (value != null) {
+			for (BotStrategy strategy : values()) {
+				if (strategy.value.equals(value)) {
+					return strategy;
+				}
+			}
+		}
+
+		throw new IllegalArgumentException("Invalid bot strategy: " + value);
+	}
+
+	private static Action checkOrCall(BotTurn turn) {
+		if (turn.canCheck()) {
+			return action(ActionType.CHECK, turn);
+		}
+		return action(turn.mustGoAllInToCall() ? ActionType.ALL_IN : ActionType.CALL, turn);
+	}
+
+	private static Action raise(BotTurn turn) {
+		return new Action.ActionBuilder(ActionType.RAISE).withPlayerId(turn.getPlayerId())
+				.withValue(turn.getMinRaise()).build();
+	}
+
+	private static Action action(ActionType type, BotTurn turn) {
+		return new Action.ActionBuilder(type).withPlayerId(turn.getPlayerId()).build();
+	}
+}
@@ -0,0 +1,78 @@
+package com.weflop.GameService.Game.Simulation;
+
+import java.util.List;
+
+import com.weflop.Cards.Card;
+
+/**
+ * BotTurn.java
+ *
+ * What a simulated player sees when it is their turn: the amounts needed to
+ * call and to make the smallest legal raise, and the cards they can use.
+ *
+ * @author abrevnov
+ *
+ */
+public class BotTurn {
+
+	private final String playerId;
+	private final float toCall; // 0 if the player can check
+	private final float minRaise; // value of the smallest legal RAISE action
+	private final float balance;
+	private final List<Card> holeCards;
+	private final List<Card> centerCards;
+
+	public BotTurn(String playerId, float toCall, float minRaise, float balance, List<Card> holeCards,
+			List<Card> centerCards) {
+		this.playerId = playerId;
+		this.toCall = toCall;
+		this.minRaise = minRaise;
+		this.balance = balance;
+		this.holeCards = holeCards;
+		this.centerCards = centerCards;
+	}
+
+	public boolean canCheck() {
+		return toCall == 0.0f;
+	}
+
+	/**
+	 * @return Whether calling would take all of the player's chips
+	 */
+	public boolean mustGoAllInToCall() {
+		return toCall >= balance;
+	}
+
+	/**
+	 * @return Whether the player has chips left over after the smallest raise
+	 */
+	public boolean canRaise() {
+		return minRaise < balance;
+	}
+
+	/* Getters */
+
+	public String getPlayerId() {
+		return playerId;
+	}
+
+	public float getToCall() {
+		return toCall;
+	}
+
+	public float getMinRaise() {
+		return minRaise;
+	}
+
+	public float getBalance() {
+		return balance;
+	}
+
+	public List<Card> getHoleCards() {
+		return holeCards;
+	}
+
+	public List<Card> getCenterCards() {
+		return centerCards;
+	}
+}
@@ -0,0 +1,155 @@
+package com.weflop.GameService.Game.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.weflop.GameService.Database.GameRepository;
+import com.weflop.GameService.Database.DomainObjects.GameDocument;
+
+/**
+ * InMemoryGameRepository.java
+ *
+ * Stand-in for the Mongo repository used by simulated games. Saved documents
+ * are kept in a map (the last save of each game), so periodic flushes still
+ * serialize the game state but never leave the process. Query by example and
+ * paging are not supported.
+ *
+ * @author abrevnov
+ *
+ */
+public class InMemoryGameRepository implements GameRepository {
+
+	private final Map<String, GameDocument> documents = new ConcurrentHashMap<String, GameDocument>();
+
+	@Override
+	public <S extends GameDocument> S save(S document) {
+		documents.put(document.getId(), document);
+		return document;
+	}
+
+	@Override
+	public <S extends GameDocument> List<S> saveAll(Iterable<S> documents) {
+		List<S> saved = new ArrayList<S>();
+		for (S document : documents) {
+			saved.add(save(document));
+		}
+		return saved;
+	}
+
+	@Override
+	public <S extends GameDocument> S insert(S document) {
+		return save(document);
+	}
+
+	@Override
+	public <S extends GameDocument> List<S> insert(Iterable<S> documents) {
+		return saveAll(documents);
+	}
+
+	@Override
+	public Optional<GameDocument> findById(String id) {
+		return Optional.ofNullable(documents.get(id));
+	}
+
+	@Override
+	public boolean existsById(String id) {
+		return documents.containsKey(id);
+	}
+
+	@Override
+	public List<GameDocument> findAll() {
+		return new ArrayList<GameDocument>(documents.values());
+	}
+
+	@Override
+	public List<GameDocument> findAll(Sort sort) {
+		return findAll();
+	}
+
+	@Override
+	public Page<GameDocument> findAll(Pageable pageable) {
+		throw new UnsupportedOperationException("Paging is not supported in memory");
+	}
+
+	@Override
+	public List<GameDocument> findAllById(Iterable<String> ids) {
+		List<GameDocument> found = new ArrayList<GameDocument>();
+		for (String id : ids) {
+			findById(id).ifPresent(found::add);
+		}
+		return found;
+	}
+
+	@Override
+	public List<GameDocument> findBySubscribedPlayersContaining(String playerId, Sort sort) {
+		return documents.values().stream()
+				.filter(document -> document.getSubscribedPlayers().contains(playerId))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public long count() {
+		return documents.size();
+	}
+
+	@Override
+	public void deleteById(String id) {
+		documents.remove(id);
+	}
+
+	@Override
+	public void delete(GameDocument document) {
+		documents.remove(document.getId());
+	}
+
+	@Override
+	public void deleteAll(Iterable<? extends GameDocument> documents) {
+		for (GameDocument document : documents) {
+			delete(document);
+		}
+	}
+
+	@Override
+	public void deleteAll() {
+		documents.clear();
+	}
+
+	@Override
+	public <S extends GameDocument> Optional<S> findOne(Example<S> example) {
+		throw new UnsupportedOperationException("Query by example is not supported in memory");
+	}
+
+	@Override
+	public <S extends GameDocument> List<S> findAll(Example<S> example) {
+		throw new UnsupportedOperationException("Query by example is not supported in memory");
+	}
+
+	@Override
+	public <S extends GameDocument> List<S> findAll(Example<S> example, Sort sort) {
+		throw new UnsupportedOperationException("Query by example is not supported in memory");
+	}
+
+	@Override
+	public <S extends GameDocument> Page<S> findAll(Example<S> example, Pageable pageable) {
+		throw new UnsupportedOperationException("Query by example is not supported in memory");
+	}
+
+	@Override
+	public <S extends GameDocument> long count(Example<S> example) {
+		throw new UnsupportedOperationException("Query by example is not supported in memory");
+	}
+
+	@Override
+	public <S extends GameDocument> boolean exists(Example<S> example) {
+		throw new UnsupportedOperationException("Query by example is not supported in memory");
+	}
+}
@@ -0,0 +1,54 @@
+package com.weflop.GameService.Game.Simulation;
+
+/**
+ * LatencyHistogram.java
+ *
+ * Counts latencies in one microsecond buckets up to {@value #MAX_MICROS} us,
+ * with slower samples sharing a final bucket. Recording never allocates, so it
+ * does not disturb the allocation figures measured around it.
+ *
+ * @author abrevnov
+ *
+ */
+public class LatencyHistogram {
+
+	public static final int MAX_MICROS = 100000;
+
+	private final long[] counts = new long[MAX_MICROS + 1];
+
+	private long total;
+
+	private long maxNanos;
+
+	public void record(long nanos) {
+		counts[(int) Math.min(nanos / 1000, MAX_MICROS)]++;
+		total++;
+		maxNanos = Math.max(maxNanos, nanos);
+	}
+
+	/**
+	 * @param percentile
+	 *            Between 0 and 100
+	 * @return Smallest latency in microseconds at or above the given share of
+	 *         samples ({@value #MAX_MICROS} if it falls in the final bucket)
+	 */
+	public long getPercentileMicros(double percentile) {
+		long rank = (long) Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+		for (int micros = 0; micros < counts.length; micros++) {
+			seen += counts[micros];
+			if (seen >= rank && seen > 0) {
+				return micros;
+			}
+		}
+		return 0;
+	}
+
+	public long getCount() {
+		return total;
+	}
+
+	public long getMaxMicros() {
+		return maxNanos / 1000;
+	}
+}
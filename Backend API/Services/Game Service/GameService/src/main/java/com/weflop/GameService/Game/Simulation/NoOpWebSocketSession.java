@@ -0,0 +1,145 @@
+package com.weflop.GameService.Game.Simulation;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * NoOpWebSocketSession.java
+ *
+ * Session of a simulated player. It is always open and drops every message,
+ * counting them so the simulator can report the outgoing traffic of a hand.
+ * Only written from the thread running the game.
+ *
+ * @author abrevnov
+ *
+ */
+public class NoOpWebSocketSession implements WebSocketSession {
+
+	private final String id;
+
+	private final String acceptedProtocol;
+
+	private final Map<String, Object> attributes = new HashMap<String, Object>();
+
+	private long messagesSent;
+
+	private long bytesSent;
+
+	public NoOpWebSocketSession(String id) {
+		this(id, null);
+	}
+
+	/**
+	 * @param acceptedProtocol Sub-protocol the client negotiated, null for JSON
+	 */
+	public NoOpWebSocketSession(String id, String acceptedProtocol) {
+		this.id = id;
+		this.acceptedProtocol = acceptedProtocol;
+	}
+
+	@Override
+	public void sendMessage(WebSocketMessage<?> message) {
+		messagesSent++;
+		// our text messages are ASCII JSON; getPayloadLength() would encode each one again
+		bytesSent += message instanceof TextMessage ? ((TextMessage) message).getPayload().length()
+				: message.getPayloadLength();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return true;
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void close(CloseStatus status) {
+	}
+
+	@Override
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public URI getUri() {
+		return null;
+	}
+
+	@Override
+	public HttpHeaders getHandshakeHeaders() {
+		return HttpHeaders.EMPTY;
+	}
+
+	@Override
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public Principal getPrincipal() {
+		return null;
+	}
+
+	@Override
+	public InetSocketAddress getLocalAddress() {
+		return null;
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return null;
+	}
+
+	@Override
+	public String getAcceptedProtocol() {
+		return acceptedProtocol;
+	}
+
+	@Override
+	public void setTextMessageSizeLimit(int messageSizeLimit) {
+	}
+
+	@Override
+	public int getTextMessageSizeLimit() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+	}
+
+	@Override
+	public int getBinaryMessageSizeLimit() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public List<WebSocketExtension> getExtensions() {
+		return Collections.emptyList();
+	}
+
+	/* Getters */
+
+	public long getMessagesSent() {
+		return messagesSent;
+	}
+
+	public long getBytesSent() {
+		return bytesSent;
+	}
+}
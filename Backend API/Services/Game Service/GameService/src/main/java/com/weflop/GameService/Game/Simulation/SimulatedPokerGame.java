@@ -0,0 +1,122 @@
+package com.weflop.GameService.Game.Simulation;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import com.weflop.GameService.Database.GameRepository;
+import com.weflop.GameService.Game.BetController;
+import com.weflop.GameService.Game.GameCustomMetadata;
+import com.weflop.GameService.Game.GameFactory;
+import com.weflop.GameService.Game.Player;
+import com.weflop.GameService.Game.PlayerState;
+import com.weflop.GameService.Game.Turn;
+import com.weflop.GameService.Game.BasicPokerGame.BasicPokerGame;
+
+/**
+ * SimulatedPokerGame.java
+ *
+ * Poker game driven by the table simulator. It plays exactly like the game it
+ * extends except for its clocks: bots act as soon as it is their turn, so no
+ * turn timers are scheduled, and hands end without waiting for players to
+ * decide whether to muck. Between hands, bots under the minimum buy-in top off
+ * to the maximum so the table keeps going.
+ *
+ * @author abrevnov
+ *
+ */
+public class SimulatedPokerGame extends BasicPokerGame {
+
+	private volatile int handsStarted; // read by the simulator without going through the mailbox
+
+	public SimulatedPokerGame(GameRepository repository, GameCustomMetadata metadata, Random random) {
+		super(repository, metadata, GameFactory.getVariant(metadata.getType()),
+				GameFactory.getDeck(metadata.getType(), random), GameFactory.getEvaluator(metadata.getType()));
+	}
+
+	/**
+	 * Player whose turn it is, along with what they need to act. Null if the game
+	 * is not waiting on any player, which while the game is started means the
+	 * table is stuck.
+	 */
+	public BotTurn getPendingTurn() {
+		return getMailbox().get(this::pendingTurn);
+	}
+
+	private BotTurn pendingTurn() {
+		Turn turn = getTurn();
+		if (!isStarted() || turn == null || turn.getPlayer().getState() != PlayerState.CURRENT_TURN) {
+			return null;
+		}
+
+		Player player = turn.getPlayer();
+		BetController betController = getBetController();
+		float raise = Math.max(betController.getLastRaise(), betController.getBigBlind());
+		return new BotTurn(player.getId(), betController.getRoundBet() - player.getRoundBet(),
+				betController.getRoundBet() + raise, player.getBalance(),
+				new ArrayList<>(player.getHand().getCards()), new ArrayList<>(getBoard().getCards()));
+	}
+
+	public boolean isRunning() {
+		return getMailbox().get(this::isStarted);
+	}
+
+	/**
+	 * @return State of the seated player or spectator with the given id, null if
+	 *         they are not at the table
+	 */
+	public PlayerState getPlayerState(String playerId) {
+		return getMailbox().get(() -> {
+			Player player = getGroup().getParticipantById(playerId);
+			return player != null ? player.getState() : null;
+		});
+	}
+
+	public int getHandsStarted() {
+		return handsStarted;
+	}
+
+	/**
+	 * Prints the game state (e.g. once a table is stuck).
+	 */
+	public void dumpGameState() {
+		getMailbox().get(() -> {
+			printGameState();
+			return null;
+		});
+	}
+
+	/**
+	 * @return Thread handling the game's messages, or null while it is idle
+	 */
+	public Thread getTableThread() {
+		return getMailbox().getOwner();
+	}
+
+	@Override
+	protected void beginBettingRounds() {
+		handsStarted++;
+		super.beginBettingRounds();
+	}
+
+	@Override
+	protected void beginTurnTimer() {
+		// bots act at once and never time out
+	}
+
+	@Override
+	protected void initiateMucking() {
+		setMuckDecisionTime(0);
+		continueEndingHandAfterMuck();
+	}
+
+	@Override
+	protected void continueEndingHandAfterMuck() {
+		GameCustomMetadata metadata = getMetadata();
+		for (Player player : getGroup().getPlayers()) {
+			if (player.getBalance() < metadata.getMinBuyIn()) {
+				getBetController().buyIn(player, metadata.getMaxBuyIn() - player.getBalance());
+			}
+		}
+		super.continueEndingHandAfterMuck();
+	}
+}
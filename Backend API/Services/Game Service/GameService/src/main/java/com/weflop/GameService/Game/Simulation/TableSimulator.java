@@ -0,0 +1,300 @@
+package com.weflop.GameService.Game.Simulation;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.util.Assert;
+
+import com.weflop.GameService.Game.Action;
+import com.weflop.GameService.Game.ActionType;
+import com.weflop.GameService.Game.GameCustomMetadata;
+import com.weflop.GameService.Game.GameType;
+
+/**
+ * TableSimulator.java
+ *
+ * Plays hands at a single table as fast as possible with scripted bots, without
+ * any WebSocket clients or database, and reports hands per second, the latency
+ * of {@link SimulatedPokerGame#performAction(Action)} and the memory allocated
+ * per hand. Bots top off between hands and sit back in if the game stops, so
+ * the table keeps going until it is done or stuck.
+ *
+ * Arguments (all optional): number of hands, game type, comma separated bot
+ * strategies (one per seat) and a seed. The seed fixes both the bots and the
+ * deals, so a stuck table can be replayed. For example:
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.weflop.GameService.Game.Simulation.TableSimulator \
+ *     -Dexec.args="1000000 OMAHA RANDOM,AGGRESSIVE,TIGHT,CALLING_STATION 7"
+ * </pre>
+ *
+ * The game logs are discarded unless {@value #VERBOSE_PROPERTY} is true; they
+ * are still formatted, which is part of what is measured.
+ *
+ * @author abrevnov
+ *
+ */
+public class TableSimulator {
+
+	public static final String VERBOSE_PROPERTY = "weflop.simulator.verbose";
+
+	private static final String DEFAULT_STRATEGIES = "RANDOM,AGGRESSIVE,CALLING_STATION,TIGHT,RANDOM,RANDOM";
+
+	private static final int MAX_ACTIONS_PER_HAND = 1000; // far more than any hand needs
+
+	private static final long MAX_ACTION_MILLIS = 10000; // a single action taking longer is stuck
+
+	private final GameCustomMetadata metadata;
+
+	private final SimulatedPokerGame game;
+
+	private final List<BotStrategy> strategies;
+
+	private final List<NoOpWebSocketSession> sessions = new ArrayList<NoOpWebSocketSession>();
+
+	private final Random random; // drives the bots
+
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	private long rejectedActions;
+
+	private volatile long actionStart; // System.nanoTime() when the current action began, 0 between actions
+
+	public TableSimulator(GameType type, List<BotStrategy> strategies, long seed) {
+		this.metadata = new GameCustomMetadata("simulation", 1.0f, 50, 200, playerId(0), 30);
+		this.metadata.setType(type);
+		Assert.isTrue(strategies.size() >= 2 && strategies.size() <= metadata.getTableSize(),
+				"Between 2 and " + metadata.getTableSize() + " bots can play at a table");
+
+		this.strategies = strategies;
+		this.random = new Random(seed);
+		this.game = new SimulatedPokerGame(new InMemoryGameRepository(), metadata, new Random(seed + 1));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int hands = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		GameType type = args.length > 1 ? GameType.fromValue(args[1]) : GameType.STANDARD_REPRESENTATION;
+		List<BotStrategy> strategies = new ArrayList<BotStrategy>();
+		for (String strategy : (args.length > 2 ? args[2] : DEFAULT_STRATEGIES).split(",")) {
+			strategies.add(BotStrategy.fromValue(strategy));
+		}
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+		PrintStream out = System.out;
+		if (!Boolean.getBoolean(VERBOSE_PROPERTY)) {
+			System.setOut(new PrintStream(new OutputStream() {
+				@Override
+				public void write(int b) {
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+				}
+			}));
+		}
+
+		TableSimulator simulator = new TableSimulator(type, strategies, seed);
+		try {
+			out.printf("Simulating %d hands of %s with %s (seed %d)\n", hands, type.toValue(), strategies, seed);
+			simulator.run(hands, out);
+		} catch (IllegalStateException e) {
+			System.setOut(out);
+			simulator.game.dumpGameState();
+			throw e;
+		} finally {
+			System.setOut(out);
+			simulator.shutdown();
+		}
+	}
+
+	/**
+	 * Seats the bots and plays the given number of hands, after a tenth as many
+	 * (at most 10,000) warm-up hands that are not measured.
+	 *
+	 * @param out
+	 *            Stream the report is printed to
+	 * @throws IllegalStateException
+	 *             If the table gets stuck: no bot can act but the game has not
+	 *             ended, or it cannot be restarted
+	 */
+	public void run(int hands, PrintStream out) throws Exception {
+		startWatchdog(Thread.currentThread(), out);
+
+		for (int seat = 0; seat < strategies.size(); seat++) {
+			NoOpWebSocketSession session = new NoOpWebSocketSession(playerId(seat));
+			sessions.add(session);
+			game.performAction(new Action.ActionBuilder(ActionType.JOIN).withPlayerId(playerId(seat))
+					.withSession(session).build());
+			game.performAction(new Action.ActionBuilder(ActionType.SIT).withPlayerId(playerId(seat))
+					.withSlot(seat).withValue(metadata.getMaxBuyIn()).build());
+		}
+
+		int warmup = Math.min(hands / 10, 10000);
+		play(warmup, false);
+
+		long allocatedBefore = allocatedBytes();
+		long messagesBefore = messagesSent();
+		long bytesBefore = bytesSent();
+		long start = System.nanoTime();
+
+		play(hands, true);
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		long allocated = allocatedBytes() - allocatedBefore;
+
+		out.printf("Played %d hands (after %d warm-up hands) in %.2f s: %.0f hands/s\n", hands, warmup, seconds,
+				hands / seconds);
+		out.printf("performAction: %d calls, p50 %d us, p99 %d us, max %d us, %d rejected\n", latencies.getCount(),
+				latencies.getPercentileMicros(50), latencies.getPercentileMicros(99), latencies.getMaxMicros(),
+				rejectedActions);
+		out.printf("Per hand: %s, %.1f messages, %.0f bytes sent\n",
+				allocatedBefore >= 0 ? (allocated / hands) + " bytes allocated" : "allocation unknown",
+				(messagesSent() - messagesBefore) / (double) hands, (bytesSent() - bytesBefore) / (double) hands);
+	}
+
+	/**
+	 * Stops the game's background threads.
+	 */
+	public void shutdown() {
+		game.removeFromReplica();
+	}
+
+	public long getRejectedActions() {
+		return rejectedActions;
+	}
+
+	/**
+	 * Plays until the given number of further hands have started, acting for
+	 * whichever bot has the turn and topping off busted bots between hands.
+	 */
+	private void play(int hands, boolean measured) throws Exception {
+		int target = game.getHandsStarted() + hands;
+		int lastHand = -1;
+		int actionsInHand = 0;
+		while (game.getHandsStarted() < target) {
+			if (game.getHandsStarted() != lastHand) {
+				lastHand = game.getHandsStarted();
+				actionsInHand = 0;
+			}
+			if (++actionsInHand > MAX_ACTIONS_PER_HAND) {
+				throw new IllegalStateException("Table stuck at hand " + lastHand + ": no progress after "
+						+ MAX_ACTIONS_PER_HAND + " actions");
+			}
+
+			BotTurn turn = game.getPendingTurn();
+			if (turn == null) {
+				if (game.isRunning() || !restart()) {
+					throw new IllegalStateException("Table stuck at hand " + game.getHandsStarted());
+				}
+				continue;
+			}
+
+			Action action = strategies.get(seatOf(turn.getPlayerId())).act(turn, random);
+			long start = System.nanoTime();
+			actionStart = start;
+			try {
+				game.performAction(action);
+			} catch (Exception e) {
+				// bots only choose legal actions, so this is an engine bug worth counting
+				rejectedActions++;
+				try {
+					game.performAction(
+							new Action.ActionBuilder(ActionType.FOLD).withPlayerId(turn.getPlayerId()).build());
+				} catch (Exception fold) {
+					throw new IllegalStateException("Table stuck at hand " + game.getHandsStarted() + ": "
+							+ action.getType() + " by " + turn.getPlayerId() + " failed with " + e, fold);
+				}
+			}
+			actionStart = 0;
+			if (measured) {
+				latencies.record(System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Watches for an action that never returns (e.g. the game looping inside a
+	 * message), printing where the table thread is stuck and exiting.
+	 */
+	private void startWatchdog(Thread driver, PrintStream out) {
+		Thread watchdog = new Thread(() -> {
+			while (driver.isAlive()) {
+				long start = actionStart;
+				if (start != 0 && System.nanoTime() - start > MAX_ACTION_MILLIS * 1000000) {
+					out.printf("Table stuck at hand %d: an action has not returned for %d ms\n",
+							game.getHandsStarted(), MAX_ACTION_MILLIS);
+					Thread table = game.getTableThread();
+					for (StackTraceElement element : (table != null ? table : driver).getStackTrace()) {
+						out.println("\tat " + element);
+					}
+					System.exit(1);
+				}
+				try {
+					Thread.sleep(1000);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}, "simulator-watchdog");
+		watchdog.setDaemon(true);
+		watchdog.start();
+	}
+
+	/**
+	 * Sits a bot back in after the game stopped for lack of players, which
+	 * restarts it once two or more are seated.
+	 *
+	 * @return Whether the game is running again
+	 */
+	private boolean restart() throws Exception {
+		game.performAction(new Action.ActionBuilder(ActionType.SIT_IN).withPlayerId(playerId(0))
+				.withEnabled(true).build());
+		return game.isRunning();
+	}
+
+	/**
+	 * @return Bytes allocated by all live threads (the game runs on the shared
+	 *         table threads, the bots on this one), or -1 if the JVM does not
+	 *         report it
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		long total = 0;
+		for (long bytes : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			total += Math.max(bytes, 0); // -1 for threads that ended meanwhile
+		}
+		return total;
+	}
+
+	private long messagesSent() {
+		long total = 0;
+		for (NoOpWebSocketSession session : sessions) {
+			total += session.getMessagesSent();
+		}
+		return total;
+	}
+
+	private long bytesSent() {
+		long total = 0;
+		for (NoOpWebSocketSession session : sessions) {
+			total += session.getBytesSent();
+		}
+		return total;
+	}
+
+	private static String playerId(int seat) {
+		return "bot" + seat;
+	}
+
+	private static int seatOf(String playerId) {
+		return Integer.parseInt(playerId.substring("bot".length()));
+	}
+}
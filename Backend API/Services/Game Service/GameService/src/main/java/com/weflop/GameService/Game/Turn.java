@@ -3,6 +3,7 @@ package com.weflop.GameService.Game;
 import java.time.Duration;
 
 import com.weflop.GameService.Database.DomainObjects.TurnPOJO;
+import com.weflop.Utils.ThreadExecution.HashedWheelTimer;
 
 /**
  * A Turn is a wrapper-object that contains information regarding the current
@@ -16,6 +17,7 @@ public class Turn {
 	private int count; // number of turns since game start
 	private Player player;
 	private long startTime; // value of system timer in nanoseconds at start
+	private HashedWheelTimer.Timeout expiration; // turn timer, cancelled when the turn advances
 
 	public Turn(Player player, long startTime) {
 		this.setPlayer(player);
@@ -31,11 +33,13 @@ public class Turn {
 	
 	/**
 	 * Takes in a player instance and increments the turn and sets the given
-	 * player to be the player associated with the turn. Updates turn time
+	 * player to be the player associated with the turn. Updates turn time and
+	 * cancels the timer of the previous turn.
 	 * @param player
 	 */
 	synchronized public 
 void nextTurn(Player player) {
+		this.cancelExpiration();
 		this.setPlayer(player);
 		this.setStartTime(System.nanoTime());
 		this.setCount(this.getCount() + 1);
@@ -50,6 +54,21 @@ void nextTurn(Player player) {
 		return new TurnPOJO(player.toPOJO(), this.getStartTime());
 	}
 
+	/**
+	 * Cancels the turn timer, if any, so a turn that has ended never expires.
+	 */
+	synchronized public void cancelExpiration() {
+		if (this.expiration != null) {
+			this.expiration.cancel();
+			this.expiration = null;
+		}
+	}
+
+	synchronized public void setExpiration(HashedWheelTimer.Timeout expiration) {
+		this.cancelExpiration();
+		this.expiration = expiration;
+	}
+
 	synchronized public Player getPlayer() {
 		return player;
 	}
@@ -3,14 +3,18 @@ package com.weflop.GameService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+import com.weflop.Evaluation.Equity.PreflopEquityTableGenerator;
+import com.weflop.Evaluation.HandRankEvaluators;
 import com.weflop.GameService.Game.GameManager;
 
 @SpringBootApplication
 public class GameServiceApplication {
 
 	public static void main(String[] args) {
-		TwoPlusTwoHandEvaluator.getInstance(); // preloading hand ranks
+		HandRankEvaluators.getDefault(); // preloading hand ranks
+		if (HandRankEvaluators.getIncremental() != null) {
+			PreflopEquityTableGenerator.generateInBackground(); // loading (or building) preflop equities
+		}
 		SpringApplication.run(GameServiceApplication.class, args);
 		
 		GameManager.spawnGarbageCollectorThread();
@@ -0,0 +1,345 @@
+package com.weflop.GameService.Networking;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import com.weflop.Cards.Card;
+import com.weflop.GameService.Game.Action;
+import com.weflop.GameService.Game.ActionType;
+import com.weflop.GameService.Game.PlayerState;
+
+/**
+ * BinaryProtocol.java
+ *
+ * Compact encoding of the messages exchanged with clients that negotiate the
+ * {@value #NAME} WebSocket sub-protocol. Clients that do not keep speaking
+ * JSON. Game states, sent on joins and resynchronizations only, stay JSON text
+ * frames for both.
+ *
+ * Every frame starts with the MessageType ordinal as a byte and the game id as
+ * 16 bytes. Numbers are varints (7 bits a byte, least significant first),
+ * signed ones zigzag encoded. Amounts are in hundredths of a chip,
+ * probabilities in hundredths of a percent. Cards are their ordinal as a byte
+ * and strings are their UTF-8 length followed by the bytes.
+ *
+ * ACTION: ActionType ordinal as a byte, epoch, then a mask of the fields
+ * present, which follow in the order of the FIELD_ bits. Players are written as
+ * their index (see PlayerIndexes) shifted left by one; an odd value is followed
+ * by the player's id, and unless its index is 0 introduces that index.
+ *
+ * SYNCHRONIZATION: epoch, milliseconds left in the turn.
+ *
+ * Clients send ACTION (user id, ActionType ordinal, mask of FIELD_VALUE,
+ * FIELD_SLOT and FIELD_ENABLED, then those fields) and RESYNC (user id,
+ * epoch). These are decoded into the Command JSON messages are parsed into.
+ *
+ * @author abrevnov
+ *
+ */
+public final class BinaryProtocol {
+
+	public static final String NAME = "weflop.binary.v1";
+
+	static final int FIELD_CARDS = 1;
+	static final int FIELD_PLAYERS = 1 << 1;
+	static final int FIELD_PARTICIPANT = 1 << 2;
+	static final int FIELD_VALUE = 1 << 3;
+	static final int FIELD_SLOT = 1 << 4;
+	static final int FIELD_POTS = 1 << 5;
+	static final int FIELD_LIMITED_PLAYERS = 1 << 6;
+	static final int FIELD_ENABLED = 1 << 7;
+	static final int FIELD_DURATION = 1 << 8;
+	static final int FIELD_EQUITIES = 1 << 9;
+
+	private static final int MAX_STRING_BYTES = 256;
+
+	private static final ThreadLocal<Output> OUTPUTS = ThreadLocal.withInitial(Output::new);
+
+	private BinaryProtocol() {
+	}
+
+	/**
+	 * @return Whether the session negotiated the binary protocol
+	 */
+	public static boolean isBinary(WebSocketSession session) {
+		return NAME.equals(session.getAcceptedProtocol());
+	}
+
+	/**
+	 * @param indexes Player indexes of the table, null if the frame is not sent
+	 *                to the whole group (players are then written as ids)
+	 * @return ACTION frame for the given action
+	 */
+	static byte[] encodeAction(String gameId, Action action, int epoch, PlayerIndexes indexes) {
+		Output out = OUTPUTS.get().reset();
+		out.writeByte(MessageType.ACTION.ordinal());
+		out.writeUuid(UUID.fromString(gameId));
+		out.writeByte(action.getType().ordinal());
+		out.writeVarint(epoch);
+
+		int fields = 0;
+		fields |= action.getCards() != null ? FIELD_CARDS : 0;
+		fields |= action.getPlayerIds() != null ? FIELD_PLAYERS : 0;
+		fields |= action.getPlayerId() != null ? FIELD_PARTICIPANT : 0;
+		fields |= action.getValue() != null ? FIELD_VALUE : 0;
+		fields |= action.getSlot() != null ? FIELD_SLOT : 0;
+		fields |= action.getPots() != null ? FIELD_POTS : 0;
+		fields |= action.getLimitedPlayers() != null ? FIELD_LIMITED_PLAYERS : 0;
+		fields |= action.getEnabled() != null ? FIELD_ENABLED : 0;
+		fields |= action.getDuration() != null ? FIELD_DURATION : 0;
+		fields |= action.getWinProbabilities() != null ? FIELD_EQUITIES : 0;
+		out.writeVarint(fields);
+
+		if (action.getCards() != null) {
+			out.writeVarint(action.getCards().size());
+			for (Card card : action.getCards()) {
+				out.writeByte(card.getOrdinal());
+			}
+		}
+
+		if (action.getPlayerIds() != null) {
+			out.writeVarint(action.getPlayerIds().size());
+			for (String playerId : action.getPlayerIds()) {
+				writePlayer(out, playerId, indexes);
+			}
+		}
+
+		if (action.getPlayerId() != null) {
+			writePlayer(out, action.getPlayerId(), indexes);
+		}
+
+		if (action.getValue() != null) {
+			out.writeAmount(action.getValue());
+		}
+
+		if (action.getSlot() != null) {
+			out.writeSignedVarint(action.getSlot());
+		}
+
+		if (action.getPots() != null) {
+			out.writeVarint(action.getPots().size());
+			for (Float pot : action.getPots()) {
+				out.writeAmount(pot);
+			}
+		}
+
+		if (action.getLimitedPlayers() != null) {
+			out.writeVarint(action.getLimitedPlayers().size());
+			for (LimitedPlayerPOJO player : action.getLimitedPlayers()) {
+				writePlayer(out, player.getId(), indexes);
+				out.writeAmount(player.getHandBalance());
+				out.writeAmount(player.getRoundBet());
+				out.writeByte(PlayerState.fromValue(player.getState()).ordinal());
+				out.writeSignedVarint(player.getSlot());
+				out.writeAmount(player.getBalance());
+			}
+		}
+
+		if (action.getEnabled() != null) {
+			out.writeByte(action.getEnabled() ? 1 : 0);
+		}
+
+		if (action.getDuration() != null) {
+			out.writeVarint(action.getDuration());
+		}
+
+		if (action.getWinProbabilities() != null) {
+			writeProbabilities(out, action.getWinProbabilities());
+			writeProbabilities(out, action.getTieProbabilities());
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * @return SYNCHRONIZATION frame
+	 */
+	static byte[] encodeSynchronization(String gameId, int epoch, long turnTimeRemaining) {
+		Output out = OUTPUTS.get().reset();
+		out.writeByte(MessageType.SYNCHRONIZATION.ordinal());
+		out.writeUuid(UUID.fromString(gameId));
+		out.writeVarint(epoch);
+		out.writeVarint(Math.max(0, turnTimeRemaining));
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes a message sent by a client.
+	 *
+	 * @throws IllegalArgumentException If the message is too large or malformed
+	 */
+	static Command decodeCommand(ByteBuffer buffer) {
+		if (buffer.remaining() > Command.MAX_MESSAGE_SIZE) {
+			throw new IllegalArgumentException("Message of " + buffer.remaining() + " bytes");
+		}
+
+		try {
+			Command command = new Command();
+			command.setType(MessageType.values()[buffer.get()]);
+			command.setGameId(new UUID(buffer.getLong(), buffer.getLong()).toString());
+			command.setUserId(readString(buffer));
+
+			switch (command.getType()) {
+			case ACTION: {
+				ActionType actionType = ActionType.values()[buffer.get()];
+				command.setActionType(actionType);
+
+				int fields = (int) readVarint(buffer);
+				if ((fields & FIELD_VALUE) != 0) {
+					// the field the handler reads for the action
+					float amount = readAmount(buffer);
+					if (actionType == ActionType.SIT) {
+						command.setBuyIn(amount);
+					} else if (actionType == ActionType.TOP_OFF) {
+						command.setAmount(amount);
+					} else {
+						command.setValue(amount);
+					}
+				}
+				if ((fields & FIELD_SLOT) != 0) {
+					command.setSlot((int) readSignedVarint(buffer));
+				}
+				if ((fields & FIELD_ENABLED) != 0) {
+					command.setEnabled(buffer.get() != 0);
+				}
+			}
+				break;
+			case RESYNC:
+				command.setEpoch((int) readVarint(buffer));
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported message type: " + command.getType());
+			}
+			return command;
+		} catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Malformed binary message", e);
+		}
+	}
+
+	private static void writePlayer(Output out, String playerId, PlayerIndexes indexes) {
+		int index = indexes != null ? indexes.indexOf(playerId) : 0;
+		if (index != 0) {
+			out.writeVarint(index << 1);
+			return;
+		}
+
+		if (indexes != null) {
+			index = indexes.add(playerId); // introduced to everyone by this frame
+		}
+		out.writeVarint(index << 1 | 1);
+		out.writeString(playerId);
+	}
+
+	private static void writeProbabilities(Output out, List<Float> probabilities) {
+		if (probabilities == null) {
+			out.writeVarint(0);
+			return;
+		}
+		out.writeVarint(probabilities.size());
+		for (Float probability : probabilities) {
+			out.writeVarint(Math.round(probability * 10000));
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = (int) readVarint(buffer);
+		if (length > MAX_STRING_BYTES) {
+			throw new IllegalArgumentException("String of " + length + " bytes");
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static float readAmount(ByteBuffer buffer) {
+		return readSignedVarint(buffer) / 100f;
+	}
+
+	private static long readSignedVarint(ByteBuffer buffer) {
+		long zigzag = readVarint(buffer);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	private static long readVarint(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Varint longer than 64 bits");
+	}
+
+	/**
+	 * Growable byte buffer, reused by each thread for the frames it encodes.
+	 */
+	private static final class Output {
+
+		private static final int MAX_RETAINED_BYTES = 64 * 1024;
+
+		private byte[] bytes = new byte[256];
+		private int length;
+
+		private Output reset() {
+			if (bytes.length > MAX_RETAINED_BYTES) {
+				bytes = new byte[256];
+			}
+			length = 0;
+			return this;
+		}
+
+		private void writeByte(int b) {
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, bytes.length * 2);
+			}
+			bytes[length++] = (byte) b;
+		}
+
+		private void writeVarint(long value) {
+			while ((value & ~0x7FL) != 0) {
+				writeByte((int) (value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			writeByte((int) value);
+		}
+
+		private void writeSignedVarint(long value) {
+			writeVarint((value << 1) ^ (value >> 63));
+		}
+
+		private void writeAmount(float amount) {
+			writeSignedVarint(Math.round((double) amount * 100));
+		}
+
+		private void writeUuid(UUID uuid) {
+			writeLong(uuid.getMostSignificantBits());
+			writeLong(uuid.getLeastSignificantBits());
+		}
+
+		private void writeLong(long value) {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				writeByte((int) (value >>> shift));
+			}
+		}
+
+		private void writeString(String string) {
+			byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+			writeVarint(utf8.length);
+			for (byte b : utf8) {
+				writeByte(b);
+			}
+		}
+
+		private byte[] toByteArray() {
+			return Arrays.copyOf(bytes, length);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.weflop.GameService.Networking;
+
+import com.weflop.GameService.Game.ActionType;
+
+/**
+ * Command.java
+ *
+ * Message received from a client, holding just the fields the handlers read.
+ * JSON messages are read straight into it (see CommandParser) rather than
+ * parsed into a Gson tree first, and binary ones are decoded into it (see
+ * BinaryProtocol).
+ *
+ * Commands are handed over to the thread handling their game, so each message
+ * gets its own; it is the only object kept from parsing.
+ *
+ * @author abrevnov
+ *
+ */
+public class Command {
+
+	public static final int MAX_MESSAGE_SIZE = 2048; // in chars for JSON, bytes for binary; commands are far smaller
+
+	private MessageType type;
+	private String gameId;
+
+	// payload
+	private ActionType actionType;
+	private String userId;
+	private Float value;
+	private Float buyIn;
+	private Float amount;
+	private Integer slot;
+	private Boolean enabled;
+	private Integer epoch;
+
+	Command() {
+	}
+
+	/**
+	 * Parses a JSON message, e.g. {"type":"ACTION","game_id":"...","payload":
+	 * {"type":"RAISE","user_id":"...","value":20}}. Fields the handlers do not
+	 * read are skipped.
+	 *
+	 * @throws IllegalArgumentException If the message is too large, malformed or
+	 *                                  misses its type, game id or payload
+	 */
+	public static Command fromJson(String message) {
+		if (message.length() > MAX_MESSAGE_SIZE) {
+			throw new IllegalArgumentException("Message of " + message.length() + " chars");
+		}
+		return CommandParser.parse(message);
+	}
+
+	private static <T> T require(T field, String name) {
+		if (field == null) {
+			throw new IllegalArgumentException("Message has no " + name);
+		}
+		return field;
+	}
+
+	/* Getters and Setters; getters of payload fields throw if the message has none */
+
+	public MessageType getType() {
+		return type;
+	}
+
+	void setType(MessageType type) {
+		this.type = type;
+	}
+
+	public String getGameId() {
+		return gameId;
+	}
+
+	void setGameId(String gameId) {
+		this.gameId = gameId;
+	}
+
+	public ActionType getActionType() {
+		return require(actionType, "type");
+	}
+
+	void setActionType(ActionType actionType) {
+		this.actionType = actionType;
+	}
+
+	public String getUserId() {
+		return require(userId, "user_id");
+	}
+
+	void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public float getValue() {
+		return require(value, "value");
+	}
+
+	void setValue(Float value) {
+		this.value = value;
+	}
+
+	public float getBuyIn() {
+		return require(buyIn, "buy_in");
+	}
+
+	void setBuyIn(Float buyIn) {
+		this.buyIn = buyIn;
+	}
+
+	public float getAmount() {
+		return require(amount, "amount");
+	}
+
+	void setAmount(Float amount) {
+		this.amount = amount;
+	}
+
+	public int getSlot() {
+		return require(slot, "slot");
+	}
+
+	void setSlot(Integer slot) {
+		this.slot = slot;
+	}
+
+	public boolean isEnabled() {
+		return require(enabled, "enabled");
+	}
+
+	void setEnabled(Boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getEpoch() {
+		return require(epoch, "epoch");
+	}
+
+	void setEpoch(Integer epoch) {
+		this.epoch = epoch;
+	}
+}
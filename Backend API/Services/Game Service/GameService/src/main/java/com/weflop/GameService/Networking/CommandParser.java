@@ -0,0 +1,393 @@
+package com.weflop.GameService.Networking;
+
+import com.weflop.GameService.Game.ActionType;
+
+/**
+ * CommandParser.java
+ *
+ * Reads a client's JSON message straight into a Command, scanning the text in
+ * place: names are matched without being copied and fields the handlers do not
+ * read are skipped. Gson's JsonReader would do the same, but allocates some
+ * 2.5 KB of buffers per message, more than the message and its command
+ * together.
+ *
+ * Strict JSON, except that numbers and booleans may be quoted, which Gson's
+ * JsonObject getters used to accept.
+ *
+ * @author abrevnov
+ *
+ */
+final class CommandParser {
+
+	private static final int MAX_DEPTH = 16;
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15 };
+
+	private static final String[] MESSAGE_FIELDS = { "type", "game_id", "payload" };
+
+	private static final String[] PAYLOAD_FIELDS = { "type", "user_id", "value", "buy_in", "amount", "slot", "enabled",
+			"epoch" };
+
+	private final String json;
+	private int pos;
+	private boolean escaped; // whether the last string skipped has escapes
+
+	private CommandParser(String json) {
+		this.json = json;
+	}
+
+	/**
+	 * @throws IllegalArgumentException If the message is malformed or misses its
+	 *                                  type, game id or payload
+	 */
+	static Command parse(String json) {
+		return new CommandParser(json).readMessage();
+	}
+
+	private Command readMessage() {
+		Command command = new Command();
+		boolean hasPayload = false;
+
+		expect('{');
+		if (!consume('}')) {
+			do {
+				String name = readName(MESSAGE_FIELDS);
+				expect(':');
+				if ("type".equals(name)) {
+					command.setType(MessageType.fromValue(readString()));
+				} else if ("game_id".equals(name)) {
+					command.setGameId(readString());
+				} else if ("payload".equals(name)) {
+					readPayload(command);
+					hasPayload = true;
+				} else {
+					skipValue(0);
+				}
+			} while (consume(','));
+			expect('}');
+		}
+
+		skipWhitespace();
+		if (pos != json.length()) {
+			throw malformed("end of message");
+		}
+
+		if (command.getType() == null || command.getGameId() == null || !hasPayload) {
+			throw new IllegalArgumentException("Message needs a type, game_id and payload");
+		}
+		return command;
+	}
+
+	private void readPayload(Command command) {
+		expect('{');
+		if (consume('}')) {
+			return;
+		}
+		do {
+			String name = readName(PAYLOAD_FIELDS);
+			expect(':');
+			if (consumeNull()) {
+				continue; // as if not sent
+			}
+			if ("type".equals(name)) {
+				command.setActionType(ActionType.fromValue(readString()));
+			} else if ("user_id".equals(name)) {
+				command.setUserId(readString());
+			} else if ("value".equals(name)) {
+				command.setValue((float) readNumber());
+			} else if ("buy_in".equals(name)) {
+				command.setBuyIn((float) readNumber());
+			} else if ("amount".equals(name)) {
+				command.setAmount((float) readNumber());
+			} else if ("slot".equals(name)) {
+				command.setSlot(readInt());
+			} else if ("enabled".equals(name)) {
+				command.setEnabled(readBoolean());
+			} else if ("epoch".equals(name)) {
+				command.setEpoch(readInt());
+			} else {
+				skipValue(0);
+			}
+		} while (consume(','));
+		expect('}');
+	}
+
+	/**
+	 * Reads a name, without copying it if it is one of the known ones.
+	 *
+	 * @return The known name it equals, null for any other
+	 */
+	private String readName(String[] known) {
+		skipWhitespace();
+		int start = pos + 1;
+		int end = skipString();
+		if (!escaped) {
+			for (String name : known) {
+				if (name.length() == end - start && json.regionMatches(start, name, 0, name.length())) {
+					return name;
+				}
+			}
+			return null;
+		}
+
+		pos = start - 1;
+		String name = readString(); // escaped, so compared the slow way
+		for (String candidate : known) {
+			if (candidate.equals(name)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private String readString() {
+		skipWhitespace();
+		int start = pos + 1;
+		int end = skipString();
+		if (!escaped) {
+			return json.substring(start, end);
+		}
+
+		StringBuilder builder = new StringBuilder(end - start);
+		for (int i = start; i < end; i++) {
+			char c = json.charAt(i);
+			if (c != '\\') {
+				builder.append(c);
+				continue;
+			}
+			char escape = json.charAt(++i);
+			switch (escape) {
+			case '"':
+			case '\\':
+			case '/':
+				builder.append(escape);
+				break;
+			case 'b':
+				builder.append('\b');
+				break;
+			case 'f':
+				builder.append('\f');
+				break;
+			case 'n':
+				builder.append('\n');
+				break;
+			case 'r':
+				builder.append('\r');
+				break;
+			case 't':
+				builder.append('\t');
+				break;
+			default: // 'u', checked by skipString
+				builder.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+				i += 4;
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Moves past the string at the current position.
+	 *
+	 * @return Index of its closing quote
+	 */
+	private int skipString() {
+		if (pos >= json.length() || json.charAt(pos) != '"') {
+			throw malformed("string");
+		}
+		pos++;
+		escaped = false;
+		while (pos < json.length()) {
+			char c = json.charAt(pos++);
+			if (c == '"') {
+				return pos - 1;
+			}
+			if (c < 0x20) {
+				throw malformed("no control characters in strings");
+			}
+			if (c == '\\') {
+				escaped = true;
+				char escape = pos < json.length() ? json.charAt(pos++) : 0;
+				if (escape == 'u') {
+					for (int i = 0; i < 4; i++) {
+						if (pos >= json.length() || Character.digit(json.charAt(pos++), 16) < 0) {
+							throw malformed("unicode escape");
+						}
+					}
+				} else if ("\"\\/bfnrt".indexOf(escape) < 0) {
+					throw malformed("escape");
+				}
+			}
+		}
+		throw malformed("end of string");
+	}
+
+	private double readNumber() {
+		skipWhitespace();
+		if (pos < json.length() && json.charAt(pos) == '"') {
+			return parseDouble(readString()); // quoted
+		}
+
+		int start = pos;
+		consumeHere('-');
+		long mantissa = 0;
+		int digits = 0;
+		int decimals = 0;
+		if (!consumeHere('0')) {
+			digits = readDigits();
+			if (digits == 0) {
+				throw malformed("number");
+			}
+		}
+		if (consumeHere('.')) {
+			decimals = readDigits();
+			if (decimals == 0) {
+				throw malformed("digits after the decimal point");
+			}
+		}
+		boolean exponent = consumeHere('e') || consumeHere('E');
+		if (exponent) {
+			if (!consumeHere('+')) {
+				consumeHere('-');
+			}
+			if (readDigits() == 0) {
+				throw malformed("exponent");
+			}
+		}
+
+		if (exponent || digits + decimals > 15) {
+			return parseDouble(json.substring(start, pos));
+		}
+
+		// exact integer over an exact power of ten: correctly rounded, without a copy
+		for (int i = start; i < pos; i++) {
+			char c = json.charAt(i);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+			}
+		}
+		double value = mantissa / POWERS_OF_TEN[decimals];
+		return json.charAt(start) == '-' ? -value : value;
+	}
+
+	private int readInt() {
+		double number = readNumber();
+		if (number != (int) number) {
+			throw malformed("integer");
+		}
+		return (int) number;
+	}
+
+	private boolean readBoolean() {
+		skipWhitespace();
+		if (json.startsWith("true", pos)) {
+			pos += 4;
+			return true;
+		}
+		if (json.startsWith("false", pos)) {
+			pos += 5;
+			return false;
+		}
+		if (pos < json.length() && json.charAt(pos) == '"') {
+			return Boolean.parseBoolean(readString()); // quoted
+		}
+		throw malformed("boolean");
+	}
+
+	private boolean consumeNull() {
+		skipWhitespace();
+		if (json.startsWith("null", pos)) {
+			pos += 4;
+			return true;
+		}
+		return false;
+	}
+
+	private void skipValue(int depth) {
+		if (depth > MAX_DEPTH) {
+			throw malformed("less nesting");
+		}
+
+		skipWhitespace();
+		char c = pos < json.length() ? json.charAt(pos) : 0;
+		if (c == '{') {
+			pos++;
+			if (!consume('}')) {
+				do {
+					skipWhitespace();
+					skipString();
+					expect(':');
+					skipValue(depth + 1);
+				} while (consume(','));
+				expect('}');
+			}
+		} else if (c == '[') {
+			pos++;
+			if (!consume(']')) {
+				do {
+					skipValue(depth + 1);
+				} while (consume(','));
+				expect(']');
+			}
+		} else if (c == '"') {
+			skipString();
+		} else if (c == 't' || c == 'f') {
+			readBoolean();
+		} else if (!consumeNull()) {
+			readNumber();
+		}
+	}
+
+	private int readDigits() {
+		int start = pos;
+		while (pos < json.length() && json.charAt(pos) >= '0' && json.charAt(pos) <= '9') {
+			pos++;
+		}
+		return pos - start;
+	}
+
+	private static double parseDouble(String number) {
+		try {
+			double value = Double.parseDouble(number);
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				throw new NumberFormatException(number);
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Malformed message: " + number + " is not a number", e);
+		}
+	}
+
+	private void expect(char c) {
+		if (!consume(c)) {
+			throw malformed("'" + c + "'");
+		}
+	}
+
+	private boolean consume(char c) {
+		skipWhitespace();
+		return consumeHere(c);
+	}
+
+	private boolean consumeHere(char c) {
+		if (pos < json.length() && json.charAt(pos) == c) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	private void skipWhitespace() {
+		while (pos < json.length()) {
+			char c = json.charAt(pos);
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+				return;
+			}
+			pos++;
+		}
+	}
+
+	private IllegalArgumentException malformed(String expected) {
+		return new IllegalArgumentException("Malformed message: expected " + expected + " at char " + pos);
+	}
+}
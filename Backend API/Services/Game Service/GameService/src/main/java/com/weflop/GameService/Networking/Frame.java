@@ -0,0 +1,47 @@
+package com.weflop.GameService.Networking;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * Frame.java
+ *
+ * A message encoded once for each protocol spoken by its recipients: JSON for
+ * older clients, {@link BinaryProtocol} for those that negotiated it.
+ *
+ * @author abrevnov
+ *
+ */
+public class Frame {
+
+	private final TextMessage text; // null if no recipient speaks JSON
+
+	private final byte[] binary; // null if no recipient speaks the binary protocol
+
+	Frame(TextMessage text, byte[] binary) {
+		this.text = text;
+		this.binary = binary;
+	}
+
+	/**
+	 * @return Message for the session, null if the frame was not encoded in its
+	 *         protocol
+	 */
+	public WebSocketMessage<?> forSession(WebSocketSession session) {
+		if (BinaryProtocol.isBinary(session)) {
+			// sending consumes the message's buffer, so every recipient gets its own
+			return binary != null ? new BinaryMessage(binary) : null;
+		}
+		return text;
+	}
+
+	TextMessage getText() {
+		return text;
+	}
+
+	byte[] getBinary() {
+		return binary;
+	}
+}
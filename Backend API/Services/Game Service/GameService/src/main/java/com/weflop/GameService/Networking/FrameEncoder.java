@@ -0,0 +1,96 @@
+package com.weflop.GameService.Networking;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.springframework.web.socket.TextMessage;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * FrameEncoder.java
+ *
+ * Encodes an outgoing message once into an immutable frame that is shared by
+ * every recipient of a broadcast. The JSON is streamed into a buffer that each
+ * thread reuses, rather than built as a Gson tree, so encoding allocates little
+ * beyond the frame itself whatever the number of recipients.
+ *
+ * The frame keeps its payload as a String: the container's endpoint takes the
+ * String and encodes it for each connection, so encoding it to UTF-8 up front
+ * would only add a copy.
+ *
+ * @author abrevnov
+ *
+ */
+final class FrameEncoder {
+
+	private static final int INITIAL_CHARS = 1024;
+
+	private static final int MAX_RETAINED_CHARS = 64 * 1024; // larger buffers are not kept between messages
+
+	private static final ThreadLocal<FrameEncoder> ENCODERS = ThreadLocal.withInitial(FrameEncoder::new);
+
+	private StringBuilder buffer = new StringBuilder(INITIAL_CHARS);
+
+	private final Writer writer = new Writer() {
+		@Override
+		public void write(char[] chars, int offset, int length) {
+			buffer.append(chars, offset, length);
+		}
+
+		@Override
+		public void write(String string, int offset, int length) {
+			buffer.append(string, offset, offset + length);
+		}
+
+		@Override
+		public void write(int c) {
+			buffer.append((char) c);
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	private boolean encoding;
+
+	private FrameEncoder() {
+	}
+
+	/**
+	 * Writes a message body as JSON.
+	 */
+	interface Body {
+		void write(JsonWriter writer) throws IOException;
+	}
+
+	/**
+	 * @return Frame holding the JSON written by the body
+	 */
+	static TextMessage encode(Body body) throws IOException {
+		FrameEncoder encoder = ENCODERS.get();
+		if (encoder.encoding) {
+			encoder = new FrameEncoder(); // encoding while encoding; the buffer is taken
+		}
+
+		encoder.encoding = true;
+		try {
+			encoder.buffer.setLength(0);
+			JsonWriter json = new JsonWriter(encoder.writer);
+			json.setLenient(true); // as Gson's JsonElement.toString(), which wrote our messages before
+			body.write(json);
+			json.flush();
+			return new TextMessage(encoder.buffer.toString());
+		} finally {
+			if (encoder.buffer.capacity() > MAX_RETAINED_CHARS) {
+				encoder.buffer = new StringBuilder(INITIAL_CHARS);
+			}
+			encoder.encoding = false;
+		}
+	}
+}
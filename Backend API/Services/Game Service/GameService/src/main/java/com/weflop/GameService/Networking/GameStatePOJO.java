@@ -1,6 +1,7 @@
 package com.weflop.GameService.Networking;
 
 import java.util.List;
+import java.util.Map;
 
 import com.weflop.GameService.Database.DomainObjects.CardPOJO;
 import com.weflop.GameService.Database.DomainObjects.PlayerPOJO;
@@ -34,6 +35,9 @@ public class GameStatePOJO {
 	private String smallBlind;
 	private String bigBlind;
 	private String tableState;
+
+	private Map<String, Integer> playerIndexes; // only sent to clients speaking the binary protocol
+
 	public GameStatePOJO(String gameId, List<CardPOJO> centerCards, float pot, List<LimitedPlayerPOJO> otherPlayers,
 			PlayerPOJO player, String idOfTurn, int epoch, float totalRoundBet, boolean started, String dealer,
 						 String smallBlind, String bigBlind,String tableState) {
@@ -155,5 +159,12 @@ public class GameStatePOJO {
 	public void setTableState(String tableState) {
 		this.tableState = tableState;
 	}
-	
+
+	public Map<String, Integer> getPlayerIndexes() {
+		return playerIndexes;
+	}
+
+	public void setPlayerIndexes(Map<String, Integer> playerIndexes) {
+		this.playerIndexes = playerIndexes;
+	}
 }
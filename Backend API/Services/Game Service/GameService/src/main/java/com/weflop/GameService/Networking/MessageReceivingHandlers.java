@@ -12,11 +12,11 @@ import org.springframework.web.socket.WebSocketSession;
 
 public class MessageReceivingHandlers {
 
-	public static void handleAction(WebSocketSession session, Game game, JsonObject payload)
+	public static void handleAction(WebSocketSession session, Game game, Command command)
 			throws InterruptedException, IOException {
 		// parsing out properties
-		ActionType type = ActionType.fromValue(payload.get("type").getAsString());
-		String playerId = payload.get("user_id").getAsString();
+		ActionType type = command.getActionType();
+		String playerId = command.getUserId();
 
 		JsonObject error = new JsonObject(); // returned on error
 		error.addProperty("type", "ERROR");
@@ -78,7 +78,7 @@ public class MessageReceivingHandlers {
 			break;
 		case RAISE: {
 			try {
-				float amount = payload.get("value").getAsFloat();
+				float amount = command.getValue();
 				game.performAction(new Action.ActionBuilder(type)
 						.withPlayerId(playerId)
 						.withValue(amount).build());
@@ -101,8 +101,8 @@ public class MessageReceivingHandlers {
 			break;
 		case SIT: {
 			try {
-				int slot = payload.get("slot").getAsInt();
-				float buyIn = payload.get("buy_in").getAsFloat();
+				int slot = command.getSlot();
+				float buyIn = command.getBuyIn();
 				game.performAction(new Action.ActionBuilder(type)
 						.withPlayerId(playerId)
 						.withSlot(slot)
@@ -117,7 +117,7 @@ public class MessageReceivingHandlers {
 			break;
 		case SIT_IN: {
 			try {
-				boolean posting = payload.get("enabled").getAsBoolean();
+				boolean posting = command.isEnabled();
 				game.performAction(new Action.ActionBuilder(type).withPlayerId(playerId).withEnabled(posting).build());
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -177,7 +177,7 @@ public class MessageReceivingHandlers {
 			break;
 		case TOP_OFF: {
 			try {
-				float amount = payload.get("amount").getAsFloat();
+				float amount = command.getAmount();
 				game.performAction(new Action.ActionBuilder(type).withPlayerId(playerId).withValue(amount).build());
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -188,7 +188,7 @@ public class MessageReceivingHandlers {
 			break;
 		case CHANGE_SEAT: {
 			try {
-				int slot = payload.get("slot").getAsInt();
+				int slot = command.getSlot();
 				game.performAction(new Action.ActionBuilder(type).withPlayerId(playerId).withSlot(slot).build());
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -239,7 +239,7 @@ public class MessageReceivingHandlers {
 			break;
 		case AUTO_MUCK: {
 			try {
-				boolean enabled = payload.get("enabled").getAsBoolean();
+				boolean enabled = command.isEnabled();
 				game.performAction(new Action.ActionBuilder(type)
 						.withPlayerId(playerId)
 						.withEnabled(enabled)
@@ -257,4 +257,24 @@ public class MessageReceivingHandlers {
 			break;
 		}
 	}
+
+	/**
+	 * Handles a client that reconnected or noticed a gap in epochs, sending it
+	 * what it missed since the last epoch it saw.
+	 */
+	public static void handleResync(WebSocketSession session, Game game, Command command)
+			throws InterruptedException, IOException {
+		String playerId = command.getUserId();
+		int epoch = command.getEpoch();
+
+		try {
+			game.resynchronize(playerId, session, epoch);
+		} catch (Exception e) {
+			e.printStackTrace();
+			JsonObject error = new JsonObject();
+			error.addProperty("type", "ERROR");
+			error.addProperty("error", e.getMessage());
+			session.sendMessage(new TextMessage(error.toString()));
+		}
+	}
 }
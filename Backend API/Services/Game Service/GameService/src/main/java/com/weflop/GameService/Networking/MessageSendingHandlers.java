@@ -4,9 +4,11 @@ import java.io.IOException;
 import java.util.List;
 
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
 
-import com.google.gson.JsonObject;
-import com.weflop.GameService.Database.DomainObjects.ActionPOJO;
+import com.google.gson.stream.JsonWriter;
+import com.weflop.Cards.Card;
 import com.weflop.GameService.Game.Action;
 import com.weflop.GameService.Game.Group;
 import com.weflop.GameService.Game.Player;
@@ -20,24 +22,20 @@ public class MessageSendingHandlers {
 	 * @param group
 	 * @param action
 	 * @param updateVersion
+	 * @param indexes Player indexes of the table, null unless targets is the whole group
+	 * @return Frame sent to the targets
 	 * @throws InterruptedException
 	 * @throws IOException
 	 */
-	public static void propagateIncomingAction(String gameId, Group group, Action action, int epoch, List<Player> targets)
+	public static Frame propagateIncomingAction(String gameId, Group group, Action action, int epoch, List<Player> targets,
+			PlayerIndexes indexes)
 			throws InterruptedException, IOException {
-		// creating message
-		JsonObject message = new JsonObject();
-		message.addProperty("game_id", gameId);
-		message.addProperty("type", MessageType.ACTION.toValue());
-
-		JsonObject payload = generatePayloadFromAction(action, epoch);
-
-		message.add("payload", payload);
-
-		String messageString = message.toString();
+		// creating message in each protocol spoken by the targets, shared by all of them
+		Frame frame = encodeAction(gameId, action, epoch, targets, indexes);
 
 		// propagating message to targets
-		sendMessageToTargets(messageString, targets);
+		sendFrameToTargets(frame, targets);
+		return frame;
 	}
 
 	/**
@@ -48,121 +46,237 @@ public class MessageSendingHandlers {
 	 * @param group
 	 * @param action
 	 * @param updateVersion
+	 * @param indexes Player indexes of the table, null unless targets is the whole group
+	 * @return Frame sent to the targets
 	 * @throws InterruptedException
 	 * @throws IOException
 	 */
-	public static void propagateOutgoingAction(String gameId, Action action, int epoch, List<Player> targets)
+	public static Frame propagateOutgoingAction(String gameId, Action action, int epoch, List<Player> targets,
+			PlayerIndexes indexes)
 			throws InterruptedException, IOException {
-		// creating message
-		JsonObject message = new JsonObject();
-		message.addProperty("game_id", gameId);
-		message.addProperty("type", MessageType.ACTION.toValue());
-
-		JsonObject payload = generatePayloadFromAction(action, epoch);
-		
-		message.add("payload", payload);
-
-		String messageString = message.toString();
+		// creating message in each protocol spoken by the targets, shared by all of them
+		Frame frame = encodeAction(gameId, action, epoch, targets, indexes);
 
 		// propagating message to targets
-		sendMessageToTargets(messageString, targets);
+		sendFrameToTargets(frame, targets);
+		return frame;
 	}
 
 	public static void sendGameState(Player target, GameStatePOJO gameState) throws InterruptedException, IOException {
 		// creating message
-		JsonObject message = new JsonObject();
-		message.addProperty("type", MessageType.GAME_STATE.toValue());
-		message.add("payload", WebSocketHandler.GSON.toJsonTree(gameState));
-		
-		String messageString = message.toString();
+		TextMessage message = FrameEncoder.encode(writer -> {
+			writer.beginObject();
+			writer.name("type").value(MessageType.GAME_STATE.toValue());
+			writer.name("payload");
+			WebSocketHandler.GSON.toJson(gameState, GameStatePOJO.class, writer);
+			writer.endObject();
+		});
 
-		// propagating state information to player
+		// propagating state information to player, superseding any state still queued for them
 		if (target.getSession().isOpen()) {
-			target.getSession().sendMessage(new TextMessage(messageString));
+			send(target.getSession(), message, MessageType.GAME_STATE.toValue() + ":" + gameState.getGameId());
 		}
 	}
 
+	/**
+	 * Resends frames a player missed, in the order they were first sent.
+	 * 
+	 * @param target
+	 * @param frames
+	 * @return False if some frame was not encoded in the player's protocol, in
+	 *         which case none are sent
+	 */
+	public static boolean replayFrames(Player target, List<Frame> frames) throws InterruptedException, IOException {
+		WebSocketSession session = target.getSession();
+		for (Frame frame : frames) {
+			if (frame.forSession(session) == null) {
+				return false; // e.g. nobody spoke the protocol when it was sent
+			}
+		}
+
+		if (session.isOpen()) {
+			for (Frame frame : frames) {
+				session.sendMessage(frame.forSession(session));
+			}
+		}
+		return true;
+	}
+
 	public static void sendSynchronizationPackets(String gameId, Group group, int epoch, long turnTimeRemaining)
 			throws InterruptedException, IOException {
-		// creating message
-		JsonObject message = new JsonObject();
-		message.addProperty("game_id", gameId);
-		message.addProperty("type", MessageType.SYNCHRONIZATION.toValue());
-
-		JsonObject payload = new JsonObject();
+		// creating message in each protocol spoken by the participants
+		List<Player> participants = group.getAllParticipants();
+		TextMessage text = !speakJson(participants) ? null : FrameEncoder.encode(writer -> {
+			writer.beginObject();
+			writer.name("game_id").value(gameId);
+			writer.name("type").value(MessageType.SYNCHRONIZATION.toValue());
+			writer.name("payload").beginObject();
+			writer.name("epoch").value(epoch);
+			writer.name("turn_time_remaining").value(turnTimeRemaining);
+			writer.endObject();
+			writer.endObject();
+		});
 
-		payload.addProperty("epoch", epoch);
-		payload.addProperty("turn_time_remaining", turnTimeRemaining);
+		byte[] binary = !speakBinary(participants) ? null
+				: BinaryProtocol.encodeSynchronization(gameId, epoch, turnTimeRemaining);
+		Frame frame = new Frame(text, binary);
 
-		message.add("payload", payload);
+		// propagating message to all participants, superseding any packet still queued for them
+		String key = MessageType.SYNCHRONIZATION.toValue() + ":" + gameId;
+		for (Player participant : participants) {
+			if (participant.getSession().isOpen()) {
+				send(participant.getSession(), frame.forSession(participant.getSession()), key);
+			}
+		}
+	}
 
-		String messageString = message.toString();
+	/**
+	 * @return Frame of the ACTION message for the given action, encoded in the
+	 *         protocols spoken by the targets
+	 */
+	static Frame encodeAction(String gameId, Action action, int epoch, List<Player> targets, PlayerIndexes indexes)
+			throws IOException {
+		TextMessage text = speakJson(targets) ? encodeAction(gameId, action, epoch) : null;
+		byte[] binary = speakBinary(targets) ? BinaryProtocol.encodeAction(gameId, action, epoch, indexes) : null;
+		return new Frame(text, binary);
+	}
 
-		// propagating message to all participants
-		sendMessageToTargets(messageString, group.getAllParticipants());
+	/**
+	 * @return JSON ACTION message for the given action
+	 */
+	static TextMessage encodeAction(String gameId, Action action, int epoch) throws IOException {
+		return FrameEncoder.encode(writer -> {
+			writer.beginObject();
+			writer.name("game_id").value(gameId);
+			writer.name("type").value(MessageType.ACTION.toValue());
+			writer.name("payload");
+			writePayloadFromAction(writer, action, epoch);
+			writer.endObject();
+		});
 	}
-	
-	private static JsonObject generatePayloadFromAction(Action action, int epoch) {
-		ActionPOJO actionPOJO = action.toPojo();
-		
-		JsonObject payload = new JsonObject();
 
-		payload.addProperty("type", actionPOJO.getType());
-		payload.addProperty("epoch", epoch);
+	private static void writePayloadFromAction(JsonWriter writer, Action action, int epoch) throws IOException {
+		writer.beginObject();
+
+		writer.name("type").value(action.getType().toValue());
+		writer.name("epoch").value(epoch);
 
 		if (action.getCards() != null) {
-			payload.add("cards", WebSocketHandler.GSON.toJsonTree(actionPOJO.getCards()));
+			writer.name("cards").beginArray();
+			for (Card card : action.getCards()) {
+				writer.beginObject();
+				writer.name("suit").value(card.getSuit().toValue());
+				writer.name("value").value(card.getCardValue().toValue());
+				writer.endObject();
+			}
+			writer.endArray();
 		}
 		
 		if (action.getPlayerIds() != null) {
-			payload.add("players", WebSocketHandler.GSON.toJsonTree(action.getPlayerIds()));
+			writer.name("players").beginArray();
+			for (String playerId : action.getPlayerIds()) {
+				writer.value(playerId);
+			}
+			writer.endArray();
 		}
 		
 		if (action.getPlayerId() != null) {
-			payload.addProperty("partipant_id", action.getPlayerId());
+			writer.name("partipant_id").value(action.getPlayerId());
 		}
 		
 		if (action.getValue() != null) {
-			payload.addProperty("value", action.getValue());
+			writer.name("value").value(action.getValue());
 		}
 
 		if (action.getSlot() != null) {
-			payload.addProperty("slot", action.getSlot());
+			writer.name("slot").value(action.getSlot());
 		}
 		
 		if (action.getPots() != null) {
-			payload.add("pots", WebSocketHandler.GSON.toJsonTree(action.getPots()));
+			writeNumbers(writer.name("pots"), action.getPots());
 		}
 		
 		if (action.getLimitedPlayers() != null) {
-			payload.add("limited_players", WebSocketHandler.GSON.toJsonTree(action.getLimitedPlayers()));
+			writer.name("limited_players").beginArray();
+			for (LimitedPlayerPOJO player : action.getLimitedPlayers()) {
+				WebSocketHandler.GSON.toJson(player, LimitedPlayerPOJO.class, writer);
+			}
+			writer.endArray();
 		}
 		
 		if (action.getEnabled() != null) {
-			payload.add("enabled", WebSocketHandler.GSON.toJsonTree(action.getEnabled()));
+			writer.name("enabled").value(action.getEnabled());
 		}
 
 		if (action.getDuration() != null) {
-			payload.addProperty("duration", action.getDuration());
+			writer.name("duration").value(action.getDuration());
 		}
 
-		return payload;
+		if (action.getWinProbabilities() != null) {
+			writeNumbers(writer.name("win_probabilities"), action.getWinProbabilities());
+			writeNumbers(writer.name("tie_probabilities"), action.getTieProbabilities());
+		}
+
+		writer.endObject();
+	}
+
+	private static void writeNumbers(JsonWriter writer, List<? extends Number> numbers) throws IOException {
+		if (numbers == null) {
+			writer.nullValue();
+			return;
+		}
+		writer.beginArray();
+		for (Number number : numbers) {
+			writer.value(number);
+		}
+		writer.endArray();
 	}
 	
 	/**
-	 * Takes a message and sends it to a list of players (or spectators).
+	 * Takes a frame and sends it to a list of players (or spectators), each in
+	 * their protocol.
 	 * 
-	 * @param messageString
+	 * @param frame
 	 * @param targets
 	 */
-	private static void sendMessageToTargets(String messageString, List<Player> targets) 
+	private static void sendFrameToTargets(Frame frame, List<Player> targets) 
 			throws InterruptedException, IOException { 
 		// propagating message to targets
 		for (Player participant : targets) {
 			// check that participant websocket connection is open and send message if it is
 			if (participant.getSession().isOpen()) {
-				participant.getSession().sendMessage(new TextMessage(messageString));
+				participant.getSession().sendMessage(frame.forSession(participant.getSession()));
+			}
+		}
+	}
+
+	private static boolean speakJson(List<Player> targets) {
+		for (Player participant : targets) {
+			if (!BinaryProtocol.isBinary(participant.getSession())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean speakBinary(List<Player> targets) {
+		for (Player participant : targets) {
+			if (BinaryProtocol.isBinary(participant.getSession())) {
+				return true;
 			}
 		}
+		return false;
+	}
+
+	/**
+	 * Sends the message, replacing the message with the same key still queued for
+	 * the session if it has an outbound queue.
+	 */
+	private static void send(WebSocketSession session, WebSocketMessage<?> message, String key) throws IOException {
+		if (session instanceof QueuedWebSocketSession) {
+			((QueuedWebSocketSession) session).send(message, key);
+		} else {
+			session.sendMessage(message);
+		}
 	}
 }
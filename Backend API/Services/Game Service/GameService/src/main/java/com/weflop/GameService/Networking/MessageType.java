@@ -1,9 +1,10 @@
 package com.weflop.GameService.Networking;
 
-public enum MessageType {
+public enum MessageType { // new types go last, the binary protocol sends ordinals
 	ACTION("ACTION"), 
 	GAME_STATE("GAME_STATE"), 
-	SYNCHRONIZATION("SYNCHRONIZATION");
+	SYNCHRONIZATION("SYNCHRONIZATION"), 
+	RESYNC("RESYNC"); // sent by clients that reconnect or miss an epoch
 
 	private final String value;
 
@@ -0,0 +1,47 @@
+package com.weflop.GameService.Networking;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PlayerIndexes.java
+ *
+ * Small numbers standing in for the ids of a table's players in binary frames.
+ * A player is given an index the first time a frame sent to the whole group
+ * mentions them, and that frame carries the id along with it; later frames
+ * only carry the index. Clients that join afterwards get the indexes with
+ * their game state.
+ *
+ * Only used from the thread running the table.
+ *
+ * @author abrevnov
+ *
+ */
+public class PlayerIndexes {
+
+	private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+	/**
+	 * @return Index of the player, 0 if they have none yet
+	 */
+	public int indexOf(String playerId) {
+		Integer index = indexes.get(playerId);
+		return index != null ? index : 0;
+	}
+
+	/**
+	 * @return Index given to the player, which must not have one yet
+	 */
+	public int add(String playerId) {
+		int index = indexes.size() + 1; // 0 is never an index
+		indexes.put(playerId, index);
+		return index;
+	}
+
+	/**
+	 * @return Copy of the index of every player
+	 */
+	public Map<String, Integer> toMap() {
+		return new HashMap<String, Integer>(indexes);
+	}
+}
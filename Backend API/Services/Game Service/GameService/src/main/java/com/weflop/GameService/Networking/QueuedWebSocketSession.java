@@ -0,0 +1,294 @@
+package com.weflop.GameService.Networking;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import com.weflop.Utils.ThreadExecution.GameTimers;
+import com.weflop.Utils.ThreadExecution.HashedWheelTimer;
+import com.weflop.Utils.ThreadExecution.SenderExecutor;
+
+/**
+ * QueuedWebSocketSession.java
+ *
+ * Session whose outbound messages go through a bounded queue, written to the
+ * client by one sender at a time on the sender executor. Sending only queues
+ * the message, so game logic never waits on the network, and writes never
+ * hold up the threads handling incoming messages.
+ *
+ * Messages sent with a key (a player's game state, synchronization packets)
+ * supersede the still queued message with the same key, which is then skipped:
+ * a client that falls behind gets the latest state instead of every
+ * intermediate one. A client is disconnected once its queue holds more than
+ * {@value #BUFFER_LIMIT_BYTES} bytes (UTF-8) or a single write has taken longer
+ * than {@value #SEND_TIME_LIMIT_MILLIS} ms, which a timer checks whether or not
+ * more messages are queued; it resynchronizes by joining again.
+ *
+ * Loosely follows Spring's ConcurrentWebSocketSessionDecorator, which neither
+ * coalesces nor sends asynchronously.
+ *
+ * @author abrevnov
+ *
+ */
+public class QueuedWebSocketSession extends WebSocketSessionDecorator {
+
+	public static final int BUFFER_LIMIT_BYTES = 512 * 1024;
+
+	public static final long SEND_TIME_LIMIT_MILLIS = 10000;
+
+	private static final String ATTRIBUTE = QueuedWebSocketSession.class.getName();
+
+	private final Executor executor;
+
+	private final HashedWheelTimer timer; // enforces the send time limit
+
+	private final long sendTimeLimitMillis;
+
+	// guarded by this
+	private final ArrayDeque<Entry> queue = new ArrayDeque<Entry>();
+	private final Map<String, Entry> queuedByKey = new HashMap<String, Entry>();
+	private int queuedMessages;
+	private long bufferedBytes;
+	private boolean sending;
+	private boolean terminated;
+	private Thread writer; // thread writing the current message, null between writes
+	private long writes; // number of writes begun, identifying the current one
+
+	public QueuedWebSocketSession(WebSocketSession delegate, Executor executor, HashedWheelTimer timer,
+			long sendTimeLimitMillis) {
+		super(delegate);
+		this.executor = executor;
+		this.timer = timer;
+		this.sendTimeLimitMillis = sendTimeLimitMillis;
+	}
+
+	/**
+	 * @return The queued session wrapping the given one, created on first use
+	 */
+	public static QueuedWebSocketSession of(WebSocketSession session) {
+		if (session instanceof QueuedWebSocketSession) {
+			return (QueuedWebSocketSession) session;
+		}
+		synchronized (session) {
+			Object queued = session.getAttributes().get(ATTRIBUTE);
+			if (queued == null) {
+				queued = new QueuedWebSocketSession(session, SenderExecutor.getInstance(),
+						GameTimers.forKey(session.getId()), SEND_TIME_LIMIT_MILLIS);
+				session.getAttributes().put(ATTRIBUTE, queued);
+			}
+			return (QueuedWebSocketSession) queued;
+		}
+	}
+
+	/**
+	 * Queues the message; never blocks.
+	 */
+	@Override
+	public void sendMessage(WebSocketMessage<?> message) {
+		send(message, null);
+	}
+
+	/**
+	 * Queues the message, replacing any message with the same key still waiting
+	 * to be written. Never blocks.
+	 */
+	public void send(WebSocketMessage<?> message, String key) {
+		boolean startSending;
+		synchronized (this) {
+			if (terminated) {
+				return;
+			}
+
+			Entry entry = new Entry(message, key);
+			if (key != null) {
+				Entry superseded = queuedByKey.put(key, entry);
+				if (superseded != null) {
+					superseded.message = null; // skipped when reached
+					bufferedBytes -= superseded.bytes;
+					queuedMessages--;
+				}
+			}
+			queue.add(entry);
+			queuedMessages++;
+			bufferedBytes += entry.bytes;
+
+			if (bufferedBytes > BUFFER_LIMIT_BYTES) {
+				terminate(bufferedBytes + " bytes queued");
+				return;
+			}
+
+			startSending = !sending;
+			sending = true;
+		}
+
+		if (startSending) {
+			executor.execute(this::flush);
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		synchronized (this) {
+			if (terminated) {
+				return false;
+			}
+		}
+		return super.isOpen();
+	}
+
+	/**
+	 * @return Number of messages waiting to be written
+	 */
+	public synchronized int getQueueDepth() {
+		return queuedMessages;
+	}
+
+	/**
+	 * @return Size of the messages waiting to be written
+	 */
+	public synchronized long getBufferedBytes() {
+		return bufferedBytes;
+	}
+
+	/**
+	 * Drops whatever is still queued, e.g. once the connection has closed.
+	 */
+	public synchronized void discard() {
+		terminated = true;
+		clear();
+	}
+
+	/**
+	 * Writes queued messages until the queue is empty. Only one flush runs at a
+	 * time.
+	 */
+	private void flush() {
+		while (true) {
+			WebSocketMessage<?> message;
+			long write;
+			synchronized (this) {
+				Entry entry = queue.poll();
+				while (entry != null && entry.message == null) {
+					entry = queue.poll();
+				}
+				if (entry == null || terminated) {
+					sending = false;
+					return;
+				}
+				if (entry.key != null) {
+					queuedByKey.remove(entry.key, entry);
+				}
+				queuedMessages--;
+				bufferedBytes -= entry.bytes;
+				message = entry.message;
+				writer = Thread.currentThread();
+				write = ++writes;
+			}
+
+			HashedWheelTimer.Timeout limit = timer.schedule(() -> abandonWrite(write), sendTimeLimitMillis,
+					TimeUnit.MILLISECONDS);
+			try {
+				getDelegate().sendMessage(message);
+			} catch (IOException | RuntimeException e) {
+				synchronized (this) {
+					terminate("write failed: " + e);
+					sending = false;
+				}
+				return;
+			} finally {
+				limit.cancel();
+				synchronized (this) {
+					writer = null;
+				}
+				Thread.interrupted(); // clears an interrupt from abandonWrite, which can no longer come
+			}
+		}
+	}
+
+	/**
+	 * Disconnects the client if the given write is still pending. Called by the
+	 * timer, so it only posts the close.
+	 */
+	private synchronized void abandonWrite(long write) {
+		if (writer == null || writes != write) {
+			return;
+		}
+		terminate("write pending for over " + sendTimeLimitMillis + " ms");
+		writer.interrupt(); // frees the sender thread where the container's blocking write is interruptible
+	}
+
+	/**
+	 * Drops the queue and closes the connection. Called while holding this.
+	 */
+	private void terminate(String reason) {
+		if (terminated) {
+			return;
+		}
+		System.out.printf("Disconnecting slow session %s: %s\n", getId(), reason);
+		terminated = true;
+		clear();
+		executor.execute(() -> {
+			try {
+				getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+			} catch (IOException | RuntimeException e) {
+				// the connection is gone either way
+			}
+		});
+	}
+
+	private void clear() {
+		queue.clear();
+		queuedByKey.clear();
+		queuedMessages = 0;
+		bufferedBytes = 0;
+	}
+
+	/**
+	 * Queued message; its message is cleared once a newer one with the same key
+	 * supersedes it.
+	 */
+	private static final class Entry {
+
+		private WebSocketMessage<?> message;
+		private final String key;
+		private final int bytes;
+
+		private Entry(WebSocketMessage<?> message, String key) {
+			this.message = message;
+			this.key = key;
+			// counted without encoding text messages, which getPayloadLength would do
+			this.bytes = message instanceof TextMessage ? utf8Length(((TextMessage) message).getPayload())
+					: message.getPayloadLength();
+		}
+	}
+
+	/**
+	 * @return Number of bytes of the string encoded as UTF-8 (names in our JSON
+	 *         are not escaped, so it is not ASCII)
+	 */
+	static int utf8Length(String string) {
+		int bytes = string.length();
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c >= 0x800) {
+				bytes += 2;
+				if (Character.isHighSurrogate(c) && i + 1 < string.length()
+						&& Character.isLowSurrogate(string.charAt(i + 1))) {
+					i++; // four bytes for the pair
+				}
+			} else if (c >= 0x80) {
+				bytes++;
+			}
+		}
+		return bytes;
+	}
+}
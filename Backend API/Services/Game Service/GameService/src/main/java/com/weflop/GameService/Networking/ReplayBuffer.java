@@ -0,0 +1,119 @@
+package com.weflop.GameService.Networking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplayBuffer.java
+ *
+ * Ring buffer of the last frames a table sent, indexed by the epoch they were
+ * sent at. A client that reconnects or notices a gap in the epochs it receives
+ * reports the last epoch it saw and is sent only the frames it missed, rather
+ * than a full game state.
+ *
+ * Frames that advanced the epoch are the ones a client counts; frames sent
+ * without advancing it (a player's hole cards, anything before the game
+ * started) repeat the current epoch, so a client that last saw that epoch may
+ * or may not have received them. Such a gap cannot be replayed without risking
+ * duplicates, and neither can one reaching back past the oldest buffered frame;
+ * the client is then sent a full game state instead.
+ *
+ * Only used from the thread running the table.
+ *
+ * @author abrevnov
+ *
+ */
+public class ReplayBuffer {
+
+	public static final int CAPACITY = Integer.getInteger("weflop.replay.frames", 128);
+
+	private final Frame[] frames;
+	private final int[] epochs;
+	private final boolean[] advanced; // whether the frame advanced the epoch
+	private final String[] recipients; // null for frames sent to the whole group
+
+	private int next; // slot the next frame is written to
+	private int size;
+
+	private int floor; // frames at or below this epoch may no longer all be buffered
+	private int latest; // epoch of the newest frame
+
+	/**
+	 * @param epoch Epoch of the table when buffering starts
+	 */
+	public ReplayBuffer(int capacity, int epoch) {
+		this.frames = new Frame[capacity];
+		this.epochs = new int[capacity];
+		this.advanced = new boolean[capacity];
+		this.recipients = new String[capacity];
+		this.floor = epoch;
+		this.latest = epoch;
+	}
+
+	/**
+	 * Records a frame, overwriting the oldest one once the buffer is full.
+	 *
+	 * @param recipient Id of the only player the frame was sent to, null if it was
+	 *                  sent to the whole group
+	 */
+	public void add(Frame frame, int epoch, boolean advancedEpoch, String recipient) {
+		if (size == frames.length) {
+			floor = Math.max(floor, epochs[next]);
+		} else {
+			size++;
+		}
+
+		frames[next] = frame;
+		epochs[next] = epoch;
+		advanced[next] = advancedEpoch;
+		recipients[next] = recipient;
+		next = (next + 1) % frames.length;
+		latest = epoch;
+	}
+
+	/**
+	 * @return Frames sent to the player after the given epoch, oldest first, or
+	 *         null if they cannot all be replayed
+	 */
+	public List<Frame> since(int epoch, String playerId) {
+		if (epoch <= floor || epoch > latest) {
+			return null;
+		}
+
+		List<Frame> missed = new ArrayList<Frame>();
+		for (int i = 0; i < size; i++) {
+			int slot = (next - size + i + frames.length) % frames.length;
+			if (recipients[slot] != null && !recipients[slot].equals(playerId)) {
+				continue;
+			}
+			if (epochs[slot] > epoch) {
+				missed.add(frames[slot]);
+			} else if (epochs[slot] == epoch && !advanced[slot]) {
+				return null; // the client may or may not have received it
+			}
+		}
+		return missed;
+	}
+
+	/**
+	 * @return Bytes taken by the encodings of the buffered frames, chars counted
+	 *         as two
+	 */
+	public long getRetainedBytes() {
+		long bytes = 0;
+		for (Frame frame : frames) {
+			if (frame != null) {
+				bytes += frame.getText() != null ? 2L * frame.getText().getPayloadLength() : 0;
+				bytes += frame.getBinary() != null ? frame.getBinary().length : 0;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return Number of buffered frames
+	 */
+	public int size() {
+		return size;
+	}
+}
@@ -2,67 +2,108 @@ package com.weflop.GameService.Networking;
 
 import java.io.IOException;
 
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.weflop.GameService.Database.GameRepository;
-import com.weflop.GameService.Database.DomainObjects.GameDocument;
 import com.weflop.GameService.Game.Game;
 import com.weflop.GameService.Game.GameFactory;
 import com.weflop.GameService.Game.GameManager;
 
+/**
+ * Handles both the JSON messages of older clients and the messages of clients
+ * that negotiated the binary sub-protocol (see BinaryProtocol), which is why it
+ * extends neither Text- nor BinaryWebSocketHandler: each rejects the other kind.
+ */
 @Component
-public class WebSocketHandler extends TextWebSocketHandler {
+public class WebSocketHandler extends AbstractWebSocketHandler implements SubProtocolCapable {
 
 	public static final Gson GSON = new Gson();
 
 	private static List<WebSocketSession> sessions = new CopyOnWriteArrayList<WebSocketSession>();
-	
-	@Autowired
-	private GameRepository repository;
-	
+
 	@Autowired 
 	private GameFactory factory;
 
 	@Override
 	public void handleTextMessage(WebSocketSession session, TextMessage message)
 			throws InterruptedException, IOException {
-		JsonObject received = GSON.fromJson(message.getPayload(), JsonObject.class);
+		Command command;
+		try {
+			command = Command.fromJson(message.getPayload());
+		} catch (IllegalArgumentException e) {
+			rejectMessage(session, e);
+			return;
+		}
+		handleMessage(session, command);
+	}
 
-		MessageType type = MessageType.fromValue(received.get("type").getAsString());
+	@Override
+	public void handleBinaryMessage(WebSocketSession session, BinaryMessage message)
+			throws InterruptedException, IOException {
+		Command command;
+		try {
+			command = BinaryProtocol.decodeCommand(message.getPayload());
+		} catch (IllegalArgumentException e) {
+			rejectMessage(session, e);
+			return;
+		}
+		handleMessage(session, command);
+	}
 
-		// getting game from game id in message
-		String gameId = received.get("game_id").getAsString();
+	@Override
+	public List<String> getSubProtocols() {
+		return Collections.singletonList(BinaryProtocol.NAME); // clients not asking for it speak JSON
+	}
 
-		Game game = GameManager.ID_TO_GAME.get(gameId);
+	/**
+	 * Hands a message over to the game it is for, whichever protocol it came in.
+	 */
+	private void handleMessage(WebSocketSession session, Command command) {
+		// games send through the queued session, so they never wait on this client
+		QueuedWebSocketSession outbound = QueuedWebSocketSession.of(session);
 
-		if (game == null) {
-			// otherwise, we need to load from database
-			Optional<GameDocument> gameDocument = repository.findById(gameId);
-			
-			if (!gameDocument.isPresent()) {
-				session.sendMessage(new TextMessage("Invalid game id."));
-				return;
+		// handled off the container's threads, in order for each game
+		GameManager.GAME_TASKS.execute(command.getGameId(), () -> {
+			try {
+				handleGameMessage(outbound, command);
+			} catch (Exception e) {
+				e.printStackTrace();
 			}
-			
-		    GameDocument doc = gameDocument.get();
-			game = factory.fromDocument(doc);
-		}
+		});
+	}
 
-		JsonObject payload = received.get("payload").getAsJsonObject();
+	/**
+	 * Handles a message for the given game, which is loaded from the database if
+	 * it is not on this replica. Called for one message of a game at a time.
+	 */
+	private void handleGameMessage(WebSocketSession session, Command command)
+			throws InterruptedException, IOException {
+		// loaded from database if needed, once however many messages arrive for it meanwhile
+		Game game = factory.load(command.getGameId());
+
+		if (game == null) {
+			session.sendMessage(new TextMessage("Invalid game id."));
+			return;
+		}
 
-		switch (type) {
+		switch (command.getType()) {
 		case ACTION:
-			MessageReceivingHandlers.handleAction(session, game, payload);
+			MessageReceivingHandlers.handleAction(session, game, command);
+			break;
+		case RESYNC:
+			MessageReceivingHandlers.handleResync(session, game, command);
 			break;
 		default:
 			System.out.println("INVALID COMMAND");
@@ -70,9 +111,32 @@ public class WebSocketHandler extends TextWebSocketHandler {
 		}
 	}
 
+	/**
+	 * Tells the client its message was dropped; the connection stays open.
+	 */
+	private void rejectMessage(WebSocketSession session, IllegalArgumentException e) throws IOException {
+		System.out.println("Rejecting message: " + e.getMessage());
+
+		JsonObject error = new JsonObject();
+		error.addProperty("type", "ERROR");
+		error.addProperty("error", e.getMessage());
+		QueuedWebSocketSession.of(session).sendMessage(new TextMessage(error.toString()));
+	}
+
 	@Override
 	public void afterConnectionEstablished(WebSocketSession session) throws Exception {
 		// the messages will be broadcasted to all users.
 		sessions.add(session);
+		QueuedWebSocketSession.of(session);
+
+		// the container closes connections sending larger messages before buffering them
+		session.setTextMessageSizeLimit(Command.MAX_MESSAGE_SIZE);
+		session.setBinaryMessageSizeLimit(Command.MAX_MESSAGE_SIZE);
+	}
+
+	@Override
+	public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+		sessions.remove(session);
+		QueuedWebSocketSession.of(session).discard();
 	}
 }
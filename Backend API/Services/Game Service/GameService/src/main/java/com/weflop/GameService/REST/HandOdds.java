@@ -0,0 +1,69 @@
+package com.weflop.GameService.REST;
+
+/**
+ * POJO class wrapping the odds of a single hand exposed by our REST API.
+ * 
+ * @author abrevnov
+ */
+public class HandOdds {
+
+	private String hand;
+
+	private double win;
+
+	private double tie;
+
+	private double equity;
+
+	private boolean exact;
+
+	public HandOdds(String hand, double win, double tie, double equity, boolean exact) {
+		this.hand = hand;
+		this.win = win;
+		this.tie = tie;
+		this.equity = equity;
+		this.exact = exact;
+	}
+
+	/* Getters and Setters */
+
+	public String getHand() {
+		return hand;
+	}
+
+	public void setHand(String hand) {
+		this.hand = hand;
+	}
+
+	public double getWin() {
+		return win;
+	}
+
+	public void setWin(double win) {
+		this.win = win;
+	}
+
+	public double getTie() {
+		return tie;
+	}
+
+	public void setTie(double tie) {
+		this.tie = tie;
+	}
+
+	public double getEquity() {
+		return equity;
+	}
+
+	public void setEquity(double equity) {
+		this.equity = equity;
+	}
+
+	public boolean isExact() {
+		return exact;
+	}
+
+	public void setExact(boolean exact) {
+		this.exact = exact;
+	}
+}
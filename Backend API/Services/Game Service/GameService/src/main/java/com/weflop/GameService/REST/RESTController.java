@@ -6,16 +6,27 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import com.weflop.Cards.Card;
+import com.weflop.Evaluation.Equity.EquityResult;
+import com.weflop.Evaluation.Equity.EquityService;
+import com.weflop.Evaluation.Equity.MonteCarloEquityCalculator;
+import com.weflop.Evaluation.HandRankEvaluators;
+import com.weflop.Evaluation.IncrementalHandRankEvaluator;
 import com.weflop.GameService.Database.GameRepository;
 import com.weflop.GameService.Database.DomainObjects.GameDocument;
 import com.weflop.GameService.Game.Game;
 import com.weflop.GameService.Game.GameFactory;
 import com.weflop.GameService.Game.GameManager;
+import com.weflop.GameService.Game.GameType;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,20 +51,21 @@ public class RESTController {
 			@RequestParam(name = "small_blind", required = true) float smallBlind,
 			@RequestParam(name = "min_buy_in", required = true) int minBuyInBB,
 			@RequestParam(name = "max_buy_in", required = true) int maxBuyInBB,
-			@RequestParam(name = "time_bank", required = true) int timeBank
+			@RequestParam(name = "time_bank", required = true) int timeBank,
+			@RequestParam(name = "game_type", required = false, defaultValue = "STANDARD_REPRESENTATION") String gameType
 			) {
 		System.out.println("Creating game...");
 		if (smallBlind < 0.5) {
 			throw new IllegalArgumentException("Small blind must be greater than or equal to 0.5");
 		}
 
-		return factory.generateStandardPokerGame(name, smallBlind, minBuyInBB, maxBuyInBB, userId, timeBank); // returning id of newly created game
+		return factory.generatePokerGame(GameType.fromValue(gameType), name, smallBlind, minBuyInBB, maxBuyInBB, userId, timeBank); // returning id of newly created game
 	}
 
 	@GetMapping(BASE_URL + "/game-metadata")
 	@ResponseBody
 	public GameMetadata getGameMetadata(@RequestParam(name = "game_id", required = true) String gameId) {
-		Game game = GameManager.ID_TO_GAME.get(gameId);
+		Game game = GameManager.getLoaded(gameId); // waits for the game if it is being loaded
 		
 		// first, we check to see if game is on this replica
 		if (game != null) {
@@ -77,7 +89,7 @@ public class RESTController {
 	@GetMapping(BASE_URL + "/ledger")
 	@ResponseBody
 	public Map<String, Float> getGameLedger(@RequestParam(name = "game_id", required = true) String gameId) {
-		Game game = GameManager.ID_TO_GAME.get(gameId);
+		Game game = GameManager.getLoaded(gameId);
 		
 		// first, we check to see if game is on this replica
 		if (game != null) {
@@ -107,11 +119,65 @@ public class RESTController {
 				.collect(Collectors.toList());
 	}
 
+	@GetMapping(BASE_URL + "/odds")
+	@ResponseBody
+	public List<HandOdds> getOdds(@RequestParam(name = "hands", required = true) List<String> hands,
+			@RequestParam(name = "board", required = false, defaultValue = "") String board) {
+		// hands are given as pairs of short card names (e.g. "AsKd"), the board as
+		// up to five concatenated cards
+		if (hands.size() < 2 || hands.size() > 9) {
+			throw new IllegalArgumentException("Odds need between 2 and 9 hands");
+		}
+		if (board.length() % 2 != 0 || board.length() > 2 * MonteCarloEquityCalculator.BOARD_SIZE) {
+			throw new IllegalArgumentException("Invalid board: " + board);
+		}
+
+		long dealt = 0;
+		int[] holeCards = new int[hands.size() * 2];
+		for (int i = 0; i < hands.size(); i++) {
+			if (hands.get(i).length() != 4) {
+				throw new IllegalArgumentException("Invalid hand: " + hands.get(i));
+			}
+			for (int j = 0; j < 2; j++) {
+				holeCards[i * 2 + j] = Card.fromShortName(hands.get(i).substring(2 * j, 2 * j + 2)).getOrdinal();
+				dealt |= 1L << holeCards[i * 2 + j];
+			}
+		}
+		int[] boardCards = new int[board.length() / 2];
+		for (int i = 0; i < boardCards.length; i++) {
+			boardCards[i] = Card.fromShortName(board.substring(2 * i, 2 * i + 2)).getOrdinal();
+			dealt |= 1L << boardCards[i];
+		}
+		if (Long.bitCount(dealt) != holeCards.length + boardCards.length) {
+			throw new IllegalArgumentException("The same card cannot be dealt twice");
+		}
+
+		IncrementalHandRankEvaluator evaluator = HandRankEvaluators.getIncremental();
+		if (evaluator == null) {
+			throw new IllegalStateException("Odds are not available with the configured evaluator");
+		}
+
+		EquityResult result;
+		try {
+			result = EquityService.getInstance().submit(evaluator, holeCards, boardCards)
+					.get(2 * EquityService.DEADLINE_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException | ExecutionException | TimeoutException e) {
+			throw new IllegalStateException("Odds are not available right now", e);
+		}
+
+		List<HandOdds> odds = new ArrayList<HandOdds>();
+		for (int i = 0; i < hands.size(); i++) {
+			odds.add(new HandOdds(hands.get(i), result.getWinProbability(i), result.getTieProbability(i),
+					result.getEquity(i), result.isExact()));
+		}
+		return odds;
+	}
+
 	@PostMapping(BASE_URL + "/hide-game")
 	@ResponseBody
 	public void hideGame(@RequestParam(name = "game_id", required = true) String gameId,
 						 @RequestParam(name = "user_id", required = true) String userId) {
-		Game game = GameManager.ID_TO_GAME.get(gameId);
+		Game game = GameManager.getLoaded(gameId);
 
 		// first, we check to see if game is on this replica
 		if (game != null) {
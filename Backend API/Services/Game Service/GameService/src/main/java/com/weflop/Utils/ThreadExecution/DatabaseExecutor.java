@@ -0,0 +1,44 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DatabaseExecutor.java
+ *
+ * Threads saving games to the database, so neither the tables' event loops nor
+ * the timer workers they share ever wait on it. A slow database only delays
+ * saves.
+ *
+ * @author abrevnov
+ *
+ */
+public final class DatabaseExecutor {
+
+	private static final int THREADS = 4;
+
+	private static volatile ExecutorService instance;
+
+	private DatabaseExecutor() {
+	}
+
+	/**
+	 * @return Shared executor, started on first use
+	 */
+	public static ExecutorService getInstance() {
+		if (instance == null) {
+			synchronized (DatabaseExecutor.class) {
+				if (instance == null) {
+					AtomicInteger count = new AtomicInteger();
+					instance = Executors.newFixedThreadPool(THREADS, runnable -> {
+						Thread thread = new Thread(runnable, "database-" + count.getAndIncrement());
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+			}
+		}
+		return instance;
+	}
+}
@@ -0,0 +1,62 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameTimers.java
+ *
+ * Shared timers for every game in this replica, replacing a scheduler thread per
+ * game. Games are spread over a few hashed wheels by id, so the timed events of
+ * one game (turn expiry, mucking, saves, synchronization) always run in order
+ * on the same worker thread.
+ *
+ * @author abrevnov
+ *
+ */
+public final class GameTimers {
+
+	public static final long TICK_MILLIS = 100;
+
+	private static final int TICKS_PER_WHEEL = 1024; // about 100 seconds per rotation
+
+	private static final int MAX_SHARDS = 8;
+
+	private static volatile HashedWheelTimer[] shards;
+
+	private GameTimers() {
+	}
+
+	/**
+	 * @return Timer shared by all games hashed to the same shard as the given one
+	 */
+	public static HashedWheelTimer forGame(UUID gameId) {
+		return forKey(gameId);
+	}
+
+	/**
+	 * @return Timer shared by everything hashed to the same shard as the given
+	 *         key (e.g. a client session)
+	 */
+	public static HashedWheelTimer forKey(Object key) {
+		HashedWheelTimer[] timers = getShards();
+		return timers[Math.floorMod(key.hashCode(), timers.length)];
+	}
+
+	private static HashedWheelTimer[] getShards() {
+		if (shards == null) {
+			synchronized (GameTimers.class) {
+				if (shards == null) {
+					int count = Math.min(Runtime.getRuntime().availableProcessors(), MAX_SHARDS);
+					HashedWheelTimer[] timers = new HashedWheelTimer[count];
+					for (int i = 0; i < count; i++) {
+						timers[i] = new HashedWheelTimer("game-timer-" + i, TICK_MILLIS, TimeUnit.MILLISECONDS,
+								TICKS_PER_WHEEL);
+					}
+					shards = timers;
+				}
+			}
+		}
+		return shards;
+	}
+}
@@ -0,0 +1,88 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HandlerExecutor.java
+ *
+ * Executor for handling incoming messages off the servlet container's I/O
+ * threads. Handling blocks (waiting on a table's mailbox, loading a game from
+ * the database), so on JVMs with virtual threads each message gets its own;
+ * otherwise a pool of {@value #PLATFORM_THREADS} platform threads is used.
+ * Writes to clients run on SenderExecutor instead. Setting the system property
+ * {@value #VIRTUAL_THREADS_PROPERTY} to false forces the pool (for both).
+ *
+ * @author abrevnov
+ *
+ */
+public final class HandlerExecutor {
+
+	public static final String VIRTUAL_THREADS_PROPERTY = "weflop.handlers.virtual";
+
+	private static final int PLATFORM_THREADS = 64;
+
+	private static volatile ExecutorService instance;
+
+	private HandlerExecutor() {
+	}
+
+	/**
+	 * @return Shared executor, created on first use
+	 */
+	public static ExecutorService getInstance() {
+		if (instance == null) {
+			synchronized (HandlerExecutor.class) {
+				if (instance == null) {
+					instance = newExecutor("message-handler", PLATFORM_THREADS);
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * @return Executor running each task on a virtual thread if this JVM has them
+	 *         and they are not disabled, otherwise on a pool of platform threads
+	 */
+	static ExecutorService newExecutor(String name, int platformThreads) {
+		ExecutorService executor = null;
+		if (Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "true"))) {
+			executor = newVirtualThreadExecutor(name);
+		}
+		return executor != null ? executor : newPlatformThreadExecutor(name, platformThreads);
+	}
+
+	/**
+	 * @return Executor starting a virtual thread per task, or null if this JVM
+	 *         has none (the service targets Java 8, so it is looked up
+	 *         reflectively)
+	 */
+	private static ExecutorService newVirtualThreadExecutor(String name) {
+		try {
+			ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null);
+			System.out.printf("Running %s tasks on virtual threads\n", name);
+			return executor;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static ExecutorService newPlatformThreadExecutor(String name, int threads) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		System.out.printf("Running %s tasks on %d platform threads\n", name, threads);
+		return executor;
+	}
+}
@@ -0,0 +1,295 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * HashedWheelTimer.java
+ *
+ * Timer for many coarse, mostly cancelled timeouts (turn timers, mucking
+ * periods, periodic saves). Timeouts are hashed by their deadline tick into a
+ * ring of buckets, each a doubly linked list, so scheduling and cancelling are
+ * O(1); a single ticker thread wakes once per tick and expires the bucket of
+ * that tick. Deadlines are rounded up to the next tick.
+ *
+ * Expired tasks run on one worker thread rather than on the ticker, so a slow
+ * task (a database flush) delays other tasks of this wheel but never the
+ * wheel itself.
+ *
+ * @author abrevnov
+ *
+ */
+public class HashedWheelTimer {
+
+	private final long tickNanos;
+
+	private final Bucket[] wheel;
+
+	private final int mask;
+
+	private final long startTime; // value of system timer in nanoseconds at tick 0
+
+	private volatile long lastTick; // last tick expired, written while holding its bucket
+
+	private final Thread ticker;
+
+	private final ExecutorService worker;
+
+	private volatile boolean stopped;
+
+	public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+		Assert.isTrue(tickDuration > 0, "Tick duration must be positive");
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30, "Invalid number of ticks per wheel");
+
+		this.tickNanos = unit.toNanos(tickDuration);
+		int size = 1;
+		while (size < ticksPerWheel) {
+			size <<= 1; // power of two, so a tick maps to its bucket with a mask
+		}
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < wheel.length; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = wheel.length - 1;
+		this.startTime = System.nanoTime();
+		this.lastTick = 0;
+
+		this.worker = Executors.newSingleThreadExecutor(daemonThreadFactory(name + "-worker"));
+		this.ticker = daemonThreadFactory(name + "-ticker").newThread(new Runnable() {
+			@Override
+			public void run() {
+				tick();
+			}
+		});
+		this.ticker.start();
+	}
+
+	/**
+	 * Runs the task once after the given delay.
+	 */
+	public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+		Timeout timeout = new Timeout(task, 0);
+		timeout.deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+		insert(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Runs the task after the initial delay and then once every period, measured
+	 * from the previous deadline, until cancelled.
+	 */
+	public Timeout scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+		Assert.isTrue(period > 0, "Period must be positive");
+
+		Timeout timeout = new Timeout(task, unit.toNanos(period));
+		timeout.deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(initialDelay, 0));
+		insert(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Stops the ticker and worker; pending timeouts never run.
+	 */
+	public void stop() {
+		stopped = true;
+		ticker.interrupt();
+		worker.shutdownNow();
+	}
+
+	/**
+	 * @return Number of timeouts waiting in the wheel
+	 */
+	public int getPendingCount() {
+		int pending = 0;
+		for (Bucket bucket : wheel) {
+			synchronized (bucket) {
+				pending += bucket.size;
+			}
+		}
+		return pending;
+	}
+
+	/**
+	 * Adds the timeout to the bucket of its deadline tick, or of the next tick
+	 * still to be expired if its deadline has passed.
+	 */
+	private void insert(Timeout timeout) {
+		long deadlineTick = (timeout.deadline + tickNanos - 1) / tickNanos;
+		while (true) {
+			long tick = Math.max(deadlineTick, lastTick + 1);
+			Bucket bucket = wheel[(int) (tick & mask)];
+			synchronized (bucket) {
+				// the ticker sets lastTick while holding the bucket it expires, so if it
+				// has not reached this tick yet it will see the timeout
+				if (tick > lastTick) {
+					if (timeout.cancelled) {
+						return;
+					}
+					timeout.tick = tick;
+					timeout.bucket = bucket;
+					bucket.add(timeout);
+					return;
+				}
+			}
+		}
+	}
+
+	private void tick() {
+		long tick = lastTick + 1;
+		while (!stopped) {
+			long sleepNanos = startTime + tick * tickNanos - System.nanoTime();
+			if (sleepNanos > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(sleepNanos);
+				} catch (InterruptedException e) {
+					continue; // stopping
+				}
+				continue;
+			}
+
+			List<Timeout> expired = new ArrayList<Timeout>();
+			Bucket bucket = wheel[(int) (tick & mask)];
+			synchronized (bucket) {
+				lastTick = tick;
+				bucket.expire(tick, expired);
+			}
+
+			for (Timeout timeout : expired) {
+				try {
+					worker.execute(timeout);
+				} catch (RejectedExecutionException e) {
+					// worker shut down while stopping
+				}
+			}
+			tick++;
+		}
+	}
+
+	private static ThreadFactory daemonThreadFactory(final String name) {
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Handle to a scheduled task.
+	 */
+	public final class Timeout implements Runnable {
+
+		private final Runnable task;
+		private final long period; // in nanoseconds, 0 if the task runs once
+
+		private long deadline; // in nanoseconds since the wheel started
+		private long tick; // deadline rounded up to a tick
+
+		// guarded by the bucket
+		private volatile Bucket bucket;
+		private Timeout prev;
+		private Timeout next;
+
+		private volatile boolean cancelled;
+
+		private Timeout(Runnable task, long period) {
+			this.task = task;
+			this.period = period;
+		}
+
+		/**
+		 * Stops the task from running (again). A task that is already running
+		 * finishes.
+		 */
+		public void cancel() {
+			cancelled = true;
+			Bucket bucket = this.bucket;
+			if (bucket != null) {
+				synchronized (bucket) {
+					if (this.bucket == bucket) {
+						bucket.remove(this);
+					}
+				}
+			}
+		}
+
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		@Override
+		public void run() {
+			if (cancelled) {
+				return;
+			}
+			try {
+				task.run();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+			if (period > 0 && !cancelled) {
+				deadline += period;
+				insert(this);
+			}
+		}
+	}
+
+	/**
+	 * Timeouts hashed to one slot of the wheel.
+	 */
+	private static final class Bucket {
+
+		private Timeout head;
+		private int size;
+
+		private void add(Timeout timeout) {
+			timeout.prev = null;
+			timeout.next = head;
+			if (head != null) {
+				head.prev = timeout;
+			}
+			head = timeout;
+			size++;
+		}
+
+		private void remove(Timeout timeout) {
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			} else {
+				head = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+			size--;
+		}
+
+		/**
+		 * Moves timeouts due by the given tick to the list; later ones stay for
+		 * a future rotation.
+		 */
+		private void expire(long tick, List<Timeout> expired) {
+			Timeout timeout = head;
+			while (timeout != null) {
+				Timeout next = timeout.next;
+				if (timeout.tick <= tick) {
+					remove(timeout);
+					expired.add(timeout);
+				}
+				timeout = next;
+			}
+		}
+	}
+}
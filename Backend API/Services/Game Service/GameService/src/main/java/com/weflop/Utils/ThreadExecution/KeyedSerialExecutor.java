@@ -0,0 +1,54 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * KeyedSerialExecutor.java
+ *
+ * Runs tasks on an underlying executor, one at a time and in submission order
+ * for tasks sharing a key, and concurrently across keys. Each key only holds
+ * an entry while it has tasks queued or running: a submitted task is chained
+ * after the last one of its key, and removes the entry when it finishes and
+ * nothing was chained after it.
+ *
+ * @author abrevnov
+ *
+ */
+public class KeyedSerialExecutor {
+
+	private final Executor executor;
+
+	private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<String, CompletableFuture<Void>>();
+
+	public KeyedSerialExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Runs the task after every task previously submitted with the same key,
+	 * whether or not they failed.
+	 */
+	public void execute(String key, Runnable task) {
+		CompletableFuture<Void> tail = tails.compute(key, (k, previous) -> {
+			Runnable guarded = () -> {
+				try {
+					task.run();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			};
+			return previous == null ? CompletableFuture.runAsync(guarded, executor)
+					: previous.thenRunAsync(guarded, executor);
+		});
+		tail.whenComplete((result, e) -> tails.remove(key, tail));
+	}
+
+	/**
+	 * @return Number of keys with tasks queued or running
+	 */
+	public int getActiveKeys() {
+		return tails.size();
+	}
+}
@@ -0,0 +1,153 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Mailbox.java
+ *
+ * Single writer execution for one table. Any thread may post messages (actions,
+ * timer expirations, reads) to the lock-free queue; they are handled one at a
+ * time, in order, by whichever thread of the shared executor is draining the
+ * mailbox. Only one thread drains it at once, so the state the messages touch
+ * needs no locks. After a batch the mailbox goes back to the executor, so a busy
+ * table cannot starve the others sharing it.
+ *
+ * A message posting another message to its own mailbox and waiting for it runs
+ * it inline instead, as a re-entrant lock would. Waiting on the mailbox of
+ * another table from inside a message can deadlock the shared executor and must
+ * be avoided.
+ *
+ * @author abrevnov
+ *
+ */
+public class Mailbox implements Runnable {
+
+	private static final int BATCH_SIZE = 64; // messages handled before yielding to other tables
+
+	private final Queue<Runnable> messages = new ConcurrentLinkedQueue<Runnable>();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+	private final Executor executor;
+
+	private volatile Thread owner; // thread draining the mailbox, null while idle
+
+	public Mailbox(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Queues the message without waiting for it.
+	 */
+	public void post(Runnable message) {
+		messages.add(message);
+		schedule();
+	}
+
+	/**
+	 * Queues the task and waits for its result.
+	 *
+	 * @throws Exception
+	 *             Whatever the task threw
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		if (isOwner()) {
+			return task.call();
+		}
+
+		CompletableFuture<T> result = new CompletableFuture<T>();
+		post(() -> {
+			try {
+				result.complete(task.call());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+
+		try {
+			return result.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Queues the read and waits for its result.
+	 */
+	public <T> T get(Supplier<T> task) {
+		try {
+			return call(task::get);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting on mailbox", e);
+		} catch (Exception e) {
+			throw new IllegalStateException(e); // suppliers do not throw checked exceptions
+		}
+	}
+
+	/**
+	 * @return Whether the calling thread is the one handling this mailbox's
+	 *         messages
+	 */
+	public boolean isOwner() {
+		return owner == Thread.currentThread();
+	}
+
+	/**
+	 * @return Thread handling this mailbox's messages, or null while idle
+	 */
+	public Thread getOwner() {
+		return owner;
+	}
+
+	/**
+	 * Handles the next batch of messages. Called by the executor only.
+	 */
+	@Override
+	public void run() {
+		owner = Thread.currentThread();
+		try {
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				Runnable message = messages.poll();
+				if (message == null) {
+					break;
+				}
+				try {
+					message.run();
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		} finally {
+			owner = null;
+			scheduled.set(false);
+		}
+
+		// messages posted after the last poll, or left over from a full batch
+		if (!messages.isEmpty()) {
+			schedule();
+		}
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			executor.execute(this);
+		}
+	}
+}
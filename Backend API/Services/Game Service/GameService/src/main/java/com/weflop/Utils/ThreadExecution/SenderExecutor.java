@@ -0,0 +1,38 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * SenderExecutor.java
+ *
+ * Executor writing queued outbound messages to clients. Writes block on slow
+ * clients, so they get their own threads (virtual ones where the JVM has them,
+ * see HandlerExecutor): however many clients stall, incoming messages keep
+ * being handled.
+ *
+ * @author abrevnov
+ *
+ */
+public final class SenderExecutor {
+
+	private static final int PLATFORM_THREADS = 64;
+
+	private static volatile ExecutorService instance;
+
+	private SenderExecutor() {
+	}
+
+	/**
+	 * @return Shared executor, created on first use
+	 */
+	public static ExecutorService getInstance() {
+		if (instance == null) {
+			synchronized (SenderExecutor.class) {
+				if (instance == null) {
+					instance = HandlerExecutor.newExecutor("message-sender", PLATFORM_THREADS);
+				}
+			}
+		}
+		return instance;
+	}
+}
@@ -0,0 +1,42 @@
+package com.weflop.Utils.ThreadExecution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TableExecutor.java
+ *
+ * Event loop threads shared by the mailboxes of every table in this replica,
+ * one per core: tables scale across cores while each one is handled by a single
+ * thread at a time.
+ *
+ * @author abrevnov
+ *
+ */
+public final class TableExecutor {
+
+	private static volatile ExecutorService instance;
+
+	private TableExecutor() {
+	}
+
+	/**
+	 * @return Shared executor, started on first use
+	 */
+	public static ExecutorService getInstance() {
+		if (instance == null) {
+			synchronized (TableExecutor.class) {
+				if (instance == null) {
+					AtomicInteger count = new AtomicInteger();
+					instance = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+						Thread thread = new Thread(runnable, "table-" + count.getAndIncrement());
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+			}
+		}
+		return instance;
+	}
+}
@@ -0,0 +1,139 @@
+package com.weflop.Evaluation.Equity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Cards.Card;
+import com.weflop.Cards.CardValue;
+import com.weflop.Cards.Suit;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+public class EquityCalculatorTests {
+	
+	private final MonteCarloEquityCalculator monteCarlo = 
+			new MonteCarloEquityCalculator(TwoPlusTwoHandEvaluator.getInstance());
+	
+	private final ExhaustiveEquityCalculator exhaustive = 
+			new ExhaustiveEquityCalculator(TwoPlusTwoHandEvaluator.getInstance());
+	
+	@Test
+	public void acesAreFavoredOverKingsPreflop() {
+		int[] holeCards = { 
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.HEARTS, CardValue.ACE),
+				ordinal(Suit.SPADES, CardValue.KING), ordinal(Suit.HEARTS, CardValue.KING) 
+		};
+		
+		EquityResult result = monteCarlo.calculate(holeCards, new int[0], 200000, Long.MAX_VALUE);
+		
+		// exact equity of AsAh vs KsKh is about 82%
+		assertEquals(200000, result.getBoards());
+		assertEquals(0.82, result.getEquity(0), 0.01);
+		assertEquals(1.0, result.getEquity(0) + result.getEquity(1), 1e-9);
+	}
+	
+	@Test
+	public void samplingStopsAtDeadline() {
+		int[] holeCards = { 
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.HEARTS, CardValue.ACE),
+				ordinal(Suit.SPADES, CardValue.KING), ordinal(Suit.HEARTS, CardValue.KING) 
+		};
+		
+		EquityResult result = monteCarlo.calculate(holeCards, new int[0], Integer.MAX_VALUE, System.nanoTime());
+		
+		assertTrue(result.getBoards() < Integer.MAX_VALUE);
+	}
+	
+	@Test
+	public void turnEnumerationIsExact() {
+		int[] holeCards = { 
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.HEARTS, CardValue.ACE),
+				ordinal(Suit.SPADES, CardValue.KING), ordinal(Suit.HEARTS, CardValue.KING) 
+		};
+		int[] board = { 
+				ordinal(Suit.CLUBS, CardValue.TWO), ordinal(Suit.DIAMONDS, CardValue.SEVEN),
+				ordinal(Suit.HEARTS, CardValue.NINE), ordinal(Suit.SPADES, CardValue.JACK) 
+		};
+		
+		EquityResult result = exhaustive.calculate(holeCards, board);
+		
+		// kings only win with one of the two remaining kings
+		assertTrue(result.isExact());
+		assertEquals(44, result.getBoards());
+		assertEquals(2.0 / 44, result.getWinProbability(1), 1e-9);
+		assertEquals(42.0 / 44, result.getWinProbability(0), 1e-9);
+	}
+	
+	@Test
+	public void enumerationAgreesWithSampling() {
+		int[] holeCards = { 
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.HEARTS, CardValue.KING),
+				ordinal(Suit.CLUBS, CardValue.EIGHT), ordinal(Suit.DIAMONDS, CardValue.EIGHT),
+				ordinal(Suit.SPADES, CardValue.SEVEN), ordinal(Suit.SPADES, CardValue.SIX) 
+		};
+		int[] board = { 
+				ordinal(Suit.SPADES, CardValue.TWO), ordinal(Suit.SPADES, CardValue.NINE),
+				ordinal(Suit.HEARTS, CardValue.TEN) 
+		};
+		
+		EquityResult exact = exhaustive.calculate(holeCards, board);
+		EquityResult sampled = monteCarlo.calculate(holeCards, board, 200000, Long.MAX_VALUE);
+		
+		assertEquals(ExhaustiveEquityCalculator.countBoards(3, 3), exact.getBoards());
+		for (int player = 0; player < 3; player++) {
+			assertEquals(exact.getEquity(player), sampled.getEquity(player), 0.01);
+		}
+	}
+	
+	@Test
+	public void preflopEnumerationIsSplitAcrossCores() {
+		int[] holeCards = { 
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.HEARTS, CardValue.ACE),
+				ordinal(Suit.SPADES, CardValue.KING), ordinal(Suit.HEARTS, CardValue.KING) 
+		};
+		
+		EquityResult exact = exhaustive.calculate(holeCards, new int[0]);
+		
+		assertEquals(1712304, exact.getBoards());
+		assertEquals(0.82, exact.getEquity(0), 0.01);
+	}
+	
+	@Test
+	public void suitIsomorphicMatchupsShareAKey() {
+		int key = PreflopEquityTableGenerator.canonicalKey(
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.SPADES, CardValue.KING),
+				ordinal(Suit.HEARTS, CardValue.QUEEN), ordinal(Suit.DIAMONDS, CardValue.QUEEN));
+		
+		assertEquals(key, PreflopEquityTableGenerator.canonicalKey(
+				ordinal(Suit.HEARTS, CardValue.ACE), ordinal(Suit.HEARTS, CardValue.KING),
+				ordinal(Suit.SPADES, CardValue.QUEEN), ordinal(Suit.CLUBS, CardValue.QUEEN)));
+		assertEquals(key, PreflopEquityTableGenerator.canonicalKey(
+				ordinal(Suit.HEARTS, CardValue.QUEEN), ordinal(Suit.DIAMONDS, CardValue.QUEEN),
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.SPADES, CardValue.KING)));
+		assertNotEquals(key, PreflopEquityTableGenerator.canonicalKey(
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.SPADES, CardValue.KING),
+				ordinal(Suit.SPADES, CardValue.QUEEN), ordinal(Suit.DIAMONDS, CardValue.QUEEN)));
+	}
+	
+	@Test
+	public void preflopTableEntriesMatchEnumeration() {
+		int[] holeCards = { 
+				ordinal(Suit.SPADES, CardValue.ACE), ordinal(Suit.SPADES, CardValue.KING),
+				ordinal(Suit.HEARTS, CardValue.QUEEN), ordinal(Suit.DIAMONDS, CardValue.QUEEN) 
+		};
+		PreflopEquityTableGenerator generator = 
+				new PreflopEquityTableGenerator(TwoPlusTwoHandEvaluator.getInstance(), 1);
+		
+		char[] entry = generator.enumerate(holeCards[0], holeCards[1], holeCards[2], holeCards[3]);
+		EquityResult exact = exhaustive.calculate(holeCards, new int[0]);
+		
+		assertEquals(exact.getWinProbability(0), entry[0] / 65535.0, 1e-4);
+		assertEquals(exact.getTieProbability(0), entry[1] / 65535.0, 1e-4);
+	}
+	
+	private static int ordinal(Suit suit, CardValue value) {
+		return new Card(suit, value).getOrdinal();
+	}
+}
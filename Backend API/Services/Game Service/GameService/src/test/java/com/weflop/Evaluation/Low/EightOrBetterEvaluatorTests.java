@@ -0,0 +1,108 @@
+package com.weflop.Evaluation.Low;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.Hand;
+
+public class EightOrBetterEvaluatorTests {
+
+	private final EightOrBetterEvaluator HOLDEM = new EightOrBetterEvaluator(0);
+
+	private final EightOrBetterEvaluator OMAHA = new EightOrBetterEvaluator(2);
+
+	@Test
+	public void lowerHighestCardWins() {
+		Board board = new Board(cards("As", "2d", "4c", "Kh", "Qs"));
+		int wheel = HOLDEM.evaluate(board, new Hand(cards("3h", "5h")));
+		int sixLow = HOLDEM.evaluate(board, new Hand(cards("3h", "6h")));
+		int eightLow = HOLDEM.evaluate(board, new Hand(cards("7h", "8h")));
+
+		assertTrue(wheel > sixLow);
+		assertTrue(sixLow > eightLow);
+		assertTrue(eightLow > EightOrBetterEvaluator.NO_LOW);
+	}
+
+	@Test
+	public void pairsAndHighCardsDoNotQualify() {
+		Board board = new Board(cards("As", "2d", "4c", "Kh", "9s"));
+
+		assertEquals(EightOrBetterEvaluator.NO_LOW, HOLDEM.evaluate(board, new Hand(cards("Ah", "4h"))));
+		assertEquals(EightOrBetterEvaluator.NO_LOW, HOLDEM.evaluate(board, new Hand(cards("5h", "9h"))));
+	}
+
+	@Test
+	public void omahaLowUsesTwoHoleCardsAndThreeCenterCards() {
+		Hand hand = new Hand(cards("4h", "5h", "9c", "9d"));
+
+		assertEquals(HOLDEM.evaluate(new Board(cards("As", "2d", "3c", "Kh", "Qs")), new Hand(cards("4h", "5h"))),
+				OMAHA.evaluate(new Board(cards("As", "2d", "3c", "Kh", "Qs")), hand));
+		// only two low center cards
+		assertEquals(EightOrBetterEvaluator.NO_LOW,
+				OMAHA.evaluate(new Board(cards("As", "2d", "Jc", "Kh", "Qs")), hand));
+		// three low hole cards cannot all be used
+		assertEquals(EightOrBetterEvaluator.NO_LOW,
+				OMAHA.evaluate(new Board(cards("As", "2d", "Jc", "Kh", "Qs")), new Hand(cards("3h", "4h", "5h", "9d"))));
+	}
+
+	@Test
+	public void omahaTableMatchesEnumeration() {
+		Random random = new Random(11);
+		for (int trial = 0; trial < 2000; trial++) {
+			List<Card> deck = new ArrayList<Card>();
+			for (int ordinal = 0; ordinal < 52; ordinal++) {
+				deck.add(Card.fromOrdinal(ordinal));
+			}
+			List<Card> hole = new ArrayList<Card>();
+			List<Card> board = new ArrayList<Card>();
+			for (int i = 0; i < 9; i++) {
+				(i < 4 ? hole : board).add(deck.remove(random.nextInt(deck.size())));
+			}
+
+			int expected = EightOrBetterEvaluator.NO_LOW;
+			for (int h1 = 0; h1 < hole.size(); h1++) {
+				for (int h2 = h1 + 1; h2 < hole.size(); h2++) {
+					for (int b1 = 0; b1 < board.size(); b1++) {
+						for (int b2 = b1 + 1; b2 < board.size(); b2++) {
+							for (int b3 = b2 + 1; b3 < board.size(); b3++) {
+								List<Card> five = new ArrayList<Card>();
+								five.add(hole.get(h1));
+								five.add(hole.get(h2));
+								five.add(board.get(b1));
+								five.add(board.get(b2));
+								five.add(board.get(b3));
+								expected = Math.max(expected, fiveCardLow(five));
+							}
+						}
+					}
+				}
+			}
+
+			assertEquals(expected, OMAHA.evaluate(new Board(board), new Hand(hole)));
+		}
+	}
+
+	/**
+	 * Low of exactly five cards, which must all have distinct low ranks.
+	 */
+	private static int fiveCardLow(List<Card> five) {
+		int mask = EightOrBetterEvaluator.rankMask(five);
+		return Integer.bitCount(mask) == 5 ? EightOrBetterEvaluator.evaluateAnyFive(mask) : EightOrBetterEvaluator.NO_LOW;
+	}
+
+	private static List<Card> cards(String... names) {
+		List<Card> cards = new ArrayList<Card>();
+		for (String name : names) {
+			cards.add(Card.fromShortName(name));
+		}
+		return cards;
+	}
+}
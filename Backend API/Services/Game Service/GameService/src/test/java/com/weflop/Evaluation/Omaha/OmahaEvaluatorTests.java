@@ -0,0 +1,107 @@
+package com.weflop.Evaluation.Omaha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.Hand;
+import com.weflop.Evaluation.HandClassification;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+public class OmahaEvaluatorTests {
+
+	private final TwoPlusTwoHandEvaluator FIVE_CARD_EVALUATOR = TwoPlusTwoHandEvaluator.getInstance();
+
+	@Test
+	public void flushRequiresTwoSuitedHoleCards() {
+		Board board = new Board(cards("2h", "7h", "9h", "Jh", "Kc"));
+		Hand hand = new Hand(cards("Ah", "Ac", "Qd", "3s"));
+
+		OmahaHandEvaluator omaha = new OmahaHandEvaluator(FIVE_CARD_EVALUATOR, 4);
+		// the same board makes a flush with one heart in hold'em
+		assertEquals(HandClassification.FLUSH,
+				FIVE_CARD_EVALUATOR.evaluate(board, new Hand(cards("Ah", "Ac"))).getHandType());
+		assertEquals(HandClassification.PAIR, omaha.evaluate(board, hand).getHandType());
+	}
+
+	@Test
+	public void matchesNaiveEnumeration() {
+		Random random = new Random(7);
+		for (int cardsDealt = 4; cardsDealt <= 6; cardsDealt++) {
+			OmahaHandEvaluator omaha = new OmahaHandEvaluator(FIVE_CARD_EVALUATOR, cardsDealt);
+			for (int trial = 0; trial < 500; trial++) {
+				int boardSize = 3 + random.nextInt(3);
+				int[] cards = deal(random, cardsDealt + boardSize);
+				int[] holeCards = new int[cardsDealt];
+				System.arraycopy(cards, 0, holeCards, 0, cardsDealt);
+				List<Card> boardCards = new ArrayList<Card>();
+				for (int i = cardsDealt; i < cards.length; i++) {
+					boardCards.add(Card.fromOrdinal(cards[i]));
+				}
+
+				int expected = naive(holeCards, cards, cardsDealt);
+				int[] ranks = new int[1];
+				omaha.evaluateAll(new Board(boardCards), holeCards, cardsDealt, 1, ranks);
+
+				assertEquals(expected, omaha.evaluate(cards, cards.length));
+				assertEquals(expected, ranks[0]);
+			}
+		}
+	}
+
+	/**
+	 * Best of every two hole card and three center card combination, each
+	 * evaluated on its own.
+	 */
+	private int naive(int[] holeCards, int[] cards, int cardsDealt) {
+		int best = Integer.MIN_VALUE;
+		int[] hand = new int[5];
+		for (int h1 = 0; h1 < cardsDealt; h1++) {
+			for (int h2 = h1 + 1; h2 < cardsDealt; h2++) {
+				for (int b1 = cardsDealt; b1 < cards.length; b1++) {
+					for (int b2 = b1 + 1; b2 < cards.length; b2++) {
+						for (int b3 = b2 + 1; b3 < cards.length; b3++) {
+							hand[0] = holeCards[h1];
+							hand[1] = holeCards[h2];
+							hand[2] = cards[b1];
+							hand[3] = cards[b2];
+							hand[4] = cards[b3];
+							best = Math.max(best, FIVE_CARD_EVALUATOR.evaluate(hand, 5));
+						}
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	private static int[] deal(Random random, int count) {
+		int[] deck = new int[52];
+		for (int i = 0; i < deck.length; i++) {
+			deck[i] = i;
+		}
+		for (int i = 0; i < count; i++) {
+			int j = i + random.nextInt(deck.length - i);
+			int card = deck[j];
+			deck[j] = deck[i];
+			deck[i] = card;
+		}
+		int[] cards = new int[count];
+		System.arraycopy(deck, 0, cards, 0, count);
+		return cards;
+	}
+
+	private static List<Card> cards(String... names) {
+		List<Card> cards = new ArrayList<Card>();
+		for (String name : names) {
+			cards.add(Card.fromShortName(name));
+		}
+		return cards;
+	}
+}
@@ -0,0 +1,59 @@
+package com.weflop.Evaluation.PerfectHash;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Evaluation.Omaha.OmahaHandEvaluator;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandEvaluator;
+
+public class PerfectHashEvaluatorTests {
+
+	private final PerfectHashHandEvaluator EVALUATOR = PerfectHashHandEvaluator.getInstance();
+
+	private final TwoPlusTwoHandEvaluator TWO_PLUS_TWO = TwoPlusTwoHandEvaluator.getInstance();
+
+	@Test
+	public void tablesStaySmall() {
+		assertTrue(EVALUATOR.getTableBytes() < 256 * 1024);
+	}
+
+	@Test
+	public void matchesTwoPlusTwo() {
+		Random random = new Random(3);
+		for (int trial = 0; trial < 100000; trial++) {
+			int[] cards = deal(random, 5 + random.nextInt(3));
+			assertEquals(TWO_PLUS_TWO.evaluate(cards, cards.length), EVALUATOR.evaluate(cards, cards.length));
+		}
+	}
+
+	@Test
+	public void omahaMatchesTwoPlusTwo() {
+		Random random = new Random(9);
+		OmahaHandEvaluator hashed = new OmahaHandEvaluator(EVALUATOR, 4);
+		OmahaHandEvaluator incremental = new OmahaHandEvaluator(TWO_PLUS_TWO, 4);
+		for (int trial = 0; trial < 2000; trial++) {
+			int[] cards = deal(random, 9);
+			assertEquals(incremental.evaluate(cards, cards.length), hashed.evaluate(cards, cards.length));
+		}
+	}
+
+	private static int[] deal(Random random, int count) {
+		int[] deck = new int[52];
+		for (int i = 0; i < deck.length; i++) {
+			deck[i] = i;
+		}
+		for (int i = 0; i < count; i++) {
+			int j = i + random.nextInt(deck.length - i);
+			int card = deck[j];
+			deck[j] = deck[i];
+			deck[i] = card;
+		}
+		int[] cards = new int[count];
+		System.arraycopy(deck, 0, cards, 0, count);
+		return cards;
+	}
+}
@@ -0,0 +1,96 @@
+package com.weflop.Evaluation.ShortDeck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Cards.Board;
+import com.weflop.Cards.Card;
+import com.weflop.Cards.Hand;
+import com.weflop.Cards.ShortDeck;
+import com.weflop.Evaluation.HandClassification;
+import com.weflop.Evaluation.HandRank;
+
+public class ShortDeckEvaluatorTests {
+
+	private final ShortDeckHandEvaluator EVALUATOR = ShortDeckHandEvaluator.getInstance();
+
+	@Test
+	public void flushBeatsFullHouse() {
+		Board board = new Board(cards("9h", "9s", "Th", "Kh", "6c"));
+		HandRank flush = EVALUATOR.evaluate(board, new Hand(cards("Ah", "7h")));
+		HandRank fullHouse = EVALUATOR.evaluate(board, new Hand(cards("9d", "Kd")));
+
+		assertEquals(HandClassification.FLUSH, flush.getHandType());
+		assertEquals(HandClassification.FULL_HOUSE, fullHouse.getHandType());
+		assertTrue(flush.compareTo(fullHouse) > 0);
+	}
+
+	@Test
+	public void aceSixStraightIsLowestStraight() {
+		Board board = new Board(cards("6h", "7s", "8d", "Kh", "Kc"));
+		HandRank lowStraight = EVALUATOR.evaluate(board, new Hand(cards("Ac", "9d")));
+		HandRank straight = EVALUATOR.evaluate(board, new Hand(cards("9c", "Td")));
+		HandRank trips = EVALUATOR.evaluate(board, new Hand(cards("Kd", "Qs")));
+
+		assertEquals(HandClassification.STRAIGHT, lowStraight.getHandType());
+		assertTrue(straight.compareTo(lowStraight) > 0);
+		assertTrue(lowStraight.compareTo(trips) > 0);
+	}
+
+	@Test
+	public void tableMatchesBestFiveCardHand() {
+		Random random = new Random(5);
+		ShortDeck deck = new ShortDeck();
+		for (int trial = 0; trial < 2000; trial++) {
+			deck.shuffle();
+			int[] cards = new int[5 + random.nextInt(3)];
+			for (int i = 0; i < cards.length; i++) {
+				cards[i] = deck.dealCard().getOrdinal();
+			}
+
+			assertEquals(bestFiveCardHand(cards), EVALUATOR.evaluate(cards, cards.length));
+		}
+	}
+
+	/**
+	 * Best value of every five card subset, each computed directly.
+	 */
+	private static int bestFiveCardHand(int[] cards) {
+		int best = 0;
+		for (int subset = 0; subset < 1 << cards.length; subset++) {
+			if (Integer.bitCount(subset) != 5) {
+				continue;
+			}
+			int[] rankCounts = new int[13];
+			int[] suitMasks = new int[4];
+			for (int i = 0; i < cards.length; i++) {
+				if ((subset >> i & 1) != 0) {
+					rankCounts[cards[i] >> 2]++;
+					suitMasks[cards[i] & 3] |= 1 << (cards[i] >> 2);
+				}
+			}
+			int flushMask = 0;
+			for (int mask : suitMasks) {
+				if (Integer.bitCount(mask) == 5) {
+					flushMask = mask;
+				}
+			}
+			best = Math.max(best, ShortDeckRankCalculator.evaluate(rankCounts, flushMask));
+		}
+		return best;
+	}
+
+	private static List<Card> cards(String... names) {
+		List<Card> cards = new ArrayList<Card>();
+		for (String name : names) {
+			cards.add(Card.fromShortName(name));
+		}
+		return cards;
+	}
+}
@@ -1,5 +1,6 @@
 package com.weflop.Evaluation.TwoPlusTwo;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -15,12 +16,14 @@ import com.weflop.Cards.Suit;
 import com.weflop.Evaluation.HandClassification;
 import com.weflop.Evaluation.HandRank;
 import com.weflop.Evaluation.HandRankEvaluator;
+import com.weflop.Evaluation.PerfectHash.PerfectHashHandEvaluator;
 
 public class TwoPlusTwoEvaluatorTests {
 	
 	private final HandRankEvaluator[] EVALUATORS = 
 		{ 
-			TwoPlusTwoHandEvaluator.getInstance() 
+			TwoPlusTwoHandEvaluator.getInstance(),
+			PerfectHashHandEvaluator.getInstance()
 		};
 	
 	@Test
@@ -311,6 +314,52 @@ public class TwoPlusTwoEvaluatorTests {
         }
 	}
 	
+	@Test
+    public void batchMatchesSingleEvaluation() {
+        List<Card> table = new ArrayList<Card>();
+        table.add(new Card(Suit.DIAMONDS, CardValue.TEN));
+        table.add(new Card(Suit.SPADES, CardValue.JACK));
+        table.add(new Card(Suit.DIAMONDS, CardValue.SEVEN));
+        table.add(new Card(Suit.SPADES, CardValue.ACE));
+        table.add(new Card(Suit.DIAMONDS, CardValue.KING));
+        Board board = new Board(table);
+        
+        // every pair of live cards, repeated so the batch is large enough to be split
+        int[] holeCards = new int[20000 * 2];
+        int count = 0;
+        while (count < 20000) {
+        	for (int c1 = 0; c1 < 52 && count < 20000; c1++) {
+        		for (int c2 = c1 + 1; c2 < 52 && count < 20000; c2++) {
+        			if (!containsOrdinal(table, c1) && !containsOrdinal(table, c2)) {
+        				holeCards[count * 2] = c1;
+        				holeCards[count * 2 + 1] = c2;
+        				count++;
+        			}
+        		}
+        	}
+        }
+        
+        for (HandRankEvaluator evaluator : EVALUATORS) {
+        	int[] ranks = new int[count];
+        	evaluator.evaluateAll(board, holeCards, 2, count, ranks);
+        	for (int i = 0; i < count; i++) {
+        		List<Card> hand = new ArrayList<Card>();
+        		hand.add(Card.fromOrdinal(holeCards[i * 2]));
+        		hand.add(Card.fromOrdinal(holeCards[i * 2 + 1]));
+        		assertEquals(evaluateOrdinals(evaluator, hand, table), ranks[i]);
+        	}
+        }
+	}
+	
+	private boolean containsOrdinal(List<Card> cards, int ordinal) {
+		for (Card card : cards) {
+			if (card.getOrdinal() == ordinal) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	private int compareAndAssertHandTypes(HandRankEvaluator evaluator, List<Card> h1, HandClassification type1, 
 			List<Card> h2, HandClassification type2, List<Card> table){
 		Hand hand1 = new Hand(h1);
@@ -322,6 +371,23 @@ public class TwoPlusTwoEvaluatorTests {
 		HandRank rank2 = evaluator.evaluate(board, hand2);
 		assertTrue(rank1.getHandType() == type1, String.format("Expected: %s, got: %s\n", type1.toString(), rank1.getHandType().toString()));
 		assertTrue(rank2.getHandType() == type2, String.format("Expected: %s, got: %s\n", type2.toString(), rank2.getHandType().toString()));
+		assertEquals(rank1.getValue(), evaluateOrdinals(evaluator, h1, table));
+		assertEquals(rank2.getValue(), evaluateOrdinals(evaluator, h2, table));
 		return rank1.compareTo(rank2);
 	}
+	
+	private int evaluateOrdinals(HandRankEvaluator evaluator, List<Card> hand, List<Card> table) {
+		int[] cards = new int[7];
+		int len = 0;
+		for (Card card : table) {
+			cards[len++] = card.getOrdinal();
+		}
+		for (Card card : hand) {
+			Card shared = Card.fromOrdinal(card.getOrdinal());
+			assertEquals(card.getSuit(), shared.getSuit());
+			assertEquals(card.getCardValue(), shared.getCardValue());
+			cards[len++] = card.getOrdinal();
+		}
+		return evaluator.evaluate(cards, len);
+	}
 }
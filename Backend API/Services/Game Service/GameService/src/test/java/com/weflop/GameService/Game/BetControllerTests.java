@@ -0,0 +1,110 @@
+package com.weflop.GameService.Game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Cards.Hand;
+import com.weflop.Evaluation.Low.EightOrBetterEvaluator;
+import com.weflop.Evaluation.TwoPlusTwo.TwoPlusTwoHandRank;
+
+public class BetControllerTests {
+
+	private static final float DELTA = 0.001f;
+
+	@Test
+	public void awardsWholePotToHighWithoutQualifyingLow() {
+		Player high = player("high", 2000, EightOrBetterEvaluator.NO_LOW);
+		Player other = player("other", 1000, EightOrBetterEvaluator.NO_LOW);
+
+		List<Action> potsWon = distribute(high, pot(100, high, other));
+
+		assertEquals(100, high.getBalance(), DELTA);
+		assertEquals(0, other.getBalance(), DELTA);
+		assertEquals(1, potsWon.size());
+		assertPotWon(potsWon.get(0), 100, high);
+	}
+
+	@Test
+	public void splitsPotBetweenDifferentHighAndLowWinners() {
+		Player high = player("high", 2000, EightOrBetterEvaluator.NO_LOW);
+		Player low = player("low", 1000, 300);
+		Player worseLow = player("worseLow", 1500, 200);
+
+		List<Action> potsWon = distribute(high, pot(100, high, low, worseLow));
+
+		assertEquals(50, high.getBalance(), DELTA);
+		assertEquals(50, low.getBalance(), DELTA);
+		assertEquals(0, worseLow.getBalance(), DELTA);
+		assertEquals(2, potsWon.size());
+		assertPotWon(potsWon.get(0), 50, high);
+		assertPotWon(potsWon.get(1), 50, low);
+	}
+
+	@Test
+	public void quartersPotWhenTwoPlayersTieForLow() {
+		Player scoop = player("scoop", 2000, 300);
+		Player quarter = player("quarter", 1000, 300);
+		Player loser = player("loser", 1500, 200);
+
+		List<Action> potsWon = distribute(scoop, pot(100, scoop, quarter, loser));
+
+		assertEquals(75, scoop.getBalance(), DELTA);
+		assertEquals(25, quarter.getBalance(), DELTA);
+		assertEquals(0, loser.getBalance(), DELTA);
+		assertEquals(2, potsWon.size());
+		assertPotWon(potsWon.get(0), 50, scoop);
+		assertPotWon(potsWon.get(1), 50, scoop, quarter);
+	}
+
+	@Test
+	public void splitsOnlyPotsWithAQualifyingLow() {
+		Player high = player("high", 2000, EightOrBetterEvaluator.NO_LOW);
+		Player noLow = player("noLow", 1000, EightOrBetterEvaluator.NO_LOW);
+		Player allInLow = player("allInLow", 500, 300);
+
+		// allInLow has no claim on the side pot, which nobody left in it can win low
+		List<Action> potsWon = distribute(high, pot(90, high, noLow, allInLow), pot(40, high, noLow));
+
+		assertEquals(85, high.getBalance(), DELTA);
+		assertEquals(45, allInLow.getBalance(), DELTA);
+		assertEquals(0, noLow.getBalance(), DELTA);
+		assertEquals(3, potsWon.size());
+		assertPotWon(potsWon.get(0), 45, high);
+		assertPotWon(potsWon.get(1), 45, allInLow);
+		assertPotWon(potsWon.get(2), 40, high);
+	}
+
+	private static Player player(String id, int rankValue, int lowRank) {
+		Hand hand = new Hand();
+		hand.setRank(new TwoPlusTwoHandRank(rankValue));
+		hand.setLowRank(lowRank);
+		return new Player(id, null, hand);
+	}
+
+	private static Pot pot(float size, Player... players) {
+		Pot pot = new Pot();
+		pot.setSize(size);
+		pot.addAllPlayers(Arrays.asList(players));
+		return pot;
+	}
+
+	private static List<Action> distribute(Player lastRaisePlayer, Pot... pots) {
+		BetController controller = new BetController(1, 2, 40, 200);
+		controller.setLastRaisePlayer(lastRaisePlayer);
+		return controller.distributePots(new Group(6), Arrays.asList(pots)).stream()
+				.map(Propagatable::getAction)
+				.filter(action -> action.getType() == ActionType.POT_WON)
+				.collect(Collectors.toList());
+	}
+
+	private static void assertPotWon(Action action, float amount, Player... winners) {
+		assertEquals(amount, action.getValue(), DELTA);
+		assertEquals(Arrays.stream(winners).map(Player::getId).sorted().collect(Collectors.toList()),
+				action.getPlayerIds().stream().sorted().collect(Collectors.toList()));
+	}
+}
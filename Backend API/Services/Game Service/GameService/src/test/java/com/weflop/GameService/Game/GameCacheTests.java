@@ -0,0 +1,59 @@
+package com.weflop.GameService.Game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.GameService.Game.Simulation.InMemoryGameRepository;
+import com.weflop.GameService.Game.Simulation.NoOpWebSocketSession;
+import com.weflop.GameService.Game.Simulation.SimulatedPokerGame;
+
+public class GameCacheTests {
+
+	@Test
+	public void evictsGamesLeftIdleWithNobodyAtThem() throws Exception {
+		AtomicLong clock = new AtomicLong();
+		GameCache cache = new GameCache(10, TimeUnit.MINUTES, Long.MAX_VALUE, clock::get);
+		Game idle = newGame();
+		Game watched = newGame();
+		watched.performAction(new Action.ActionBuilder(ActionType.JOIN).withPlayerId("player0")
+				.withSession(new NoOpWebSocketSession("player0")).build());
+		Game recent = newGame();
+		for (Game game : new Game[] { idle, watched, recent }) {
+			cache.put(game.getGameId(), game);
+		}
+
+		clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+		cache.get(recent.getGameId());
+
+		assertEquals(Collections.singletonList(idle.getGameId()), cache.selectEvictions());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedGamesOverBudget() {
+		AtomicLong clock = new AtomicLong();
+		Game older = newGame();
+		Game newer = newGame();
+		long budget = older.getWeight() + newer.getWeight() / 2;
+		GameCache cache = new GameCache(10, TimeUnit.MINUTES, budget, clock::get);
+
+		cache.put(newer.getGameId(), newer);
+		cache.put(older.getGameId(), older);
+		clock.incrementAndGet();
+		cache.get(newer.getGameId());
+
+		assertEquals(Arrays.asList(older.getGameId()), cache.selectEvictions());
+		assertEquals(older.getWeight() + newer.getWeight(), cache.getWeight());
+	}
+
+	private static Game newGame() {
+		return new SimulatedPokerGame(new InMemoryGameRepository(),
+				new GameCustomMetadata("table", 1, 20, 100, "player0", 30), new Random(1));
+	}
+}
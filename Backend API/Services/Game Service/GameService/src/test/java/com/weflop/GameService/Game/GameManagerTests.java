@@ -0,0 +1,70 @@
+package com.weflop.GameService.Game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.GameService.Game.Simulation.InMemoryGameRepository;
+import com.weflop.GameService.Game.Simulation.SimulatedPokerGame;
+
+public class GameManagerTests {
+
+	@Test
+	public void loadsEachGameOnce() throws Exception {
+		Game game = new SimulatedPokerGame(new InMemoryGameRepository(),
+				new GameCustomMetadata("table", 1, 20, 100, "player0", 30), new Random(1));
+		String gameId = game.getGameId();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Game>> results = new ArrayList<Future<Game>>();
+			for (int i = 0; i < 8; i++) {
+				results.add(callers.submit(() -> GameManager.getOrLoad(gameId, id -> {
+					loads.incrementAndGet();
+					try {
+						release.await(); // e.g. waiting on the database
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					GameManager.ID_TO_GAME.put(id, game);
+					return game;
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<Game> result : results) {
+				assertSame(game, result.get());
+			}
+			assertEquals(1, loads.get());
+			assertSame(game, GameManager.getLoaded(gameId));
+		} finally {
+			release.countDown();
+			callers.shutdownNow();
+			GameManager.ID_TO_GAME.remove(gameId);
+		}
+	}
+
+	@Test
+	public void retriesFailedLoads() {
+		assertThrows(IllegalStateException.class, () -> GameManager.getOrLoad("missing", id -> {
+			throw new IllegalStateException("database unavailable");
+		}));
+		assertNull(GameManager.getOrLoad("missing", id -> null)); // no such game
+		assertNull(GameManager.getLoaded("missing"));
+	}
+}
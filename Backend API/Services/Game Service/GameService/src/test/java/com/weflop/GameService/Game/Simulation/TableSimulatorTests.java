@@ -0,0 +1,24 @@
+package com.weflop.GameService.Game.Simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.GameService.Game.GameType;
+
+public class TableSimulatorTests {
+
+	@Test
+	public void headsUpTablePlaysThrough() throws Exception {
+		TableSimulator simulator = new TableSimulator(GameType.STANDARD_REPRESENTATION,
+				Arrays.asList(BotStrategy.RANDOM, BotStrategy.AGGRESSIVE), 3);
+		try {
+			simulator.run(200, System.out);
+			assertEquals(0, simulator.getRejectedActions());
+		} finally {
+			simulator.shutdown();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.weflop.GameService.Networking;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.Cards.Card;
+import com.weflop.GameService.Game.Action;
+import com.weflop.GameService.Game.ActionType;
+
+public class BinaryProtocolTests {
+
+	private static final String GAME_ID = "5f0c3e52-8d4b-4f7e-9a51-2c1d7b3e9f60";
+
+	private static final String PLAYER_ID = "0b9d6a7e-3c2f-4e8a-b1d5-7f6e4c3a2b10";
+
+	@Test
+	public void writesRaise() throws Exception {
+		PlayerIndexes indexes = new PlayerIndexes();
+		Action raise = new Action.ActionBuilder(ActionType.RAISE).withPlayerId(PLAYER_ID).withValue(20.5f).build();
+
+		byte[] introducing = BinaryProtocol.encodeAction(GAME_ID, raise, 300, indexes);
+		byte[] indexed = BinaryProtocol.encodeAction(GAME_ID, raise, 300, indexes);
+
+		ByteArrayOutputStream expected = header(MessageType.ACTION);
+		expected.write(ActionType.RAISE.ordinal());
+		expected.write(new byte[] { (byte) 0xAC, 0x02 }); // epoch 300
+		expected.write(BinaryProtocol.FIELD_PARTICIPANT | BinaryProtocol.FIELD_VALUE);
+		expected.write(1 << 1); // index 1
+		expected.write(new byte[] { (byte) 0x84, 0x20 }); // 2050 hundredths, zigzag encoded
+		assertArrayEquals(expected.toByteArray(), indexed);
+
+		assertEquals(indexed.length + PLAYER_ID.length() + 1, introducing.length); // id and its length
+		int json = MessageSendingHandlers.encodeAction(GAME_ID, raise, 300).getPayload().length();
+		assertTrue(indexed.length * 5 < json, indexed.length + " bytes against " + json);
+	}
+
+	@Test
+	public void writesIdsOfPrivateFramesWithoutIndexingThem() throws Exception {
+		PlayerIndexes indexes = new PlayerIndexes();
+		Action showdown = new Action.ActionBuilder(ActionType.SHOW_CARDS).withPlayerId(PLAYER_ID)
+				.withCards(Arrays.asList(Card.fromShortName("Ah"), Card.fromShortName("Kd"))).build();
+
+		byte[] unindexed = BinaryProtocol.encodeAction(GAME_ID, showdown, 7, null);
+		BinaryProtocol.encodeAction(GAME_ID, showdown, 7, indexes);
+		byte[] indexed = BinaryProtocol.encodeAction(GAME_ID, showdown, 7, indexes);
+
+		assertEquals(1, indexes.indexOf(PLAYER_ID));
+		assertEquals(indexed.length + PLAYER_ID.length() + 1, unindexed.length);
+		assertEquals(Card.fromShortName("Ah").getOrdinal(), indexed[21]);
+		assertEquals(1, unindexed[23]); // odd, index 0: the id follows
+	}
+
+	@Test
+	public void decodesCommands() throws Exception {
+		ByteArrayOutputStream sit = header(MessageType.ACTION);
+		writeString(sit, PLAYER_ID);
+		sit.write(ActionType.SIT.ordinal());
+		sit.write(BinaryProtocol.FIELD_VALUE | BinaryProtocol.FIELD_SLOT);
+		sit.write(new byte[] { (byte) 0xC0, (byte) 0xB8, 0x02 }); // 200.00
+		sit.write(6); // slot 3
+
+		Command decoded = BinaryProtocol.decodeCommand(ByteBuffer.wrap(sit.toByteArray()));
+		assertEquals(MessageType.ACTION, decoded.getType());
+		assertEquals(GAME_ID, decoded.getGameId());
+		assertEquals(PLAYER_ID, decoded.getUserId());
+		assertEquals(ActionType.SIT, decoded.getActionType());
+		assertEquals(200.0f, decoded.getBuyIn()); // where a JSON SIT carries it
+		assertEquals(3, decoded.getSlot());
+
+		ByteArrayOutputStream resync = header(MessageType.RESYNC);
+		writeString(resync, PLAYER_ID);
+		resync.write(42);
+		assertEquals(42, BinaryProtocol.decodeCommand(ByteBuffer.wrap(resync.toByteArray())).getEpoch());
+
+		byte[] truncated = Arrays.copyOf(sit.toByteArray(), 20);
+		assertThrows(IllegalArgumentException.class, () -> BinaryProtocol.decodeCommand(ByteBuffer.wrap(truncated)));
+	}
+
+	private static ByteArrayOutputStream header(MessageType type) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(type.ordinal());
+		UUID game = UUID.fromString(GAME_ID);
+		out.write(ByteBuffer.allocate(16).putLong(game.getMostSignificantBits())
+				.putLong(game.getLeastSignificantBits()).array(), 0, 16);
+		return out;
+	}
+
+	private static void writeString(ByteArrayOutputStream out, String string) {
+		byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+		out.write(utf8.length);
+		out.write(utf8, 0, utf8.length);
+	}
+}
@@ -0,0 +1,49 @@
+package com.weflop.GameService.Networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.weflop.GameService.Game.ActionType;
+
+public class CommandTests {
+
+	@Test
+	public void readsFieldsAndSkipsOthers() {
+		Command sit = Command.fromJson("{\"type\":\"ACTION\",\"client\":{\"version\":[1,2]},\"game_id\":\"game\","
+				+ "\"payload\":{\"slot\":3,\"buy_in\":200,\"type\":\"SIT\",\"user_id\":\"player0\",\"note\":null}}");
+
+		assertEquals(MessageType.ACTION, sit.getType());
+		assertEquals("game", sit.getGameId());
+		assertEquals(ActionType.SIT, sit.getActionType());
+		assertEquals("player0", sit.getUserId());
+		assertEquals(200.0f, sit.getBuyIn());
+		assertEquals(3, sit.getSlot());
+		assertThrows(IllegalArgumentException.class, sit::getValue); // not sent
+
+		Command resync = Command.fromJson(
+				"{\"type\":\"RESYNC\",\"game_id\":\"game\",\"payload\":{\"user_id\":\"player0\",\"epoch\":42}}");
+		assertEquals(42, resync.getEpoch());
+	}
+
+	@Test
+	public void rejectsMalformedMessages() {
+		char[] padding = new char[Command.MAX_MESSAGE_SIZE];
+		Arrays.fill(padding, ' ');
+
+		for (String message : new String[] {
+				"{\"type\":\"ACTION\",\"game_id\":\"game\",\"payload\":{" + new String(padding) + "}}",
+				"{\"type\":\"ACTION\",\"game_id\":\"game\",\"payload\":{\"type\":\"RAISE\"", // truncated
+				"{\"type\":\"ACTION\",\"game_id\":\"game\",\"payload\":{}} {}", // trailing data
+				"{\"type\":\"ACTION\",\"game_id\":{},\"payload\":{}}", // wrong kind of field
+				"{\"type\":\"ACTION\",\"game_id\":\"game\",\"payload\":{\"value\":\"twenty\"}}",
+				"{\"type\":\"ACTION\",\"game_id\":\"game\"}", // no payload
+				"{\"type\":\"SHUFFLE\",\"game_id\":\"game\",\"payload\":{}}",
+				"[]" }) {
+			assertThrows(IllegalArgumentException.class, () -> Command.fromJson(message), message);
+		}
+	}
+}
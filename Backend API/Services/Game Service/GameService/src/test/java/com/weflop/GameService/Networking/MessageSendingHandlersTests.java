@@ -0,0 +1,88 @@
+package com.weflop.GameService.Networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+import com.weflop.Cards.Card;
+import com.weflop.GameService.Database.DomainObjects.ActionPOJO;
+import com.weflop.GameService.Game.Action;
+import com.weflop.GameService.Game.ActionType;
+
+public class MessageSendingHandlersTests {
+
+	@Test
+	public void streamedActionsMatchTreeEncoding() throws Exception {
+		Action[] actions = new Action[] {
+				new Action.ActionBuilder(ActionType.RAISE).withPlayerId("player0").withValue(20.5f).build(),
+				new Action.ActionBuilder(ActionType.CENTER_DEAL).withCards(Arrays.asList(Card.fromShortName("Ah"),
+						Card.fromShortName("Td"), Card.fromShortName("7c"))).build(),
+				new Action.ActionBuilder(ActionType.POT_WON).withPlayerIds(Arrays.asList("player0", "player1"))
+						.withValue(240.0f).withPots(Arrays.asList(200.0f, 40.0f)).build(),
+				new Action.ActionBuilder(ActionType.ALL_IN_EQUITY).withPlayerIds(Arrays.asList("player0", "player1"))
+						.withEquities(Arrays.asList(0.6f, 0.4f), Arrays.asList(0.01f, 0.01f)).build(),
+				new Action.ActionBuilder(ActionType.NEW_TURN).withPlayerId("player1").withDuration(30L).build(),
+				new Action.ActionBuilder(ActionType.SIT).withPlayerId("player2").withSlot(3).build(),
+				new Action.ActionBuilder(ActionType.AUTO_MUCK).withPlayerId("player2").withEnabled(true).build(),
+				new Action.ActionBuilder(ActionType.NEW_HAND).withLimitedPlayers(Arrays
+						.asList(new LimitedPlayerPOJO("player0", 100.0f, 2.0f, "WAITING_FOR_TURN", 0, 98.0f)))
+						.build() };
+
+		for (Action action : actions) {
+			String frame = MessageSendingHandlers.encodeAction("game", action, 7).getPayload();
+
+			assertEquals(treeEncoding("game", action, 7).toString(), frame); // same bytes on the wire
+		}
+	}
+
+	/**
+	 * ACTION message as it was built before messages were streamed.
+	 */
+	private static JsonObject treeEncoding(String gameId, Action action, int epoch) {
+		ActionPOJO actionPOJO = action.toPojo();
+
+		JsonObject payload = new JsonObject();
+		payload.addProperty("type", actionPOJO.getType());
+		payload.addProperty("epoch", epoch);
+		if (action.getCards() != null) {
+			payload.add("cards", WebSocketHandler.GSON.toJsonTree(actionPOJO.getCards()));
+		}
+		if (action.getPlayerIds() != null) {
+			payload.add("players", WebSocketHandler.GSON.toJsonTree(action.getPlayerIds()));
+		}
+		if (action.getPlayerId() != null) {
+			payload.addProperty("partipant_id", action.getPlayerId());
+		}
+		if (action.getValue() != null) {
+			payload.addProperty("value", action.getValue());
+		}
+		if (action.getSlot() != null) {
+			payload.addProperty("slot", action.getSlot());
+		}
+		if (action.getPots() != null) {
+			payload.add("pots", WebSocketHandler.GSON.toJsonTree(action.getPots()));
+		}
+		if (action.getLimitedPlayers() != null) {
+			payload.add("limited_players", WebSocketHandler.GSON.toJsonTree(action.getLimitedPlayers()));
+		}
+		if (action.getEnabled() != null) {
+			payload.add("enabled", WebSocketHandler.GSON.toJsonTree(action.getEnabled()));
+		}
+		if (action.getDuration() != null) {
+			payload.addProperty("duration", action.getDuration());
+		}
+		if (action.getWinProbabilities() != null) {
+			payload.add("win_probabilities", WebSocketHandler.GSON.toJsonTree(action.getWinProbabilities()));
+			payload.add("tie_probabilities", WebSocketHandler.GSON.toJsonTree(action.getTieProbabilities()));
+		}
+
+		JsonObject message = new JsonObject();
+		message.addProperty("game_id", gameId);
+		message.addProperty("type", MessageType.ACTION.toValue());
+		message.add("payload", payload);
+		return message;
+	}
+}
@@ -0,0 +1,142 @@
+package com.weflop.GameService.Networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import com.weflop.GameService.Game.Simulation.NoOpWebSocketSession;
+import com.weflop.Utils.ThreadExecution.HashedWheelTimer;
+
+public class QueuedWebSocketSessionTests {
+
+	private static final HashedWheelTimer TIMER = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 64);
+
+	@Test
+	public void coalescesStateQueuedBehindSlowWrite() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		SlowSession client = new SlowSession();
+		try {
+			QueuedWebSocketSession session = new QueuedWebSocketSession(client, executor, TIMER,
+					QueuedWebSocketSession.SEND_TIME_LIMIT_MILLIS);
+
+			session.sendMessage(new TextMessage("action 1"));
+			assertTrue(client.writing.await(5, TimeUnit.SECONDS)); // stuck writing the first message
+			session.send(new TextMessage("state 1"), "GAME_STATE:table");
+			session.sendMessage(new TextMessage("action 2"));
+			session.send(new TextMessage("state 2"), "GAME_STATE:table");
+			assertEquals(2, session.getQueueDepth());
+
+			client.release.countDown();
+			client.awaitReceived(3);
+			assertEquals(Arrays.asList("action 1", "action 2", "state 2"), client.received);
+			assertEquals(0, session.getBufferedBytes());
+		} finally {
+			client.release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void disconnectsClientOverBufferLimit() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		SlowSession client = new SlowSession();
+		try {
+			QueuedWebSocketSession session = new QueuedWebSocketSession(client, executor, TIMER,
+					QueuedWebSocketSession.SEND_TIME_LIMIT_MILLIS);
+			char[] chunk = new char[64 * 1024];
+			Arrays.fill(chunk, 'x');
+
+			for (int i = 0; i <= QueuedWebSocketSession.BUFFER_LIMIT_BYTES / chunk.length + 1; i++) {
+				session.sendMessage(new TextMessage(new String(chunk)));
+			}
+
+			assertFalse(session.isOpen());
+			assertEquals(0, session.getQueueDepth());
+			client.release.countDown();
+			assertTrue(client.closed.await(5, TimeUnit.SECONDS));
+			assertEquals(CloseStatus.SESSION_NOT_RELIABLE, client.closeStatus);
+		} finally {
+			client.release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void disconnectsClientStuckOnWriteWithNothingQueued() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		SlowSession client = new SlowSession();
+		try {
+			QueuedWebSocketSession session = new QueuedWebSocketSession(client, executor, TIMER, 50);
+
+			session.sendMessage(new TextMessage("action 1"));
+			assertTrue(client.writing.await(5, TimeUnit.SECONDS));
+
+			assertTrue(client.closed.await(5, TimeUnit.SECONDS)); // the write was interrupted
+			assertFalse(session.isOpen());
+			assertEquals(CloseStatus.SESSION_NOT_RELIABLE, client.closeStatus);
+		} finally {
+			client.release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void countsQueuedTextInUtf8() {
+		for (String text : new String[] { "{\"name\":\"plain\"}", "{\"name\":\"Zoë 名前\"}", "emoji \uD83C\uDCA1" }) {
+			assertEquals(text.getBytes(StandardCharsets.UTF_8).length, QueuedWebSocketSession.utf8Length(text), text);
+		}
+	}
+
+	/**
+	 * Client whose writes block until released.
+	 */
+	private static class SlowSession extends NoOpWebSocketSession {
+
+		private final CountDownLatch writing = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final CountDownLatch closed = new CountDownLatch(1);
+		private final List<String> received = new CopyOnWriteArrayList<String>();
+		private volatile CloseStatus closeStatus;
+
+		private SlowSession() {
+			super("slow");
+		}
+
+		@Override
+		public void sendMessage(WebSocketMessage<?> message) {
+			writing.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			received.add(((TextMessage) message).getPayload());
+		}
+
+		@Override
+		public void close(CloseStatus status) {
+			closeStatus = status;
+			closed.countDown();
+		}
+
+		private void awaitReceived(int count) throws InterruptedException {
+			for (int attempt = 0; attempt < 500 && received.size() < count; attempt++) {
+				Thread.sleep(10);
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.weflop.GameService.Networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+public class ReplayBufferTests {
+
+	@Test
+	public void replaysFramesSentToPlayerAfterEpoch() {
+		ReplayBuffer buffer = new ReplayBuffer(16, 0);
+		buffer.add(frame("new hand"), 1, true, null);
+		buffer.add(frame("player0 cards"), 1, false, "player0");
+		buffer.add(frame("player1 cards"), 1, false, "player1");
+		buffer.add(frame("raise"), 2, true, null);
+		buffer.add(frame("call"), 3, true, null);
+		buffer.add(frame("option to show"), 3, false, "player1");
+
+		assertEquals(Arrays.asList("call"), payloads(buffer.since(2, "player0")));
+		assertEquals(Collections.emptyList(), payloads(buffer.since(3, "player0")));
+		assertEquals(Arrays.asList("call", "option to show"), payloads(buffer.since(2, "player1")));
+	}
+
+	@Test
+	public void fallsBackWhenFramesMayHaveBeenMissed() {
+		ReplayBuffer buffer = new ReplayBuffer(4, 0);
+		buffer.add(frame("new hand"), 1, true, null);
+		buffer.add(frame("player0 cards"), 1, false, "player0");
+
+		assertNull(buffer.since(1, "player0")); // may or may not have received their cards
+		assertNull(buffer.since(2, "player0")); // ahead of the table, e.g. from another replica
+
+		for (int epoch = 2; epoch <= 5; epoch++) {
+			buffer.add(frame("action " + epoch), epoch, true, null);
+		}
+
+		assertNull(buffer.since(1, "player0")); // their cards are no longer buffered
+		assertEquals(Arrays.asList("action 4", "action 5"), payloads(buffer.since(3, "player0")));
+		assertEquals(4, buffer.size());
+	}
+
+	private static Frame frame(String payload) {
+		return new Frame(new TextMessage(payload), null);
+	}
+
+	private static List<String> payloads(List<Frame> frames) {
+		return frames.stream().map(frame -> frame.getText().getPayload()).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,97 @@
+package com.weflop.Utils.ThreadExecution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class HashedWheelTimerTests {
+
+	@Test
+	public void runsTimeoutsInDeadlineOrder() throws Exception {
+		HashedWheelTimer timer = new HashedWheelTimer("test", 5, TimeUnit.MILLISECONDS, 8);
+		try {
+			List<Integer> order = new CopyOnWriteArrayList<Integer>();
+			CountDownLatch done = new CountDownLatch(3);
+			// the later deadlines wrap around the 8 tick wheel
+			for (final int delay : new int[] { 120, 10, 60 }) {
+				timer.schedule(new Runnable() {
+					@Override
+					public void run() {
+						order.add(delay);
+						done.countDown();
+					}
+				}, delay, TimeUnit.MILLISECONDS);
+			}
+
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			assertEquals(10, order.get(0).intValue());
+			assertEquals(60, order.get(1).intValue());
+			assertEquals(120, order.get(2).intValue());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void cancelledTimeoutNeverRuns() throws Exception {
+		HashedWheelTimer timer = new HashedWheelTimer("test", 5, TimeUnit.MILLISECONDS, 8);
+		try {
+			AtomicInteger runs = new AtomicInteger();
+			HashedWheelTimer.Timeout timeout = timer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					runs.incrementAndGet();
+				}
+			}, 20, TimeUnit.MILLISECONDS);
+			timeout.cancel();
+			assertEquals(0, timer.getPendingCount());
+
+			CountDownLatch later = new CountDownLatch(1);
+			timer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					later.countDown();
+				}
+			}, 60, TimeUnit.MILLISECONDS);
+
+			assertTrue(later.await(5, TimeUnit.SECONDS));
+			assertEquals(0, runs.get());
+		} finally {
+			timer.stop();
+		}
+	}
+
+	@Test
+	public void periodicTimeoutRepeatsUntilCancelled() throws Exception {
+		HashedWheelTimer timer = new HashedWheelTimer("test", 5, TimeUnit.MILLISECONDS, 8);
+		try {
+			AtomicInteger runs = new AtomicInteger();
+			CountDownLatch repeated = new CountDownLatch(3);
+			HashedWheelTimer.Timeout timeout = timer.scheduleAtFixedRate(new Runnable() {
+				@Override
+				public void run() {
+					runs.incrementAndGet();
+					repeated.countDown();
+				}
+			}, 0, 10, TimeUnit.MILLISECONDS);
+
+			assertTrue(repeated.await(5, TimeUnit.SECONDS));
+			timeout.cancel();
+			int cancelledAt = runs.get();
+			Thread.sleep(100);
+
+			// a run already handed to the worker may still finish
+			assertTrue(runs.get() <= cancelledAt + 1);
+			assertEquals(0, timer.getPendingCount());
+		} finally {
+			timer.stop();
+		}
+	}
+}
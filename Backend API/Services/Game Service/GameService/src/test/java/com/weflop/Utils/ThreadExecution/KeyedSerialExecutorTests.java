@@ -0,0 +1,79 @@
+package com.weflop.Utils.ThreadExecution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class KeyedSerialExecutorTests {
+
+	@Test
+	public void keepsOrderWithinKeyAndForgetsDrainedKeys() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			KeyedSerialExecutor executor = new KeyedSerialExecutor(threads);
+			List<Integer> order = new CopyOnWriteArrayList<Integer>();
+			CountDownLatch done = new CountDownLatch(1000);
+			for (int i = 0; i < 1000; i++) {
+				final int value = i;
+				executor.execute("table", () -> {
+					if (value % 100 == 0) {
+						throw new IllegalStateException("invalid action"); // later tasks still run
+					}
+					order.add(value);
+				});
+				executor.execute("table", done::countDown);
+			}
+
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			for (int i = 1; i < order.size(); i++) {
+				assertTrue(order.get(i - 1) < order.get(i));
+			}
+			assertEquals(990, order.size());
+
+			for (int attempt = 0; attempt < 100 && executor.getActiveKeys() > 0; attempt++) {
+				Thread.sleep(10);
+			}
+			assertEquals(0, executor.getActiveKeys());
+		} finally {
+			threads.shutdownNow();
+		}
+	}
+
+	@Test
+	public void blockedKeyDoesNotHoldBackOthers() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(2);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			KeyedSerialExecutor executor = new KeyedSerialExecutor(threads);
+			CountDownLatch slowDone = new CountDownLatch(1);
+			CountDownLatch otherDone = new CountDownLatch(1);
+
+			executor.execute("slow", () -> {
+				try {
+					release.await(); // e.g. loading the game from the database
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			executor.execute("slow", slowDone::countDown);
+			executor.execute("other", otherDone::countDown);
+
+			assertTrue(otherDone.await(5, TimeUnit.SECONDS));
+			assertEquals(1, slowDone.getCount());
+
+			release.countDown();
+			assertTrue(slowDone.await(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			threads.shutdownNow();
+		}
+	}
+}
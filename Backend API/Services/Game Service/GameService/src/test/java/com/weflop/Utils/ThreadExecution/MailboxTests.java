@@ -0,0 +1,98 @@
+package com.weflop.Utils.ThreadExecution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class MailboxTests {
+
+	@Test
+	public void handlesMessagesOneAtATimeInPostingOrder() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		ExecutorService posters = Executors.newFixedThreadPool(4);
+		try {
+			Mailbox mailbox = new Mailbox(executor);
+			AtomicBoolean busy = new AtomicBoolean(false);
+			AtomicBoolean overlapped = new AtomicBoolean(false);
+			List<List<Integer>> received = new ArrayList<List<Integer>>(); // only touched on the mailbox
+			for (int poster = 0; poster < 4; poster++) {
+				received.add(new ArrayList<Integer>());
+			}
+
+			for (int poster = 0; poster < 4; poster++) {
+				final int id = poster;
+				posters.execute(() -> {
+					for (int i = 0; i < 10000; i++) {
+						final int value = i;
+						mailbox.post(() -> {
+							if (!busy.compareAndSet(false, true)) {
+								overlapped.set(true);
+							}
+							received.get(id).add(value);
+							busy.set(false);
+						});
+					}
+				});
+			}
+			posters.shutdown();
+			assertTrue(posters.awaitTermination(10, TimeUnit.SECONDS));
+
+			// a read queued after every message sees all of them
+			int total = mailbox.get(() -> {
+				int count = 0;
+				for (List<Integer> values : received) {
+					for (int i = 0; i < values.size(); i++) {
+						assertEquals(i, values.get(i).intValue());
+					}
+					count += values.size();
+				}
+				return count;
+			});
+
+			assertEquals(40000, total);
+			assertFalse(overlapped.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void nestedCallRunsInline() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Mailbox mailbox = new Mailbox(executor);
+			int result = mailbox.call(() -> mailbox.call(() -> mailbox.isOwner() ? 1 : 0) + 1);
+
+			assertEquals(2, result);
+			assertFalse(mailbox.isOwner());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void callRethrowsWhatTheMessageThrew() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Mailbox mailbox = new Mailbox(executor);
+			Exception thrown = assertThrows(Exception.class, () -> mailbox.call(() -> {
+				throw new Exception("Player cannot perform that action");
+			}));
+
+			assertEquals("Player cannot perform that action", thrown.getMessage());
+			assertEquals(Integer.valueOf(3), mailbox.get(() -> 3)); // still handling messages
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}